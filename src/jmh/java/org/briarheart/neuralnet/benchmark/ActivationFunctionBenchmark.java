@@ -0,0 +1,112 @@
+package org.briarheart.neuralnet.benchmark;
+
+import org.briarheart.neuralnet.activation.ActivationFunction;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * JMH benchmark of exact activation functions compared with their table-based approximations. Every invocation
+ * evaluates function or its derivative for a layer of 1024 weighted sums. Scalar evaluation of function followed by
+ * its derivative is also compared with fused array-at-a-time evaluation used by forward pass of training.
+ *
+ * @author Roman Chigvintsev
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ActivationFunctionBenchmark {
+    private static final int LAYER_SIZE = 1024;
+
+    @Param({"SIGMOID", "HYPERBOLIC_TANGENT"})
+    private String function;
+
+    private ActivationFunction exact;
+    private ActivationFunction fast;
+    private DoubleUnaryOperator exactDerivative;
+    private DoubleUnaryOperator fastDerivative;
+    private double[] input;
+    private double[] output;
+    private double[] derivatives;
+
+    @Setup
+    public void setUp() {
+        if ("SIGMOID".equals(function)) {
+            exact = ActivationFunction.SIGMOID;
+            fast = ActivationFunction.FAST_SIGMOID;
+        } else {
+            exact = ActivationFunction.HYPERBOLIC_TANGENT;
+            fast = ActivationFunction.FAST_HYPERBOLIC_TANGENT;
+        }
+        exactDerivative = exact.getDerivative();
+        fastDerivative = fast.getDerivative();
+
+        Random random = new Random(42);
+        input = new double[LAYER_SIZE];
+        output = new double[LAYER_SIZE];
+        derivatives = new double[LAYER_SIZE];
+        for (int i = 0; i < LAYER_SIZE; i++) {
+            input[i] = 12.0 * random.nextDouble() - 6.0;
+        }
+    }
+
+    @Benchmark
+    public double[] exact() {
+        for (int i = 0; i < LAYER_SIZE; i++) {
+            output[i] = exact.apply(input[i]);
+        }
+        return output;
+    }
+
+    @Benchmark
+    public double[] fast() {
+        for (int i = 0; i < LAYER_SIZE; i++) {
+            output[i] = fast.apply(input[i]);
+        }
+        return output;
+    }
+
+    @Benchmark
+    public double[] exactDerivative() {
+        for (int i = 0; i < LAYER_SIZE; i++) {
+            output[i] = exactDerivative.applyAsDouble(input[i]);
+        }
+        return output;
+    }
+
+    @Benchmark
+    public double[] fastDerivative() {
+        for (int i = 0; i < LAYER_SIZE; i++) {
+            output[i] = fastDerivative.applyAsDouble(input[i]);
+        }
+        return output;
+    }
+
+    @Benchmark
+    public double[] exactInPlace() {
+        exact.applyInPlace(input, output, LAYER_SIZE);
+        return output;
+    }
+
+    @Benchmark
+    public double[] exactWithDerivative() {
+        for (int i = 0; i < LAYER_SIZE; i++) {
+            output[i] = exact.apply(input[i]);
+        }
+        for (int i = 0; i < LAYER_SIZE; i++) {
+            derivatives[i] = exactDerivative.applyAsDouble(output[i]);
+        }
+        return derivatives;
+    }
+
+    @Benchmark
+    public double[] exactFusedWithDerivative() {
+        exact.applyWithDerivative(input, output, derivatives, LAYER_SIZE);
+        return derivatives;
+    }
+}
@@ -0,0 +1,97 @@
+package org.briarheart.neuralnet.benchmark;
+
+import org.briarheart.neuralnet.NeuralNetwork;
+import org.briarheart.neuralnet.activation.ActivationFunction;
+import org.briarheart.neuralnet.layer.NeuralLayer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark comparing asynchronous lock-free backpropagation with the serial one on the bundled breast cancer and
+ * diabetes datasets. Zero number of threads stands for the serial backpropagation, any other number for asynchronous
+ * backpropagation with that many threads. Every network starts from the same seeded initial weights.
+ * {@link #train()} reports throughput in training samples per second over a fixed number of epochs,
+ * {@link #trainToTargetError()} reports time needed to reach target error of the dataset.
+ *
+ * @author Roman Chigvintsev
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AsynchronousTrainingBenchmark {
+    private static final int EPOCHS = 20;
+    private static final int SAMPLES = 512;
+    private static final int MAX_EPOCHS = 5000;
+    private static final int HIDDEN_LAYER_SIZE = 32;
+
+    @Param({"breast_cancer", "diabetes"})
+    private String dataset;
+    @Param({"0", "1", "2", "4"})
+    private int numberOfThreads;
+
+    private BenchmarkDataset data;
+    private double[][] trainingSet;
+    private double[][] expectedOutput;
+    private double targetError;
+
+    @Setup
+    public void setUp() {
+        data = BenchmarkDataset.load(dataset);
+        trainingSet = Arrays.copyOf(data.getTrainingSet(), SAMPLES);
+        expectedOutput = Arrays.copyOf(data.getExpectedOutput(), SAMPLES);
+        targetError = "diabetes".equals(dataset) ? 0.2 : 0.03;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @OperationsPerInvocation(EPOCHS * SAMPLES)
+    public NeuralNetwork train() {
+        NeuralNetwork neuralNetwork = createNeuralNetwork(EPOCHS, 0.0);
+        neuralNetwork.train(trainingSet, expectedOutput);
+        return neuralNetwork;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Warmup(iterations = 3)
+    @Measurement(iterations = 5)
+    public NeuralNetwork trainToTargetError() {
+        NeuralNetwork neuralNetwork = createNeuralNetwork(MAX_EPOCHS, targetError);
+        neuralNetwork.train(data.getTrainingSet(), data.getExpectedOutput());
+        return neuralNetwork;
+    }
+
+    private NeuralNetwork createNeuralNetwork(int maxEpochs, double targetError) {
+        NeuralNetwork neuralNetwork = NeuralNetwork.backpropagationBuilder()
+                .numberOfInputs(trainingSet[0].length)
+                .numberOfOutputs(expectedOutput[0].length)
+                .numberOfLayers(2)
+                .hiddenLayerSize(HIDDEN_LAYER_SIZE)
+                .maxEpochs(maxEpochs)
+                .learningRate(0.1)
+                .targetError(targetError)
+                .outputLayerActivationFunction(ActivationFunction.SIGMOID)
+                .numberOfThreads(Math.max(numberOfThreads, 1))
+                .asynchronous(numberOfThreads > 0)
+                .build();
+        Random random = new Random(42);
+        for (NeuralLayer layer = neuralNetwork.getInputLayer().getNextLayer(); layer != null;
+             layer = layer.getNextLayer()) {
+            double[] weights = layer.getWeights();
+            for (int i = 0; i < weights.length; i++) {
+                weights[i] = random.nextDouble() - 0.5;
+            }
+            double[] biases = layer.getBiases();
+            for (int i = 0; i < biases.length; i++) {
+                biases[i] = random.nextDouble() - 0.5;
+            }
+        }
+        return neuralNetwork;
+    }
+}
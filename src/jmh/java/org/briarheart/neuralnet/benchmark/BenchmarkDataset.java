@@ -0,0 +1,51 @@
+package org.briarheart.neuralnet.benchmark;
+
+import lombok.Getter;
+import org.briarheart.neuralnet.util.*;
+import org.briarheart.neuralnet.util.resource.ClassPathResource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Normalized training and test sets of bundled dataset used by benchmarks of neural networks.
+ *
+ * @author Roman Chigvintsev
+ */
+@Getter
+class BenchmarkDataset {
+    private final double[][] trainingSet;
+    private final double[][] expectedOutput;
+    private final double[][] testSet;
+    private final double[][] testOutput;
+
+    private BenchmarkDataset(String name, DataNormalizer dataNormalizer) {
+        DataLoader dataLoader = new CsvDataLoader();
+        try {
+            this.trainingSet = dataNormalizer.normalize(dataLoader.load(
+                    new ClassPathResource("data/" + name + "_inputs_training.csv")));
+            this.expectedOutput = dataLoader.load(new ClassPathResource("data/" + name + "_output_training.csv"));
+            this.testSet = dataNormalizer.normalize(dataLoader.load(
+                    new ClassPathResource("data/" + name + "_inputs_test.csv")));
+            this.testOutput = dataLoader.load(new ClassPathResource("data/" + name + "_output_test.csv"));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Loads bundled breast cancer or diabetes dataset normalized the same way as in tests.
+     *
+     * @param name name of dataset ("breast_cancer" or "diabetes")
+     */
+    static BenchmarkDataset load(String name) {
+        switch (name) {
+            case "breast_cancer":
+                return new BenchmarkDataset(name, new MinMaxDataNormalizer());
+            case "diabetes":
+                return new BenchmarkDataset(name, new MinMaxEqualizedDataNormalizer());
+            default:
+                throw new IllegalArgumentException("Unknown dataset: " + name);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package org.briarheart.neuralnet.benchmark;
+
+import org.briarheart.neuralnet.util.math.Matrix;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of products of tall and skinny Jacobian matrices calculated by Levenberg-Marquardt algorithm, where
+ * number of rows is number of training samples and number of columns is number of weights.
+ *
+ * @author Roman Chigvintsev
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JacobianMatrixBenchmark {
+    @Param({"1000", "10000"})
+    private int numberOfRows;
+    @Param({"8", "64", "256"})
+    private int numberOfColumns;
+
+    private Matrix jacobian;
+    private Matrix error;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        jacobian = new Matrix(numberOfRows, numberOfColumns);
+        error = new Matrix(numberOfRows, 1);
+        for (int i = 0; i < numberOfRows; i++) {
+            for (int j = 0; j < numberOfColumns; j++) {
+                jacobian.set(i, j, random.nextDouble() - 0.5);
+            }
+            error.set(i, 0, random.nextDouble() - 0.5);
+        }
+    }
+
+    @Benchmark
+    public Matrix normalMatrix() {
+        return jacobian.transposeMultiply();
+    }
+
+    @Benchmark
+    public Matrix normalMatrixByTranspose() {
+        return jacobian.transpose().multiply(jacobian);
+    }
+
+    @Benchmark
+    public Matrix gradient() {
+        return jacobian.transposeMultiply(error);
+    }
+
+    @Benchmark
+    public Matrix gradientByTranspose() {
+        return jacobian.transpose().multiply(error);
+    }
+}
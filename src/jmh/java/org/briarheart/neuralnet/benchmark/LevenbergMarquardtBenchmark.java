@@ -0,0 +1,67 @@
+package org.briarheart.neuralnet.benchmark;
+
+import org.briarheart.neuralnet.NeuralNetwork;
+import org.briarheart.neuralnet.layer.NeuralLayer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of Levenberg-Marquardt training on the bundled breast cancer and diabetes datasets. Zero number of
+ * threads stands for the epoch run by the calling thread, any other number for the epoch whose normal matrix is
+ * accumulated by that many worker threads. Every network starts from the same seeded initial weights and
+ * {@link #train()} reports time of a fixed number of epochs.
+ *
+ * @author Roman Chigvintsev
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LevenbergMarquardtBenchmark {
+    private static final int EPOCHS = 20;
+    private static final int HIDDEN_LAYER_SIZE = 16;
+
+    @Param({"breast_cancer", "diabetes"})
+    private String dataset;
+    @Param({"0", "1", "2", "4"})
+    private int numberOfThreads;
+
+    private BenchmarkDataset data;
+
+    @Setup
+    public void setUp() {
+        data = BenchmarkDataset.load(dataset);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public NeuralNetwork train() {
+        NeuralNetwork neuralNetwork = NeuralNetwork.levenbergMarquardtBuilder()
+                .numberOfInputs(data.getTrainingSet()[0].length)
+                .numberOfOutputs(data.getExpectedOutput()[0].length)
+                .numberOfLayers(2)
+                .hiddenLayerSize(HIDDEN_LAYER_SIZE)
+                .maxEpochs(EPOCHS)
+                .learningRate(0.1)
+                .targetError(0.0)
+                .numberOfThreads(numberOfThreads)
+                .build();
+        Random random = new Random(42);
+        for (NeuralLayer layer = neuralNetwork.getInputLayer().getNextLayer(); layer != null;
+             layer = layer.getNextLayer()) {
+            double[] weights = layer.getWeights();
+            for (int i = 0; i < weights.length; i++) {
+                weights[i] = random.nextDouble() - 0.5;
+            }
+            double[] biases = layer.getBiases();
+            for (int i = 0; i < biases.length; i++) {
+                biases[i] = random.nextDouble() - 0.5;
+            }
+        }
+        neuralNetwork.train(data.getTrainingSet(), data.getExpectedOutput());
+        return neuralNetwork;
+    }
+}
@@ -0,0 +1,81 @@
+package org.briarheart.neuralnet.benchmark;
+
+import org.briarheart.neuralnet.NeuralNetwork;
+import org.briarheart.neuralnet.activation.ActivationFunction;
+import org.briarheart.neuralnet.layer.NeuralLayer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of synchronous data-parallel backpropagation on the bundled breast cancer and diabetes datasets.
+ * Every invocation trains a network with the same seeded initial weights for a fixed number of epochs over the same
+ * number of samples, so {@link #train()} reports throughput in training samples per second for every number of
+ * threads. Batch size is never less than number of threads.
+ *
+ * @author Roman Chigvintsev
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParallelTrainingBenchmark {
+    private static final int EPOCHS = 20;
+    private static final int SAMPLES = 512;
+    private static final int BATCH_SIZE = 64;
+    private static final int HIDDEN_LAYER_SIZE = 32;
+
+    @Param({"breast_cancer", "diabetes"})
+    private String dataset;
+    @Param({"1", "2", "4"})
+    private int numberOfThreads;
+
+    private double[][] trainingSet;
+    private double[][] expectedOutput;
+
+    @Setup
+    public void setUp() {
+        BenchmarkDataset data = BenchmarkDataset.load(dataset);
+        trainingSet = Arrays.copyOf(data.getTrainingSet(), SAMPLES);
+        expectedOutput = Arrays.copyOf(data.getExpectedOutput(), SAMPLES);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    @OperationsPerInvocation(EPOCHS * SAMPLES)
+    public NeuralNetwork train() {
+        NeuralNetwork neuralNetwork = NeuralNetwork.backpropagationBuilder()
+                .numberOfInputs(trainingSet[0].length)
+                .numberOfOutputs(expectedOutput[0].length)
+                .numberOfLayers(2)
+                .hiddenLayerSize(HIDDEN_LAYER_SIZE)
+                .maxEpochs(EPOCHS)
+                .learningRate(0.5)
+                .targetError(0.0)
+                .outputLayerActivationFunction(ActivationFunction.SIGMOID)
+                .batchSize(Math.max(BATCH_SIZE, numberOfThreads))
+                .numberOfThreads(numberOfThreads)
+                .build();
+        initializeWeights(neuralNetwork);
+        neuralNetwork.train(trainingSet, expectedOutput);
+        return neuralNetwork;
+    }
+
+    private static void initializeWeights(NeuralNetwork neuralNetwork) {
+        Random random = new Random(42);
+        for (NeuralLayer layer = neuralNetwork.getInputLayer().getNextLayer(); layer != null;
+             layer = layer.getNextLayer()) {
+            double[] weights = layer.getWeights();
+            for (int i = 0; i < weights.length; i++) {
+                weights[i] = random.nextDouble() - 0.5;
+            }
+            double[] biases = layer.getBiases();
+            for (int i = 0; i < biases.length; i++) {
+                biases[i] = random.nextDouble() - 0.5;
+            }
+        }
+    }
+}
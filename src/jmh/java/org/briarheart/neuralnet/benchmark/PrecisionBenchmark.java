@@ -0,0 +1,96 @@
+package org.briarheart.neuralnet.benchmark;
+
+import org.briarheart.neuralnet.CompiledNeuralNetwork;
+import org.briarheart.neuralnet.NeuralNetwork;
+import org.briarheart.neuralnet.Precision;
+import org.briarheart.neuralnet.activation.ActivationFunction;
+import org.briarheart.neuralnet.layer.NeuralLayer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of double and single precision backpropagation and compiled networks on the bundled breast cancer
+ * and diabetes datasets. Networks of both precisions start from the same seeded initial weights. {@link #feed()}
+ * reports inference throughput in samples per second, {@link #train()} reports time of a fixed number of training
+ * epochs. Accuracy of both precisions is compared by tests rather than by this benchmark.
+ *
+ * @author Roman Chigvintsev
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PrecisionBenchmark {
+    private static final int MAX_EPOCHS = 200;
+    private static final int TRAINING_EPOCHS = 10;
+    private static final int BATCH_SIZE = 16;
+    private static final int HIDDEN_LAYER_SIZE = 16;
+
+    @Param({"breast_cancer", "diabetes"})
+    private String dataset;
+    @Param({"DOUBLE", "SINGLE"})
+    private Precision precision;
+
+    private BenchmarkDataset data;
+    private CompiledNeuralNetwork compiledNeuralNetwork;
+    private double[] output;
+    private int sampleIndex;
+
+    @Setup
+    public void setUp() {
+        data = BenchmarkDataset.load(dataset);
+        NeuralNetwork neuralNetwork = createNeuralNetwork(MAX_EPOCHS);
+        neuralNetwork.train(data.getTrainingSet(), data.getExpectedOutput());
+        compiledNeuralNetwork = neuralNetwork.compile();
+        output = new double[compiledNeuralNetwork.getNumberOfOutputs()];
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public double[] feed() {
+        double[][] testSet = data.getTestSet();
+        double[] sample = testSet[sampleIndex];
+        sampleIndex = sampleIndex + 1 < testSet.length ? sampleIndex + 1 : 0;
+        return compiledNeuralNetwork.feed(sample, output);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public NeuralNetwork train() {
+        NeuralNetwork neuralNetwork = createNeuralNetwork(TRAINING_EPOCHS);
+        neuralNetwork.train(data.getTrainingSet(), data.getExpectedOutput());
+        return neuralNetwork;
+    }
+
+    private NeuralNetwork createNeuralNetwork(int epochs) {
+        NeuralNetwork neuralNetwork = NeuralNetwork.backpropagationBuilder()
+                .numberOfInputs(data.getTrainingSet()[0].length)
+                .numberOfOutputs(data.getExpectedOutput()[0].length)
+                .numberOfLayers(2)
+                .hiddenLayerSize(HIDDEN_LAYER_SIZE)
+                .maxEpochs(epochs)
+                .learningRate(0.5)
+                .targetError(0.0)
+                .outputLayerActivationFunction(ActivationFunction.SIGMOID)
+                .batchSize(BATCH_SIZE)
+                .precision(precision)
+                .build();
+        Random random = new Random(42);
+        for (NeuralLayer layer = neuralNetwork.getInputLayer().getNextLayer(); layer != null;
+             layer = layer.getNextLayer()) {
+            double[] weights = layer.getWeights();
+            for (int i = 0; i < weights.length; i++) {
+                weights[i] = random.nextDouble() - 0.5;
+            }
+            double[] biases = layer.getBiases();
+            for (int i = 0; i < biases.length; i++) {
+                biases[i] = random.nextDouble() - 0.5;
+            }
+        }
+        return neuralNetwork;
+    }
+}
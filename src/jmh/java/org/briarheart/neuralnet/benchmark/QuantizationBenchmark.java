@@ -0,0 +1,100 @@
+package org.briarheart.neuralnet.benchmark;
+
+import org.briarheart.neuralnet.CompiledNeuralNetwork;
+import org.briarheart.neuralnet.NeuralNetwork;
+import org.briarheart.neuralnet.Precision;
+import org.briarheart.neuralnet.activation.ActivationFunction;
+import org.briarheart.neuralnet.layer.NeuralLayer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of inference throughput of network compiled in double precision compared with the same network
+ * quantized to 8-bit integers on the bundled breast cancer and diabetes datasets. Networks have two hidden layers,
+ * so that with wide hidden layers time is spent mostly in multiplication of weights rather than in activation
+ * functions. Throughput is reported in samples
+ * per second for feed-forward of single samples and of batches of {@value #BATCH_SIZE} test samples. Accuracy delta of
+ * quantization is reported by {@link org.briarheart.neuralnet.QuantizationReport} and checked by tests rather than
+ * by this benchmark.
+ *
+ * @author Roman Chigvintsev
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class QuantizationBenchmark {
+    private static final int NUMBER_OF_LAYERS = 3;
+    private static final int MAX_EPOCHS = 50;
+    private static final int BATCH_SIZE = 256;
+
+    @Param({"breast_cancer", "diabetes"})
+    private String dataset;
+    @Param({"16", "256"})
+    private int hiddenLayerSize;
+    @Param({"DOUBLE", "INT8"})
+    private Precision precision;
+
+    private CompiledNeuralNetwork compiledNeuralNetwork;
+    private double[][] testSet;
+    private double[] output;
+    private double[][] batch;
+    private double[][] batchOutput;
+    private int sampleIndex;
+
+    @Setup
+    public void setUp() {
+        BenchmarkDataset data = BenchmarkDataset.load(dataset);
+        double[][] trainingSet = data.getTrainingSet();
+        double[][] expectedOutput = data.getExpectedOutput();
+        NeuralNetwork neuralNetwork = NeuralNetwork.backpropagationBuilder()
+                .numberOfInputs(trainingSet[0].length)
+                .numberOfOutputs(expectedOutput[0].length)
+                .numberOfLayers(NUMBER_OF_LAYERS)
+                .hiddenLayerSize(hiddenLayerSize)
+                .maxEpochs(MAX_EPOCHS)
+                .learningRate(0.1)
+                .targetError(0.0)
+                .outputLayerActivationFunction(ActivationFunction.SIGMOID)
+                .batchSize(16)
+                .build();
+        Random random = new Random(42);
+        for (NeuralLayer layer = neuralNetwork.getInputLayer().getNextLayer(); layer != null;
+             layer = layer.getNextLayer()) {
+            double[] weights = layer.getWeights();
+            for (int i = 0; i < weights.length; i++) {
+                weights[i] = random.nextDouble() - 0.5;
+            }
+        }
+        neuralNetwork.train(trainingSet, expectedOutput);
+
+        compiledNeuralNetwork = precision == Precision.INT8
+                ? neuralNetwork.quantize(trainingSet)
+                : neuralNetwork.compile();
+        testSet = data.getTestSet();
+        output = new double[compiledNeuralNetwork.getNumberOfOutputs()];
+        batch = new double[BATCH_SIZE][];
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            batch[i] = testSet[i % testSet.length];
+        }
+        batchOutput = new double[BATCH_SIZE][compiledNeuralNetwork.getNumberOfOutputs()];
+    }
+
+    @Benchmark
+    public double[] feed() {
+        double[] sample = testSet[sampleIndex];
+        sampleIndex = sampleIndex + 1 < testSet.length ? sampleIndex + 1 : 0;
+        return compiledNeuralNetwork.feed(sample, output);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public double[][] feedBatch() {
+        compiledNeuralNetwork.feedBatch(batch, batchOutput);
+        return batchOutput;
+    }
+}
@@ -0,0 +1,130 @@
+package org.briarheart.neuralnet.benchmark;
+
+import org.briarheart.neuralnet.util.math.CholeskyDecomposition;
+import org.briarheart.neuralnet.util.math.LuDecomposition;
+import org.briarheart.neuralnet.util.math.Matrix;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of operations on square matrices such as normal matrices of Levenberg-Marquardt algorithm.
+ * <p>
+ * Operations which can run in parallel take {@link Pool} state whose {@code parallelism} parameter runs them either
+ * in a pool with single thread or in a pool with thread per available processor. Comparing both across matrix orders
+ * shows the order from which parallel operations pay off.
+ *
+ * @author Roman Chigvintsev
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SquareMatrixBenchmark {
+    @Param({"8", "32", "128", "512", "2048"})
+    private int order;
+
+    private Matrix a;
+    private Matrix b;
+    /**
+     * Symmetric positive-definite matrix in row-major order.
+     */
+    private double[] normalMatrix;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        a = new Matrix(order, order);
+        b = new Matrix(order, order);
+        for (int i = 0; i < order; i++) {
+            for (int j = 0; j < order; j++) {
+                a.set(i, j, random.nextDouble() - 0.5);
+                b.set(i, j, random.nextDouble() - 0.5);
+            }
+            // Diagonal dominance keeps matrix far from singular
+            a.set(i, i, a.get(i, i) + order);
+        }
+
+        Matrix product = a.transposeMultiply();
+        normalMatrix = new double[order * order];
+        for (int i = 0; i < order; i++) {
+            for (int j = 0; j < order; j++) {
+                normalMatrix[i * order + j] = product.get(i, j);
+            }
+        }
+    }
+
+    @Benchmark
+    public Matrix multiply(Pool pool) {
+        return Matrix.multiply(a, b, pool.pool);
+    }
+
+    @Benchmark
+    public Matrix add(Pool pool) {
+        return Matrix.add(a, b, pool.pool);
+    }
+
+    @Benchmark
+    public Matrix multiplyScalar(Pool pool) {
+        return Matrix.multiplyScalar(a, 0.5, pool.pool);
+    }
+
+    @Benchmark
+    public Matrix transpose(Pool pool) {
+        return Matrix.transpose(a, pool.pool);
+    }
+
+    @Benchmark
+    public Matrix inverse(Pool pool) {
+        return Matrix.inverse(a, pool.pool);
+    }
+
+    @Benchmark
+    public double getDeterminant() {
+        return a.getDeterminant();
+    }
+
+    @Benchmark
+    @SuppressWarnings("deprecation")
+    public Matrix[] getLuDecomposition() {
+        return a.getLuDecomposition();
+    }
+
+    @Benchmark
+    public LuDecomposition luDecomposition() {
+        return new LuDecomposition(a);
+    }
+
+    @Benchmark
+    public double[] choleskyDecomposition() {
+        double[] l = normalMatrix.clone();
+        CholeskyDecomposition.decompose(l, order);
+        return l;
+    }
+
+    /**
+     * Pool in which operations that can run in parallel are performed.
+     */
+    @State(Scope.Benchmark)
+    public static class Pool {
+        @Param({"serial", "parallel"})
+        private String parallelism;
+
+        private ForkJoinPool pool;
+
+        @Setup
+        public void setUp() {
+            int numberOfThreads = "serial".equals(parallelism) ? 1 : Runtime.getRuntime().availableProcessors();
+            pool = new ForkJoinPool(numberOfThreads);
+        }
+
+        @TearDown
+        public void tearDown() {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package org.briarheart.neuralnet.benchmark;
+
+import org.briarheart.neuralnet.util.math.VectorKernels;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JMH benchmark of vector kernels compared with plain sequential loops they replace.
+ *
+ * @author Roman Chigvintsev
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VectorKernelsBenchmark {
+    @Param({"16", "128", "1024"})
+    private int length;
+
+    private double[] a;
+    private double[] b;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        a = new double[length];
+        b = new double[length];
+        for (int i = 0; i < length; i++) {
+            a[i] = random.nextDouble() - 0.5;
+            b[i] = random.nextDouble() - 0.5;
+        }
+    }
+
+    @Benchmark
+    public double dot() {
+        return VectorKernels.dot(a, 0, b, 0, length);
+    }
+
+    @Benchmark
+    public double sequentialDot() {
+        double sum = 0.0;
+        for (int i = 0; i < length; i++) {
+            sum += a[i] * b[i];
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double squaredDistance() {
+        return VectorKernels.squaredDistance(a, 0, b, 0, length);
+    }
+
+    @Benchmark
+    public double squaredDistanceByPow() {
+        double sum = 0.0;
+        for (int i = 0; i < length; i++) {
+            sum += Math.pow(a[i] - b[i], 2.0);
+        }
+        return sum;
+    }
+}
@@ -44,10 +44,7 @@ public class AirTemperaturePrediction {
                 .build();
         mseChart.show();
 
-        double[][] estimatedOutput = new double[normalizedTrainingSet.length][];
-        for (int i = 0; i < normalizedTrainingSet.length; i++) {
-            estimatedOutput[i] = neuralNetwork.feed(normalizedTrainingSet[i]);
-        }
+        double[][] estimatedOutput = neuralNetwork.feedBatch(normalizedTrainingSet);
         double[][] denormalizedEstimatedOutput = dataNormalizer.denormalize(expectedOutput, estimatedOutput);
         double[] lowerErrorMargins = new double[denormalizedEstimatedOutput.length];
         double[] upperErrorMargins = new double[denormalizedEstimatedOutput.length];
@@ -83,10 +80,7 @@ public class AirTemperaturePrediction {
         double[][] testExpectedOutput = dataLoader.load(new ClassPathResource("data/inmet_13_14_output_test.csv"));
 
         double[][] normalizedTestTrainingSet = dataNormalizer.normalize(testTrainingSet);
-        estimatedOutput = new double[normalizedTestTrainingSet.length][];
-        for (int i = 0; i < normalizedTestTrainingSet.length; i++) {
-            estimatedOutput[i] = neuralNetwork.feed(normalizedTestTrainingSet[i]);
-        }
+        estimatedOutput = neuralNetwork.feedBatch(normalizedTestTrainingSet);
         denormalizedEstimatedOutput = dataNormalizer.denormalize(testExpectedOutput, estimatedOutput);
         lowerErrorMargins = new double[denormalizedEstimatedOutput.length];
         upperErrorMargins = new double[denormalizedEstimatedOutput.length];
@@ -50,10 +50,7 @@ public class BreastCancerPrediction {
         double[][] testExpectedOutput = dataLoader.load(new ClassPathResource("data/breast_cancer_output_test.csv"));
 
         double[][] normalizedTestTrainingSet = dataNormalizer.normalize(testTrainingSet);
-        double[][] testEstimatedOutput = new double[normalizedTestTrainingSet.length][];
-        for (int i = 0; i < normalizedTestTrainingSet.length; i++) {
-            testEstimatedOutput[i] = neuralNetwork.feed(normalizedTestTrainingSet[i]);
-        }
+        double[][] testEstimatedOutput = neuralNetwork.feedBatch(normalizedTestTrainingSet);
         Chart networkOutputChart = Chart.layeredBarChartBuilder()
                 .title("Neural network test output")
                 .dataSeries().key("Expected").values(Arrays.flatten(testExpectedOutput)).barWidth(1.5).done()
@@ -0,0 +1,108 @@
+package org.briarheart.neuralnet;
+
+import com.google.common.base.Preconditions;
+import lombok.Getter;
+import org.briarheart.neuralnet.layer.NeuralLayer;
+
+/**
+ * Immutable feed-forward snapshot of a trained neural network. Weights of the network are copied at the moment of
+ * compilation, so further training of the original network does not affect compiled one.
+ * <p>
+ * Feed-forward of compiled network does not validate its arguments and does not allocate memory when output buffer
+ * is supplied by the caller. Weights of compiled network are read-only and intermediate layer outputs are kept in
+ * per-thread buffers, so single instance of this class can be safely used by any number of threads.
+ * <p>
+ * Weights of compiled network are stored in {@link #getPrecision() precision} chosen at compilation. Input and
+ * output values are always passed as {@code double} arrays regardless of it.
+ *
+ * @author Roman Chigvintsev
+ * @see NeuralNetwork#compile()
+ * @see NeuralNetwork#compile(Precision)
+ */
+public abstract class CompiledNeuralNetwork {
+    @Getter
+    private final int numberOfInputs;
+    @Getter
+    private final int numberOfOutputs;
+
+    CompiledNeuralNetwork(NeuralNetwork neuralNetwork) {
+        Preconditions.checkNotNull(neuralNetwork, "Neural network must not be null");
+        this.numberOfInputs = neuralNetwork.getInputLayer().getSize();
+        this.numberOfOutputs = neuralNetwork.getOutputLayer().getSize();
+    }
+
+    /**
+     * Creates compiled snapshot of the given network which stores weights in the given precision.
+     */
+    static CompiledNeuralNetwork of(NeuralNetwork neuralNetwork, Precision precision) {
+        Preconditions.checkNotNull(precision, "Precision must not be null");
+        return precision == Precision.SINGLE
+                ? new SinglePrecisionCompiledNeuralNetwork(neuralNetwork)
+                : new DoublePrecisionCompiledNeuralNetwork(neuralNetwork);
+    }
+
+    /**
+     * Returns precision in which weights of this network are stored.
+     */
+    public abstract Precision getPrecision();
+
+    /**
+     * Calculates output of the network for the given input.
+     *
+     * @param input input values (must contain {@link #getNumberOfInputs()} elements)
+     * @return newly allocated array of output values
+     */
+    public double[] feed(double[] input) {
+        double[] output = new double[numberOfOutputs];
+        feed(input, output);
+        return output;
+    }
+
+    /**
+     * Calculates output of the network for the given input and stores it in the given buffer.
+     *
+     * @param input input values (must contain {@link #getNumberOfInputs()} elements)
+     * @param output buffer to store output values in (must have at least {@link #getNumberOfOutputs()} elements)
+     * @return the given output buffer
+     */
+    public abstract double[] feed(double[] input, double[] output);
+
+    /**
+     * Calculates output of the network for every row of the given input matrix.
+     *
+     * @param input input values, one row per sample
+     * @return newly allocated output values, one row per sample
+     * @see #feedBatch(double[][], double[][])
+     */
+    public double[][] feedBatch(double[][] input) {
+        double[][] output = new double[input.length][numberOfOutputs];
+        feedBatch(input, output);
+        return output;
+    }
+
+    /**
+     * Calculates output of the network for every row of the given input matrix and stores it in the given output
+     * matrix. Output is the same as output of {@link #feed(double[], double[])} called for every sample, but
+     * networks which can process several samples at once faster override this method.
+     *
+     * @param input input values, one row per sample
+     * @param output matrix to store output values in, one row per sample
+     */
+    public void feedBatch(double[][] input, double[][] output) {
+        for (int i = 0; i < input.length; i++) {
+            feed(input[i], output[i]);
+        }
+    }
+
+    /**
+     * Returns number of layers of the given network not counting the input one.
+     */
+    static int getNumberOfLayers(NeuralNetwork neuralNetwork) {
+        int numberOfLayers = 0;
+        NeuralLayer inputLayer = neuralNetwork.getInputLayer();
+        for (NeuralLayer layer = inputLayer.getNextLayer(); layer != null; layer = layer.getNextLayer()) {
+            numberOfLayers++;
+        }
+        return numberOfLayers;
+    }
+}
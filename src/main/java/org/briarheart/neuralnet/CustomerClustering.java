@@ -34,10 +34,7 @@ public class CustomerClustering {
         testTrainingSet = dataNormalizer.normalize(testTrainingSet);
 
         double[][] testExpectedOutput = dataLoader.load(new ClassPathResource("data/card_output_test.csv"));
-        double[][] testEstimatedOutput = new double[testTrainingSet.length][];
-        for (int i = 0; i < testTrainingSet.length; i++) {
-            testEstimatedOutput[i] = neuralNetwork.feed(testTrainingSet[i]);
-        }
+        double[][] testEstimatedOutput = neuralNetwork.feedBatch(testTrainingSet);
 
         double[][] confusionMatrixData = new double[testExpectedOutput.length][2];
         for (int i = 0; i < testExpectedOutput.length; i++) {
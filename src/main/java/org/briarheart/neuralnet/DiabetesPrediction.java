@@ -54,10 +54,7 @@ public class DiabetesPrediction {
         double[][] testExpectedOutput = dataLoader.load(new ClassPathResource("data/diabetes_output_test.csv"));
 
         double[][] normalizedTestTrainingSet = dataNormalizer.normalize(testTrainingSet);
-        double[][] testEstimatedOutput = new double[normalizedTestTrainingSet.length][];
-        for (int i = 0; i < normalizedTestTrainingSet.length; i++) {
-            testEstimatedOutput[i] = neuralNetwork.feed(normalizedTestTrainingSet[i]);
-        }
+        double[][] testEstimatedOutput = neuralNetwork.feedBatch(normalizedTestTrainingSet);
 
         Chart networkOutputChart = Chart.layeredBarChartBuilder()
                 .title("Neural network test output")
@@ -0,0 +1,78 @@
+package org.briarheart.neuralnet;
+
+import org.briarheart.neuralnet.activation.ActivationFunction;
+import org.briarheart.neuralnet.layer.NeuralLayer;
+import org.briarheart.neuralnet.util.math.VectorKernels;
+
+/**
+ * Compiled neural network which stores weights in double precision. Its output is exactly the same as output of the
+ * original network.
+ *
+ * @author Roman Chigvintsev
+ */
+class DoublePrecisionCompiledNeuralNetwork extends CompiledNeuralNetwork {
+    private final int[] layerSizes;
+    private final double[][] weights;
+    private final double[][] biases;
+    private final ActivationFunction[] activationFunctions;
+
+    private final ThreadLocal<double[][]> layerOutputBuffers;
+
+    DoublePrecisionCompiledNeuralNetwork(NeuralNetwork neuralNetwork) {
+        super(neuralNetwork);
+
+        int numberOfLayers = getNumberOfLayers(neuralNetwork);
+        this.layerSizes = new int[numberOfLayers + 1];
+        this.weights = new double[numberOfLayers][];
+        this.biases = new double[numberOfLayers][];
+        this.activationFunctions = new ActivationFunction[numberOfLayers];
+
+        NeuralLayer inputLayer = neuralNetwork.getInputLayer();
+        layerSizes[0] = inputLayer.getSize();
+        int maxLayerSize = 0;
+        NeuralLayer layer = inputLayer.getNextLayer();
+        for (int i = 0; i < numberOfLayers; i++, layer = layer.getNextLayer()) {
+            layerSizes[i + 1] = layer.getSize();
+            weights[i] = layer.getWeights().clone();
+            biases[i] = layer.getBiases().clone();
+            activationFunctions[i] = layer.getActivationFunction();
+            maxLayerSize = Math.max(maxLayerSize, layer.getSize());
+        }
+
+        int bufferSize = maxLayerSize;
+        this.layerOutputBuffers = ThreadLocal.withInitial(() -> new double[][] {
+                new double[bufferSize],
+                new double[bufferSize]
+        });
+    }
+
+    @Override
+    public Precision getPrecision() {
+        return Precision.DOUBLE;
+    }
+
+    @Override
+    public double[] feed(double[] input, double[] output) {
+        double[][] buffers = layerOutputBuffers.get();
+        int lastLayer = weights.length - 1;
+        double[] layerInput = input;
+        for (int i = 0; i <= lastLayer; i++) {
+            double[] layerOutput = i == lastLayer ? output : buffers[i & 1];
+            feedLayer(i, layerInput, layerOutput);
+            layerInput = layerOutput;
+        }
+        return output;
+    }
+
+    private void feedLayer(int layer, double[] input, double[] output) {
+        double[] layerWeights = weights[layer];
+        double[] layerBiases = biases[layer];
+        ActivationFunction activationFunction = activationFunctions[layer];
+        int numberOfLayerInputs = layerSizes[layer];
+        int layerSize = layerSizes[layer + 1];
+        for (int j = 0, row = 0; j < layerSize; j++, row += numberOfLayerInputs) {
+            double weightedSum = layerBiases[j] + VectorKernels.dot(layerWeights, row, input, 0, numberOfLayerInputs);
+            output[j] = activationFunction.apply(weightedSum);
+        }
+    }
+}
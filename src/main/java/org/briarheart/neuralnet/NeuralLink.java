@@ -1,25 +1,48 @@
 package org.briarheart.neuralnet;
 
+import com.google.common.base.Preconditions;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
 import lombok.Getter;
-import lombok.RequiredArgsConstructor;
-import lombok.Setter;
 import org.briarheart.neuralnet.neuron.Neuron;
 
 /**
+ * Link between two neurons. Weight of the link is not stored in the link itself but in the element of the weight
+ * array it is bound to. Usually this is the dense weight array of the layer the link leads to, so links are merely
+ * views over layer's weights.
+ *
  * @author Roman Chigvintsev
  */
-@RequiredArgsConstructor
 public class NeuralLink {
     @Getter
     private final transient Neuron from;
     @Getter
     private final transient Neuron to;
 
-    @Getter
-    @Setter
-    private double weight = Math.random();
+    private final transient double[] weights;
+    private final transient int index;
+
+    public NeuralLink(Neuron from, Neuron to) {
+        this(from, to, new double[] {Math.random()}, 0);
+    }
+
+    public NeuralLink(Neuron from, Neuron to, double[] weights, int index) {
+        Preconditions.checkNotNull(weights, "Weights must not be null");
+        Preconditions.checkElementIndex(index, weights.length, "Weight index");
+        this.from = from;
+        this.to = to;
+        this.weights = weights;
+        this.index = index;
+    }
+
+    public double getWeight() {
+        return weights[index];
+    }
+
+    public void setWeight(double weight) {
+        weights[index] = weight;
+    }
 
     @Override
     public String toString() {
@@ -32,6 +55,8 @@ public class NeuralLink {
             gsonBuilder.setPrettyPrinting();
         }
         Gson gson = gsonBuilder.create();
-        return gson.toJson(this);
+        JsonObject json = new JsonObject();
+        json.addProperty("weight", getWeight());
+        return gson.toJson(json);
     }
 }
@@ -11,6 +11,10 @@ import org.briarheart.neuralnet.layer.InputLayer;
 import org.briarheart.neuralnet.layer.NeuralLayer;
 import org.briarheart.neuralnet.layer.OutputLayer;
 import org.briarheart.neuralnet.training.*;
+import org.briarheart.neuralnet.training.optimizer.Optimizer;
+import org.briarheart.neuralnet.training.optimizer.StochasticGradientDescent;
+import org.briarheart.neuralnet.training.schedule.ConstantLearningRate;
+import org.briarheart.neuralnet.training.schedule.LearningRateSchedule;
 
 import java.util.Map;
 
@@ -30,12 +34,30 @@ public class NeuralNetwork {
     @Getter
     private final transient double learningRate;
     @Getter
+    private final transient int validationInterval;
+    @Getter
+    private final transient int patience;
+    @Getter
     private final transient TrainingStrategy trainingStrategy;
+    /**
+     * Precision in which weights of this network are processed during training and in which they are stored by
+     * {@link #compile() compiled} network. Weights of layers of this network are always kept in double arrays.
+     */
+    @Getter
+    private final transient Precision precision;
 
     @Getter
     @Setter
     private Map<Integer, Double> msePerEpoch = Map.of();
 
+    /**
+     * Mean squared error on validation set of every epoch it was evaluated after. It is only filled in when network is
+     * trained with validation set.
+     */
+    @Getter
+    @Setter
+    private Map<Integer, Double> validationMsePerEpoch = Map.of();
+
     @Getter
     @Setter
     private transient double trainingError;
@@ -46,14 +68,19 @@ public class NeuralNetwork {
     private NeuralNetwork(Builder builder) {
         Preconditions.checkArgument(builder.numberOfInputs > 0, "Number of inputs must be greater than zero");
         Preconditions.checkArgument(builder.numberOfOutputs > 0, "Number of outputs must be greater than zero");
+        Preconditions.checkArgument(builder.validationInterval > 0, "Validation interval must be greater than zero");
+        Preconditions.checkArgument(builder.patience > 0, "Patience must be greater than zero");
 
         this.inputLayer = new InputLayer(builder.numberOfInputs);
         NeuralLayer previousLayer = this.inputLayer;
 
+        ActivationFunction hiddenLayerActivationFunction = builder.fastActivationFunctions
+                ? ActivationFunction.fast(builder.defaultActivationFunction)
+                : builder.defaultActivationFunction;
         if (builder.numberOfLayers > 1) {
             for (int i = 0; i < builder.numberOfLayers - 1; i++) {
                 HiddenLayer hiddenLayer = new HiddenLayer("HiddenLayer " + (i + 1), builder.hiddenLayerSize,
-                        builder.defaultActivationFunction);
+                        hiddenLayerActivationFunction);
                 previousLayer.setNextLayer(hiddenLayer);
                 previousLayer = hiddenLayer;
             }
@@ -62,13 +89,19 @@ public class NeuralNetwork {
         ActivationFunction outputLayerActivationFunction = builder.outputLayerActivationFunction != null
                 ? builder.outputLayerActivationFunction
                 : builder.defaultActivationFunction;
+        if (builder.fastActivationFunctions) {
+            outputLayerActivationFunction = ActivationFunction.fast(outputLayerActivationFunction);
+        }
         this.outputLayer = new OutputLayer(builder.numberOfOutputs, outputLayerActivationFunction);
         previousLayer.setNextLayer(this.outputLayer);
 
         this.maxEpochs = builder.maxEpochs;
         this.targetError = builder.targetError;
         this.learningRate = builder.learningRate;
+        this.validationInterval = builder.validationInterval;
+        this.patience = builder.patience;
         this.trainingStrategy = builder.trainingStrategy;
+        this.precision = builder.precision;
     }
 
     public static NeuralNetwork.PerceptronBuilder perceptronBuilder() {
@@ -103,6 +136,42 @@ public class NeuralNetwork {
         ((SupervisedTrainingStrategy) trainingStrategy).train(this, trainingSet, expectedOutput);
     }
 
+    /**
+     * Trains this network with early stopping. Output of the network for validation set is evaluated every
+     * {@link #getValidationInterval()} epochs. Training stops when validation error has not improved for
+     * {@link #getPatience()} evaluations in a row, maximum number of epochs is reached or target error is reached.
+     * Then weights with the lowest validation error are restored.
+     *
+     * @param trainingSet training set
+     * @param expectedOutput expected output of training set in the same layout as for
+     *                       {@link #train(double[][], double[])}
+     * @param validationSet validation set
+     * @param validationOutput expected output of validation set
+     */
+    public void train(double[][] trainingSet, double[] expectedOutput, double[][] validationSet,
+                      double[] validationOutput) {
+        train(trainingSet, new double[][]{expectedOutput}, validationSet, new double[][]{validationOutput});
+    }
+
+    /**
+     * Trains this network with early stopping. Output of the network for validation set is evaluated every
+     * {@link #getValidationInterval()} epochs. Training stops when validation error has not improved for
+     * {@link #getPatience()} evaluations in a row, maximum number of epochs is reached or target error is reached.
+     * Then weights with the lowest validation error are restored.
+     *
+     * @param trainingSet training set
+     * @param expectedOutput expected output of training set
+     * @param validationSet validation set
+     * @param validationOutput expected output of validation set in the same layout as expected output of training set
+     */
+    public void train(double[][] trainingSet, double[][] expectedOutput, double[][] validationSet,
+                      double[][] validationOutput) {
+        Preconditions.checkNotNull(validationSet, "Validation set must not be null");
+        Preconditions.checkNotNull(validationOutput, "Validation output must not be null");
+        ((SupervisedTrainingStrategy) trainingStrategy).train(this, trainingSet, expectedOutput, validationSet,
+                validationOutput);
+    }
+
     public void train(double[][] trainingSet) {
         ((UnsupervisedTrainingStrategy) trainingStrategy).train(this, trainingSet);
     }
@@ -111,6 +180,94 @@ public class NeuralNetwork {
         return trainingStrategy.feed(this, input);
     }
 
+    /**
+     * Calculates output of this network for every row of the given input matrix.
+     *
+     * @param input input values, one row per sample (must not be {@code null})
+     * @return output values, one row per sample
+     * @see #feedBatch(double[][], double[][])
+     */
+    public double[][] feedBatch(double[][] input) {
+        Preconditions.checkNotNull(input, "Input values must not be null");
+        double[][] output = new double[input.length][outputLayer.getSize()];
+        feedBatch(input, output);
+        return output;
+    }
+
+    /**
+     * Calculates output of this network for every row of the given input matrix and stores it in the given output
+     * matrix. Whole blocks of samples are pushed through every layer at once, which is considerably faster than
+     * calling {@link #feed(double[])} for every sample.
+     *
+     * @param input input values, one row per sample (must not be {@code null})
+     * @param output preallocated matrix to store output values in, one row per sample (must not be {@code null})
+     */
+    public void feedBatch(double[][] input, double[][] output) {
+        Preconditions.checkNotNull(input, "Input values must not be null");
+        Preconditions.checkNotNull(output, "Output matrix must not be null");
+        Preconditions.checkArgument(input.length == output.length,
+                "Number of output rows must match number of input rows");
+        for (int i = 0; i < input.length; i++) {
+            Preconditions.checkArgument(input[i] != null && input[i].length == inputLayer.getSize(),
+                    "Number of input values must match number of neurons in input layer");
+            Preconditions.checkArgument(output[i] != null && output[i].length >= outputLayer.getSize(),
+                    "Number of output values must not be less than number of neurons in output layer");
+        }
+        trainingStrategy.feedBatch(this, input, output);
+    }
+
+    /**
+     * Freezes current weights of this network into immutable feed-forward model intended for inference only. Weights
+     * of compiled network are stored in {@link #getPrecision() precision} of this network.
+     *
+     * @return compiled neural network
+     * @throws IllegalStateException if this network is trained by unsupervised training strategy which does not
+     * use plain feed-forward to calculate output
+     */
+    public CompiledNeuralNetwork compile() {
+        return compile(precision);
+    }
+
+    /**
+     * Freezes current weights of this network into immutable feed-forward model intended for inference only. Weights
+     * of compiled network are stored in the given precision.
+     *
+     * @param precision precision of weights of compiled network
+     * @return compiled neural network
+     * @throws IllegalStateException if this network is trained by unsupervised training strategy which does not
+     * use plain feed-forward to calculate output
+     * @throws IllegalArgumentException if the given precision is {@link Precision#INT8}
+     * @see #quantize(double[][])
+     */
+    public CompiledNeuralNetwork compile(Precision precision) {
+        Preconditions.checkState(trainingStrategy instanceof SupervisedTrainingStrategy,
+                "Only networks trained by supervised training strategy can be compiled");
+        Preconditions.checkArgument(precision != Precision.INT8, "Quantization requires calibration set");
+        return CompiledNeuralNetwork.of(this, precision);
+    }
+
+    /**
+     * Quantizes current weights of this network to 8-bit integers producing immutable feed-forward model intended
+     * for inference only. Scale factors of layer inputs are calibrated by feeding the given samples to this network,
+     * so they should be representative of the data the quantized network is going to process.
+     *
+     * @param calibrationSet samples to calibrate quantization of layer inputs (must not be {@code null} or empty)
+     * @return quantized neural network
+     * @throws IllegalStateException if this network is trained by unsupervised training strategy which does not
+     * use plain feed-forward to calculate output
+     */
+    public QuantizedNeuralNetwork quantize(double[][] calibrationSet) {
+        Preconditions.checkState(trainingStrategy instanceof SupervisedTrainingStrategy,
+                "Only networks trained by supervised training strategy can be quantized");
+        Preconditions.checkNotNull(calibrationSet, "Calibration set must not be null");
+        Preconditions.checkArgument(calibrationSet.length > 0, "Calibration set must not be empty");
+        for (double[] sample : calibrationSet) {
+            Preconditions.checkArgument(sample != null && sample.length == inputLayer.getSize(),
+                    "Number of input values must match number of neurons in input layer");
+        }
+        return new QuantizedNeuralNetwork(this, calibrationSet);
+    }
+
     @Override
     public String toString() {
         return toJson(true);
@@ -134,9 +291,13 @@ public class NeuralNetwork {
         protected int maxEpochs = 10;
         protected double learningRate = 1.0;
         protected double targetError = 0.002;
+        protected int validationInterval = 1;
+        protected int patience = 10;
+        protected Precision precision = Precision.DOUBLE;
 
         protected ActivationFunction defaultActivationFunction;
         protected ActivationFunction outputLayerActivationFunction;
+        protected boolean fastActivationFunctions;
 
         private TrainingStrategy trainingStrategy;
 
@@ -174,6 +335,23 @@ public class NeuralNetwork {
             return this;
         }
 
+        /**
+         * Sets number of epochs between evaluations of validation error when network is trained with validation set.
+         */
+        public Builder validationInterval(int validationInterval) {
+            this.validationInterval = validationInterval;
+            return this;
+        }
+
+        /**
+         * Sets number of evaluations of validation error in a row without improvement after which training with
+         * validation set stops.
+         */
+        public Builder patience(int patience) {
+            this.patience = patience;
+            return this;
+        }
+
         protected abstract TrainingStrategy getTrainingStrategy(double learningRate);
     }
 
@@ -232,10 +410,33 @@ public class NeuralNetwork {
             return (MultilayerNetworkBuilder) super.defaultActivationFunction(activationFunction);
         }
 
+        @Override
+        public MultilayerNetworkBuilder validationInterval(int validationInterval) {
+            return (MultilayerNetworkBuilder) super.validationInterval(validationInterval);
+        }
+
+        @Override
+        public MultilayerNetworkBuilder patience(int patience) {
+            return (MultilayerNetworkBuilder) super.patience(patience);
+        }
+
         public MultilayerNetworkBuilder outputLayerActivationFunction(ActivationFunction activationFunction) {
             this.outputLayerActivationFunction = activationFunction;
             return this;
         }
+
+        /**
+         * Makes layers use table-based approximations of {@link ActivationFunction#SIGMOID} and
+         * {@link ActivationFunction#HYPERBOLIC_TANGENT} instead of exact functions both for training and for
+         * inference. Other activation functions are not affected. Exact functions are used by default.
+         *
+         * @see ActivationFunction#FAST_SIGMOID
+         * @see ActivationFunction#FAST_HYPERBOLIC_TANGENT
+         */
+        public MultilayerNetworkBuilder fastActivationFunctions(boolean fastActivationFunctions) {
+            this.fastActivationFunctions = fastActivationFunctions;
+            return this;
+        }
     }
 
     public static class PerceptronBuilder extends Builder {
@@ -261,29 +462,268 @@ public class NeuralNetwork {
     }
 
     public static class BackpropagationBuilder extends MultilayerNetworkBuilder {
+        private int batchSize = 1;
+        private int numberOfThreads = 1;
+        private boolean asynchronous;
+        private Optimizer optimizer = new StochasticGradientDescent();
+        private LearningRateSchedule learningRateSchedule = new ConstantLearningRate();
+
         private BackpropagationBuilder() {
             super(ActivationFunction.SIGMOID, ActivationFunction.LINEAR);
         }
 
+        public BackpropagationBuilder batchSize(int batchSize) {
+            this.batchSize = batchSize;
+            return this;
+        }
+
+        /**
+         * Sets number of threads used for synchronous data-parallel training. When number of threads is greater than
+         * one, every mini-batch is split between the threads. This only makes sense together with batch size which
+         * is considerably greater than number of threads, so unless training is asynchronous batch size must not be
+         * less than number of threads.
+         */
+        public BackpropagationBuilder numberOfThreads(int numberOfThreads) {
+            this.numberOfThreads = numberOfThreads;
+            return this;
+        }
+
+        /**
+         * Makes threads adjust weights of the network asynchronously without any locks instead of splitting every
+         * mini-batch between them. Asynchronous training scales better with number of threads, but its results are
+         * not deterministic.
+         *
+         * @see AsynchronousBackpropagation
+         */
+        public BackpropagationBuilder asynchronous(boolean asynchronous) {
+            this.asynchronous = asynchronous;
+            return this;
+        }
+
+        /**
+         * Sets rule by which weights are adjusted by gradient. Plain stochastic gradient descent is used by default.
+         */
+        public BackpropagationBuilder optimizer(Optimizer optimizer) {
+            this.optimizer = optimizer;
+            return this;
+        }
+
+        /**
+         * Sets schedule by which learning rate changes during training. Learning rate is constant by default.
+         */
+        public BackpropagationBuilder learningRateSchedule(LearningRateSchedule learningRateSchedule) {
+            this.learningRateSchedule = learningRateSchedule;
+            return this;
+        }
+
+        /**
+         * Sets precision in which weights are processed during training and stored by compiled network. Double
+         * precision is used by default. Single precision training is only supported by single thread with plain
+         * stochastic gradient descent.
+         *
+         * @see SinglePrecisionBackpropagation
+         */
+        public BackpropagationBuilder precision(Precision precision) {
+            Preconditions.checkNotNull(precision, "Precision must not be null");
+            Preconditions.checkArgument(precision != Precision.INT8, "Training in 8-bit integers is not supported");
+            this.precision = precision;
+            return this;
+        }
+
+        @Override
+        public BackpropagationBuilder numberOfInputs(int numberOfInputs) {
+            return (BackpropagationBuilder) super.numberOfInputs(numberOfInputs);
+        }
+
+        @Override
+        public BackpropagationBuilder numberOfOutputs(int numberOfOutputs) {
+            return (BackpropagationBuilder) super.numberOfOutputs(numberOfOutputs);
+        }
+
+        @Override
+        public BackpropagationBuilder numberOfLayers(int numberOfLayers) {
+            return (BackpropagationBuilder) super.numberOfLayers(numberOfLayers);
+        }
+
+        @Override
+        public BackpropagationBuilder hiddenLayerSize(int size) {
+            return (BackpropagationBuilder) super.hiddenLayerSize(size);
+        }
+
+        @Override
+        public BackpropagationBuilder learningRate(double learningRate) {
+            return (BackpropagationBuilder) super.learningRate(learningRate);
+        }
+
+        @Override
+        public BackpropagationBuilder maxEpochs(int maxEpochs) {
+            return (BackpropagationBuilder) super.maxEpochs(maxEpochs);
+        }
+
+        @Override
+        public BackpropagationBuilder targetError(double targetError) {
+            return (BackpropagationBuilder) super.targetError(targetError);
+        }
+
+        @Override
+        public BackpropagationBuilder defaultActivationFunction(ActivationFunction activationFunction) {
+            return (BackpropagationBuilder) super.defaultActivationFunction(activationFunction);
+        }
+
+        @Override
+        public BackpropagationBuilder validationInterval(int validationInterval) {
+            return (BackpropagationBuilder) super.validationInterval(validationInterval);
+        }
+
+        @Override
+        public BackpropagationBuilder patience(int patience) {
+            return (BackpropagationBuilder) super.patience(patience);
+        }
+
+        @Override
+        public BackpropagationBuilder outputLayerActivationFunction(ActivationFunction activationFunction) {
+            return (BackpropagationBuilder) super.outputLayerActivationFunction(activationFunction);
+        }
+
+        @Override
+        public BackpropagationBuilder fastActivationFunctions(boolean fastActivationFunctions) {
+            return (BackpropagationBuilder) super.fastActivationFunctions(fastActivationFunctions);
+        }
+
         @Override
         protected TrainingStrategy getTrainingStrategy(double learningRate) {
-            return new Backpropagation(learningRate);
+            Backpropagation strategy;
+            if (precision == Precision.SINGLE) {
+                Preconditions.checkArgument(!asynchronous && numberOfThreads == 1,
+                        "Single precision training does not support multiple threads");
+                strategy = new SinglePrecisionBackpropagation(learningRate);
+            } else if (asynchronous) {
+                strategy = new AsynchronousBackpropagation(learningRate, numberOfThreads);
+            } else if (numberOfThreads > 1) {
+                Preconditions.checkArgument(batchSize >= numberOfThreads,
+                        "Batch size must not be less than number of threads");
+                strategy = new ParallelBackpropagation(learningRate, numberOfThreads);
+            } else {
+                strategy = new Backpropagation(learningRate);
+            }
+            strategy.setBatchSize(batchSize);
+            strategy.setOptimizer(optimizer);
+            strategy.setLearningRateSchedule(learningRateSchedule);
+            return strategy;
         }
     }
 
     public static class LevenbergMarquardtBuilder extends MultilayerNetworkBuilder {
+        private boolean streaming = true;
+        private int numberOfThreads;
+        private LevenbergMarquardt.BlockStructure blockStructure = LevenbergMarquardt.BlockStructure.FULL;
+
         private LevenbergMarquardtBuilder() {
             super(ActivationFunction.SIGMOID, ActivationFunction.LINEAR);
         }
 
+        /**
+         * Sets whether normal matrix should be accumulated sample by sample instead of storing the whole Jacobian
+         * matrix. Streaming mode is used by default.
+         */
+        public LevenbergMarquardtBuilder streaming(boolean streaming) {
+            this.streaming = streaming;
+            return this;
+        }
+
+        /**
+         * Sets number of worker threads which accumulate normal matrix against weights every epoch started with.
+         * Weights are only adjusted by Levenberg-Marquardt steps at the end of every epoch then, and any number of
+         * threads gives the same results up to order of summation. By default (zero threads) normal matrix is
+         * accumulated by the calling thread, which also adjusts weights by backpropagation after every sample.
+         */
+        public LevenbergMarquardtBuilder numberOfThreads(int numberOfThreads) {
+            this.numberOfThreads = numberOfThreads;
+            return this;
+        }
+
+        /**
+         * Sets which blocks of normal matrix are taken into account. Block-diagonal approximation of normal matrix
+         * makes training of larger networks cheaper. Whole normal matrix is used by default.
+         */
+        public LevenbergMarquardtBuilder blockStructure(LevenbergMarquardt.BlockStructure blockStructure) {
+            Preconditions.checkNotNull(blockStructure, "Block structure must not be null");
+            this.blockStructure = blockStructure;
+            return this;
+        }
+
+        @Override
+        public LevenbergMarquardtBuilder numberOfInputs(int numberOfInputs) {
+            return (LevenbergMarquardtBuilder) super.numberOfInputs(numberOfInputs);
+        }
+
+        @Override
+        public LevenbergMarquardtBuilder numberOfOutputs(int numberOfOutputs) {
+            return (LevenbergMarquardtBuilder) super.numberOfOutputs(numberOfOutputs);
+        }
+
+        @Override
+        public LevenbergMarquardtBuilder numberOfLayers(int numberOfLayers) {
+            return (LevenbergMarquardtBuilder) super.numberOfLayers(numberOfLayers);
+        }
+
+        @Override
+        public LevenbergMarquardtBuilder hiddenLayerSize(int size) {
+            return (LevenbergMarquardtBuilder) super.hiddenLayerSize(size);
+        }
+
+        @Override
+        public LevenbergMarquardtBuilder learningRate(double learningRate) {
+            return (LevenbergMarquardtBuilder) super.learningRate(learningRate);
+        }
+
+        @Override
+        public LevenbergMarquardtBuilder maxEpochs(int maxEpochs) {
+            return (LevenbergMarquardtBuilder) super.maxEpochs(maxEpochs);
+        }
+
+        @Override
+        public LevenbergMarquardtBuilder targetError(double targetError) {
+            return (LevenbergMarquardtBuilder) super.targetError(targetError);
+        }
+
+        @Override
+        public LevenbergMarquardtBuilder defaultActivationFunction(ActivationFunction activationFunction) {
+            return (LevenbergMarquardtBuilder) super.defaultActivationFunction(activationFunction);
+        }
+
+        @Override
+        public LevenbergMarquardtBuilder validationInterval(int validationInterval) {
+            return (LevenbergMarquardtBuilder) super.validationInterval(validationInterval);
+        }
+
+        @Override
+        public LevenbergMarquardtBuilder patience(int patience) {
+            return (LevenbergMarquardtBuilder) super.patience(patience);
+        }
+
+        @Override
+        public LevenbergMarquardtBuilder outputLayerActivationFunction(ActivationFunction activationFunction) {
+            return (LevenbergMarquardtBuilder) super.outputLayerActivationFunction(activationFunction);
+        }
+
+        @Override
+        public LevenbergMarquardtBuilder fastActivationFunctions(boolean fastActivationFunctions) {
+            return (LevenbergMarquardtBuilder) super.fastActivationFunctions(fastActivationFunctions);
+        }
+
         @Override
         protected TrainingStrategy getTrainingStrategy(double learningRate) {
-            return new LevenbergMarquardt(learningRate);
+            return new LevenbergMarquardt(learningRate, LevenbergMarquardt.DEFAULT_DAMPING, streaming,
+                    numberOfThreads, blockStructure);
         }
     }
 
     public static class OnlineBackpropagationBuilder extends MultilayerNetworkBuilder {
         private double learningRateReductionPercentage = 0.01;
+        private int batchSize = 1;
+        private Optimizer optimizer = new StochasticGradientDescent();
+        private LearningRateSchedule learningRateSchedule;
 
         private OnlineBackpropagationBuilder() {
             super(ActivationFunction.SIGMOID, ActivationFunction.LINEAR);
@@ -294,6 +734,28 @@ public class NeuralNetwork {
             return this;
         }
 
+        public OnlineBackpropagationBuilder batchSize(int batchSize) {
+            this.batchSize = batchSize;
+            return this;
+        }
+
+        /**
+         * Sets rule by which weights are adjusted by gradient. Plain stochastic gradient descent is used by default.
+         */
+        public OnlineBackpropagationBuilder optimizer(Optimizer optimizer) {
+            this.optimizer = optimizer;
+            return this;
+        }
+
+        /**
+         * Sets schedule by which learning rate changes during training. When schedule is set, learning rate
+         * reduction percentage is ignored.
+         */
+        public OnlineBackpropagationBuilder learningRateSchedule(LearningRateSchedule learningRateSchedule) {
+            this.learningRateSchedule = learningRateSchedule;
+            return this;
+        }
+
         @Override
         public OnlineBackpropagationBuilder numberOfInputs(int numberOfInputs) {
             return (OnlineBackpropagationBuilder) super.numberOfInputs(numberOfInputs);
@@ -334,15 +796,35 @@ public class NeuralNetwork {
             return (OnlineBackpropagationBuilder) super.defaultActivationFunction(activationFunction);
         }
 
+        @Override
+        public OnlineBackpropagationBuilder validationInterval(int validationInterval) {
+            return (OnlineBackpropagationBuilder) super.validationInterval(validationInterval);
+        }
+
+        @Override
+        public OnlineBackpropagationBuilder patience(int patience) {
+            return (OnlineBackpropagationBuilder) super.patience(patience);
+        }
+
         @Override
         public OnlineBackpropagationBuilder outputLayerActivationFunction(ActivationFunction activationFunction) {
             return (OnlineBackpropagationBuilder) super.outputLayerActivationFunction(activationFunction);
         }
 
+        @Override
+        public OnlineBackpropagationBuilder fastActivationFunctions(boolean fastActivationFunctions) {
+            return (OnlineBackpropagationBuilder) super.fastActivationFunctions(fastActivationFunctions);
+        }
+
         @Override
         protected TrainingStrategy getTrainingStrategy(double learningRate) {
             OnlineBackpropagation strategy = new OnlineBackpropagation(learningRate);
             strategy.setLearningRateReductionPercentage(learningRateReductionPercentage);
+            strategy.setBatchSize(batchSize);
+            strategy.setOptimizer(optimizer);
+            if (learningRateSchedule != null) {
+                strategy.setLearningRateSchedule(learningRateSchedule);
+            }
             return strategy;
         }
     }
@@ -0,0 +1,27 @@
+package org.briarheart.neuralnet;
+
+/**
+ * Precision in which weights of a neural network are stored and processed.
+ *
+ * @author Roman Chigvintsev
+ */
+public enum Precision {
+    /**
+     * 64-bit IEEE 754 floating-point numbers ({@code double}).
+     */
+    DOUBLE,
+    /**
+     * 32-bit IEEE 754 floating-point numbers ({@code float}). Single precision halves memory traffic of weights and
+     * activations and doubles number of elements processed by every SIMD instruction at the cost of roughly seven
+     * significant decimal digits instead of fifteen.
+     */
+    SINGLE,
+    /**
+     * 8-bit signed integers with floating-point scale factors. Integer weights can only be produced from trained
+     * network by post-training quantization which needs calibration data, so this precision is neither supported by
+     * training nor by {@link NeuralNetwork#compile(Precision)}.
+     *
+     * @see NeuralNetwork#quantize(double[][])
+     */
+    INT8
+}
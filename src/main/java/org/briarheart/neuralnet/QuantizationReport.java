@@ -0,0 +1,120 @@
+package org.briarheart.neuralnet;
+
+import com.google.common.base.Preconditions;
+import lombok.Getter;
+import org.briarheart.neuralnet.util.Arrays;
+
+/**
+ * Compares output of quantized neural network with output of reference network on a held-out set. Both networks are
+ * evaluated by mean squared error and by classification accuracy. Output of network with single output neuron is
+ * classified by threshold of 0.5, output of network with several output neurons is classified by index of maximum
+ * output value.
+ *
+ * @author Roman Chigvintsev
+ * @see QuantizedNeuralNetwork
+ */
+public class QuantizationReport {
+    private static final double CLASSIFICATION_THRESHOLD = 0.5;
+
+    @Getter
+    private final int numberOfSamples;
+    @Getter
+    private final double referenceMeanSquaredError;
+    @Getter
+    private final double meanSquaredError;
+    @Getter
+    private final double referenceAccuracy;
+    @Getter
+    private final double accuracy;
+    /**
+     * Maximum absolute difference between output values of reference and quantized networks.
+     */
+    @Getter
+    private final double maxAbsoluteDifference;
+
+    /**
+     * Creates new instance of this class.
+     *
+     * @param reference reference network, usually compiled in double or single precision (must not be {@code null})
+     * @param quantized quantized network (must not be {@code null})
+     * @param testSet held-out samples (must not be {@code null} or empty)
+     * @param expectedOutput expected output of held-out samples (must not be {@code null})
+     */
+    public QuantizationReport(
+            CompiledNeuralNetwork reference,
+            CompiledNeuralNetwork quantized,
+            double[][] testSet,
+            double[][] expectedOutput
+    ) {
+        Preconditions.checkNotNull(reference, "Reference network must not be null");
+        Preconditions.checkNotNull(quantized, "Quantized network must not be null");
+        Preconditions.checkNotNull(testSet, "Test set must not be null");
+        Preconditions.checkNotNull(expectedOutput, "Expected output must not be null");
+        Preconditions.checkArgument(testSet.length > 0, "Test set must not be empty");
+        Preconditions.checkArgument(testSet.length == expectedOutput.length,
+                "Number of output rows must match number of input rows");
+
+        double[] referenceOutput = new double[reference.getNumberOfOutputs()];
+        double[] quantizedOutput = new double[quantized.getNumberOfOutputs()];
+        double referenceErrorSum = 0.0;
+        double errorSum = 0.0;
+        int referenceHits = 0;
+        int hits = 0;
+        double maxDifference = 0.0;
+        for (int i = 0; i < testSet.length; i++) {
+            reference.feed(testSet[i], referenceOutput);
+            quantized.feed(testSet[i], quantizedOutput);
+            referenceErrorSum += calculateMeanError(referenceOutput, expectedOutput[i]);
+            errorSum += calculateMeanError(quantizedOutput, expectedOutput[i]);
+            int expectedClass = classify(expectedOutput[i]);
+            if (classify(referenceOutput) == expectedClass) {
+                referenceHits++;
+            }
+            if (classify(quantizedOutput) == expectedClass) {
+                hits++;
+            }
+            for (int j = 0; j < referenceOutput.length; j++) {
+                maxDifference = Math.max(maxDifference, Math.abs(referenceOutput[j] - quantizedOutput[j]));
+            }
+        }
+
+        this.numberOfSamples = testSet.length;
+        this.referenceMeanSquaredError = referenceErrorSum / testSet.length;
+        this.meanSquaredError = errorSum / testSet.length;
+        this.referenceAccuracy = (double) referenceHits / testSet.length;
+        this.accuracy = (double) hits / testSet.length;
+        this.maxAbsoluteDifference = maxDifference;
+    }
+
+    /**
+     * Returns difference between accuracy of quantized network and accuracy of reference network. Negative value
+     * means that quantized network classifies held-out samples worse.
+     */
+    public double getAccuracyDelta() {
+        return accuracy - referenceAccuracy;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("[samples=%d, reference_mse=%.6f, mse=%.6f, reference_accuracy=%.4f, accuracy=%.4f, "
+                        + "accuracy_delta=%.4f, max_absolute_difference=%.6f]", numberOfSamples,
+                referenceMeanSquaredError, meanSquaredError, referenceAccuracy, accuracy, getAccuracyDelta(),
+                maxAbsoluteDifference);
+    }
+
+    private static double calculateMeanError(double[] estimatedOutput, double[] expectedOutput) {
+        double errorSum = 0.0;
+        for (int i = 0; i < estimatedOutput.length; i++) {
+            double error = expectedOutput[i] - estimatedOutput[i];
+            errorSum += error * error;
+        }
+        return errorSum / estimatedOutput.length;
+    }
+
+    private static int classify(double[] output) {
+        if (output.length == 1) {
+            return output[0] >= CLASSIFICATION_THRESHOLD ? 1 : 0;
+        }
+        return Arrays.findMaximum(output);
+    }
+}
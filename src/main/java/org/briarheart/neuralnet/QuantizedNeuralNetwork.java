@@ -0,0 +1,290 @@
+package org.briarheart.neuralnet;
+
+import org.briarheart.neuralnet.activation.ActivationFunction;
+import org.briarheart.neuralnet.layer.NeuralLayer;
+import org.briarheart.neuralnet.util.Arrays;
+import org.briarheart.neuralnet.util.math.VectorKernels;
+
+/**
+ * Compiled neural network with weights quantized to 8-bit signed integers after training. Weights take eight times
+ * less memory than in double precision. Unless JIT compiler vectorizes integer dot products, integer multiplication is
+ * not faster than floating-point one, so feed-forward of single samples mostly pays off for networks whose weights do
+ * not fit in processor cache in double precision. Feed-forward of batches of samples by
+ * {@link #feedBatch(double[][], double[][])} runs over 32-bit integers of several samples at once and is faster than
+ * feed-forward in double precision when time is spent mostly in multiplication of weights rather than in activation
+ * functions.
+ * <p>
+ * Every row of weights of a layer (that is, weights of a single neuron) has its own scale factor which maps the
+ * largest absolute weight of the row to 127. Inputs of every layer are quantized by single scale factor calibrated
+ * on a sample dataset so that the largest absolute input observed during calibration maps to 127. Inputs outside of
+ * calibrated range are clamped. Weighted sums are accumulated in 32-bit integers and dequantized by product of both
+ * scale factors only right before bias is added and activation function is applied. Biases and scale factors are
+ * kept in single precision, output values of the last layer are not quantized.
+ *
+ * @author Roman Chigvintsev
+ * @see NeuralNetwork#quantize(double[][])
+ * @see QuantizationReport
+ */
+public class QuantizedNeuralNetwork extends CompiledNeuralNetwork {
+    private static final byte MAX_QUANTIZED_VALUE = 127;
+    /**
+     * Maximum number of samples processed together by {@link #feedBatch(double[][], double[][])}.
+     */
+    private static final int BLOCK_SIZE = 64;
+
+    private final int[] layerSizes;
+    private final byte[][] weights;
+    private final float[][] biases;
+    /**
+     * Products of scale factor of every row of weights and scale factor of layer input.
+     */
+    private final float[][] scales;
+    /**
+     * Reciprocals of scale factors of layer inputs.
+     */
+    private final float[] inputScaleReciprocals;
+    private final ActivationFunction[] activationFunctions;
+
+    /**
+     * Per-thread pairs of buffers of quantized layer inputs.
+     */
+    private final ThreadLocal<byte[][]> layerInputBuffers;
+    /**
+     * Per-thread buffers of batched feed-forward.
+     */
+    private final ThreadLocal<BlockBuffers> blockBuffers;
+
+    QuantizedNeuralNetwork(NeuralNetwork neuralNetwork, double[][] calibrationSet) {
+        super(neuralNetwork);
+
+        int numberOfLayers = getNumberOfLayers(neuralNetwork);
+        this.layerSizes = new int[numberOfLayers + 1];
+        this.weights = new byte[numberOfLayers][];
+        this.biases = new float[numberOfLayers][];
+        this.scales = new float[numberOfLayers][];
+        this.inputScaleReciprocals = new float[numberOfLayers];
+        this.activationFunctions = new ActivationFunction[numberOfLayers];
+
+        NeuralLayer[] layers = new NeuralLayer[numberOfLayers];
+        NeuralLayer inputLayer = neuralNetwork.getInputLayer();
+        layerSizes[0] = inputLayer.getSize();
+        int maxLayerInputSize = layerSizes[0];
+        NeuralLayer layer = inputLayer.getNextLayer();
+        for (int i = 0; i < numberOfLayers; i++, layer = layer.getNextLayer()) {
+            layers[i] = layer;
+            layerSizes[i + 1] = layer.getSize();
+            activationFunctions[i] = layer.getActivationFunction();
+            maxLayerInputSize = Math.max(maxLayerInputSize, layer.getSize());
+        }
+
+        double[] maxAbsoluteInputs = calibrate(layers, calibrationSet);
+        for (int i = 0; i < numberOfLayers; i++) {
+            double inputScale = getScale(maxAbsoluteInputs[i]);
+            inputScaleReciprocals[i] = (float) (1.0 / inputScale);
+            quantizeWeights(i, layers[i], inputScale);
+        }
+
+        int bufferSize = maxLayerInputSize;
+        this.layerInputBuffers = ThreadLocal.withInitial(() -> new byte[][] {
+                new byte[bufferSize],
+                new byte[bufferSize]
+        });
+        this.blockBuffers = ThreadLocal.withInitial(() -> new BlockBuffers(bufferSize));
+    }
+
+    @Override
+    public Precision getPrecision() {
+        return Precision.INT8;
+    }
+
+    @Override
+    public double[] feed(double[] input, double[] output) {
+        byte[][] buffers = layerInputBuffers.get();
+        byte[] layerInput = buffers[0];
+        float inputScaleReciprocal = inputScaleReciprocals[0];
+        for (int i = 0; i < layerSizes[0]; i++) {
+            layerInput[i] = quantize(input[i] * inputScaleReciprocal);
+        }
+
+        int lastLayer = weights.length - 1;
+        for (int i = 0; i <= lastLayer; i++) {
+            byte[] layerWeights = weights[i];
+            float[] layerBiases = biases[i];
+            float[] layerScales = scales[i];
+            ActivationFunction activationFunction = activationFunctions[i];
+            int numberOfLayerInputs = layerSizes[i];
+            int layerSize = layerSizes[i + 1];
+            if (i == lastLayer) {
+                for (int j = 0, row = 0; j < layerSize; j++, row += numberOfLayerInputs) {
+                    int accumulator = VectorKernels.dot(layerWeights, row, layerInput, 0, numberOfLayerInputs);
+                    output[j] = activationFunction.apply(layerBiases[j] + accumulator * layerScales[j]);
+                }
+            } else {
+                byte[] layerOutput = buffers[(i + 1) & 1];
+                float nextInputScaleReciprocal = inputScaleReciprocals[i + 1];
+                for (int j = 0, row = 0; j < layerSize; j++, row += numberOfLayerInputs) {
+                    int accumulator = VectorKernels.dot(layerWeights, row, layerInput, 0, numberOfLayerInputs);
+                    double outputValue = activationFunction.apply(layerBiases[j] + accumulator * layerScales[j]);
+                    layerOutput[j] = quantize(outputValue * nextInputScaleReciprocal);
+                }
+                layerInput = layerOutput;
+            }
+        }
+        return output;
+    }
+
+    /**
+     * Calculates output of the network for every row of the given input matrix. Samples are processed in blocks: for
+     * every weight, products with quantized inputs of all samples of a block are accumulated at once, so every weight
+     * is read once per block rather than once per sample and the innermost loop runs over 32-bit integers which JIT
+     * compiler vectorizes. Output is exactly the same as output of {@link #feed(double[], double[])}.
+     */
+    @Override
+    public void feedBatch(double[][] input, double[][] output) {
+        BlockBuffers buffers = blockBuffers.get();
+        for (int from = 0; from < input.length; from += BLOCK_SIZE) {
+            feedBlock(input, output, from, Math.min(from + BLOCK_SIZE, input.length), buffers);
+        }
+    }
+
+    private void feedBlock(double[][] input, double[][] output, int from, int to, BlockBuffers buffers) {
+        int blockSize = to - from;
+        int[] layerInput = buffers.layerInputs[0];
+        float inputScaleReciprocal = inputScaleReciprocals[0];
+        for (int s = 0; s < blockSize; s++) {
+            double[] sample = input[from + s];
+            for (int k = 0, index = s; k < layerSizes[0]; k++, index += BLOCK_SIZE) {
+                layerInput[index] = quantize(sample[k] * inputScaleReciprocal);
+            }
+        }
+
+        int[] accumulators = buffers.accumulators;
+        double[] outputValues = buffers.outputValues;
+        int lastLayer = weights.length - 1;
+        for (int i = 0; i <= lastLayer; i++) {
+            byte[] layerWeights = weights[i];
+            float[] layerBiases = biases[i];
+            float[] layerScales = scales[i];
+            ActivationFunction activationFunction = activationFunctions[i];
+            int numberOfLayerInputs = layerSizes[i];
+            int layerSize = layerSizes[i + 1];
+            int[] layerOutput = buffers.layerInputs[(i + 1) & 1];
+            for (int j = 0, row = 0; j < layerSize; j++, row += numberOfLayerInputs) {
+                for (int s = 0; s < blockSize; s++) {
+                    accumulators[s] = 0;
+                }
+                int k = 0;
+                for (int n = numberOfLayerInputs & ~3; k < n; k += 4) {
+                    VectorKernels.axpy4(layerWeights[row + k], layerWeights[row + k + 1], layerWeights[row + k + 2],
+                            layerWeights[row + k + 3], layerInput, k * BLOCK_SIZE, BLOCK_SIZE, accumulators,
+                            blockSize);
+                }
+                for (; k < numberOfLayerInputs; k++) {
+                    VectorKernels.axpy(layerWeights[row + k], layerInput, k * BLOCK_SIZE, accumulators, 0, blockSize);
+                }
+
+                float bias = layerBiases[j];
+                float scale = layerScales[j];
+                for (int s = 0; s < blockSize; s++) {
+                    outputValues[s] = bias + accumulators[s] * scale;
+                }
+                activationFunction.applyInPlace(outputValues, outputValues, blockSize);
+
+                if (i == lastLayer) {
+                    for (int s = 0; s < blockSize; s++) {
+                        output[from + s][j] = outputValues[s];
+                    }
+                } else {
+                    float nextInputScaleReciprocal = inputScaleReciprocals[i + 1];
+                    for (int s = 0, index = j * BLOCK_SIZE; s < blockSize; s++, index++) {
+                        layerOutput[index] = quantize(outputValues[s] * nextInputScaleReciprocal);
+                    }
+                }
+            }
+            layerInput = layerOutput;
+        }
+    }
+
+    /**
+     * Feeds calibration samples to the original layers in double precision.
+     *
+     * @return maximum absolute input value of every layer
+     */
+    private double[] calibrate(NeuralLayer[] layers, double[][] calibrationSet) {
+        double[] maxAbsoluteInputs = new double[layers.length];
+        double[][] layerOutputs = new double[layers.length][];
+        for (int i = 0; i < layers.length; i++) {
+            layerOutputs[i] = new double[layers[i].getSize()];
+        }
+
+        for (double[] sample : calibrationSet) {
+            double[] layerInput = sample;
+            for (int i = 0; i < layers.length; i++) {
+                maxAbsoluteInputs[i] = Math.max(maxAbsoluteInputs[i], getMaxAbsoluteValue(layerInput, 0,
+                        layerInput.length));
+                layers[i].calculateOutputValues(layerInput, null, layerOutputs[i]);
+                layerInput = layerOutputs[i];
+            }
+        }
+        return maxAbsoluteInputs;
+    }
+
+    private void quantizeWeights(int index, NeuralLayer layer, double inputScale) {
+        double[] layerWeights = layer.getWeights();
+        int numberOfLayerInputs = layerSizes[index];
+        int layerSize = layerSizes[index + 1];
+        byte[] quantizedWeights = new byte[layerWeights.length];
+        float[] layerScales = new float[layerSize];
+        for (int j = 0, row = 0; j < layerSize; j++, row += numberOfLayerInputs) {
+            double weightScale = getScale(getMaxAbsoluteValue(layerWeights, row, numberOfLayerInputs));
+            for (int k = row; k < row + numberOfLayerInputs; k++) {
+                quantizedWeights[k] = quantize(layerWeights[k] / weightScale);
+            }
+            layerScales[j] = (float) (weightScale * inputScale);
+        }
+        weights[index] = quantizedWeights;
+        biases[index] = Arrays.toFloat(layer.getBiases());
+        scales[index] = layerScales;
+    }
+
+    private static double getMaxAbsoluteValue(double[] values, int offset, int length) {
+        double max = 0.0;
+        for (int i = offset; i < offset + length; i++) {
+            max = Math.max(max, Math.abs(values[i]));
+        }
+        return max;
+    }
+
+    private static double getScale(double maxAbsoluteValue) {
+        return maxAbsoluteValue > 0.0 ? maxAbsoluteValue / MAX_QUANTIZED_VALUE : 1.0;
+    }
+
+    private static byte quantize(double value) {
+        if (value >= MAX_QUANTIZED_VALUE) {
+            return MAX_QUANTIZED_VALUE;
+        }
+        if (value <= -MAX_QUANTIZED_VALUE) {
+            return -MAX_QUANTIZED_VALUE;
+        }
+        return (byte) Math.rint(value);
+    }
+
+    /**
+     * Buffers of a block of samples. Quantized layer inputs are stored input by input: values of the first input of
+     * all samples of the block, then values of the second input and so on.
+     */
+    private static class BlockBuffers {
+        final int[][] layerInputs;
+        final int[] accumulators;
+        final double[] outputValues;
+
+        BlockBuffers(int maxLayerInputSize) {
+            this.layerInputs = new int[][] {
+                    new int[maxLayerInputSize * BLOCK_SIZE],
+                    new int[maxLayerInputSize * BLOCK_SIZE]
+            };
+            this.accumulators = new int[BLOCK_SIZE];
+            this.outputValues = new double[BLOCK_SIZE];
+        }
+    }
+}
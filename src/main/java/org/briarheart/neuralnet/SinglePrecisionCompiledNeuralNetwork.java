@@ -0,0 +1,91 @@
+package org.briarheart.neuralnet;
+
+import org.briarheart.neuralnet.activation.ActivationFunction;
+import org.briarheart.neuralnet.layer.NeuralLayer;
+import org.briarheart.neuralnet.util.Arrays;
+import org.briarheart.neuralnet.util.math.VectorKernels;
+
+/**
+ * Compiled neural network which stores weights, biases and intermediate layer outputs in single precision. Input
+ * values are rounded to single precision once before the first layer. Weighted sums are accumulated in single
+ * precision as well, only activation functions are evaluated in double precision and their results are rounded back.
+ *
+ * @author Roman Chigvintsev
+ */
+class SinglePrecisionCompiledNeuralNetwork extends CompiledNeuralNetwork {
+    private final int[] layerSizes;
+    private final float[][] weights;
+    private final float[][] biases;
+    private final ActivationFunction[] activationFunctions;
+
+    /**
+     * Per-thread buffers: input converted to single precision followed by two buffers of intermediate layer outputs.
+     */
+    private final ThreadLocal<float[][]> layerOutputBuffers;
+
+    SinglePrecisionCompiledNeuralNetwork(NeuralNetwork neuralNetwork) {
+        super(neuralNetwork);
+
+        int numberOfLayers = getNumberOfLayers(neuralNetwork);
+        this.layerSizes = new int[numberOfLayers + 1];
+        this.weights = new float[numberOfLayers][];
+        this.biases = new float[numberOfLayers][];
+        this.activationFunctions = new ActivationFunction[numberOfLayers];
+
+        NeuralLayer inputLayer = neuralNetwork.getInputLayer();
+        layerSizes[0] = inputLayer.getSize();
+        int maxLayerSize = 0;
+        NeuralLayer layer = inputLayer.getNextLayer();
+        for (int i = 0; i < numberOfLayers; i++, layer = layer.getNextLayer()) {
+            layerSizes[i + 1] = layer.getSize();
+            weights[i] = Arrays.toFloat(layer.getWeights());
+            biases[i] = Arrays.toFloat(layer.getBiases());
+            activationFunctions[i] = layer.getActivationFunction();
+            maxLayerSize = Math.max(maxLayerSize, layer.getSize());
+        }
+
+        int inputBufferSize = layerSizes[0];
+        int bufferSize = maxLayerSize;
+        this.layerOutputBuffers = ThreadLocal.withInitial(() -> new float[][] {
+                new float[inputBufferSize],
+                new float[bufferSize],
+                new float[bufferSize]
+        });
+    }
+
+    @Override
+    public Precision getPrecision() {
+        return Precision.SINGLE;
+    }
+
+    @Override
+    public double[] feed(double[] input, double[] output) {
+        float[][] buffers = layerOutputBuffers.get();
+        float[] layerInput = buffers[0];
+        for (int i = 0; i < layerInput.length; i++) {
+            layerInput[i] = (float) input[i];
+        }
+
+        for (int i = 0; i < weights.length; i++) {
+            float[] layerOutput = buffers[1 + (i & 1)];
+            feedLayer(i, layerInput, layerOutput);
+            layerInput = layerOutput;
+        }
+        for (int i = 0; i < getNumberOfOutputs(); i++) {
+            output[i] = layerInput[i];
+        }
+        return output;
+    }
+
+    private void feedLayer(int layer, float[] input, float[] output) {
+        float[] layerWeights = weights[layer];
+        float[] layerBiases = biases[layer];
+        ActivationFunction activationFunction = activationFunctions[layer];
+        int numberOfLayerInputs = layerSizes[layer];
+        int layerSize = layerSizes[layer + 1];
+        for (int j = 0, row = 0; j < layerSize; j++, row += numberOfLayerInputs) {
+            float weightedSum = layerBiases[j] + VectorKernels.dot(layerWeights, row, input, 0, numberOfLayerInputs);
+            output[j] = (float) activationFunction.apply(weightedSum);
+        }
+    }
+}
@@ -1,8 +1,20 @@
 package org.briarheart.neuralnet.activation;
 
+import java.util.Arrays;
 import java.util.function.DoubleUnaryOperator;
 
 /**
+ * Activation function of neurons of a layer.
+ * <p>
+ * Besides scalar {@link #apply(double)}, activation function can be applied to a whole layer at once by
+ * {@link #applyInPlace(double[], double[], int)} and {@link #applyWithDerivative(double[], double[], double[], int)}.
+ * Default implementations of these methods call scalar ones, but every activation function of this interface
+ * overrides them with its own loop, so loops stay monomorphic and JIT compiler can inline and vectorize them.
+ * <p>
+ * Derivative returned by {@link #getDerivative()} is evaluated at output value of a neuron rather than at its
+ * weighted sum, which is exact for {@link #SIGMOID}. {@link #applyWithDerivative(double[], double[], double[], int)}
+ * follows the same convention.
+ *
  * @author Roman Chigvintsev
  */
 public interface ActivationFunction extends DoubleUnaryOperator {
@@ -15,6 +27,44 @@ public interface ActivationFunction extends DoubleUnaryOperator {
         return apply(operand);
     }
 
+    /**
+     * Applies this function to the first {@code n} values of the given input array and stores results in the given
+     * output array. Input and output arrays may be the same array.
+     *
+     * @param in input values
+     * @param out array to store output values in
+     * @param n number of values
+     */
+    default void applyInPlace(double[] in, double[] out, int n) {
+        for (int i = 0; i < n; i++) {
+            out[i] = apply(in[i]);
+        }
+    }
+
+    /**
+     * Applies this function to the first {@code n} values of the given input array and stores results in the given
+     * output array. Derivative of this function evaluated at every output value is stored in the given array of
+     * derivatives, so backward pass of training does not need to evaluate it again. Input and output arrays may be
+     * the same array.
+     *
+     * @param in input values
+     * @param out array to store output values in
+     * @param derivatives array to store derivatives in
+     * @param n number of values
+     * @throws UnsupportedOperationException if this function is not differentiable
+     */
+    default void applyWithDerivative(double[] in, double[] out, double[] derivatives, int n) {
+        DoubleUnaryOperator derivative = getDerivative();
+        if (derivative == null) {
+            throw new UnsupportedOperationException("Activation function is not differentiable");
+        }
+        for (int i = 0; i < n; i++) {
+            double value = apply(in[i]);
+            out[i] = value;
+            derivatives[i] = derivative.applyAsDouble(value);
+        }
+    }
+
     ActivationFunction LINEAR = new ActivationFunction() {
         @Override
         public double apply(double value) {
@@ -25,6 +75,19 @@ public interface ActivationFunction extends DoubleUnaryOperator {
         public DoubleUnaryOperator getDerivative() {
             return value -> 1.0;
         }
+
+        @Override
+        public void applyInPlace(double[] in, double[] out, int n) {
+            if (in != out) {
+                System.arraycopy(in, 0, out, 0, n);
+            }
+        }
+
+        @Override
+        public void applyWithDerivative(double[] in, double[] out, double[] derivatives, int n) {
+            applyInPlace(in, out, n);
+            Arrays.fill(derivatives, 0, n, 1.0);
+        }
     };
 
     ActivationFunction HARD_LIMITING_THRESHOLD = new ActivationFunction() {
@@ -37,6 +100,13 @@ public interface ActivationFunction extends DoubleUnaryOperator {
         public DoubleUnaryOperator getDerivative() {
             return null;
         }
+
+        @Override
+        public void applyInPlace(double[] in, double[] out, int n) {
+            for (int i = 0; i < n; i++) {
+                out[i] = in[i] >= 0.0 ? 1.0 : 0.0;
+            }
+        }
     };
 
 
@@ -50,6 +120,22 @@ public interface ActivationFunction extends DoubleUnaryOperator {
         public DoubleUnaryOperator getDerivative() {
             return value -> 1.0 / Math.pow(Math.cosh(value), 2.0);
         }
+
+        @Override
+        public void applyInPlace(double[] in, double[] out, int n) {
+            for (int i = 0; i < n; i++) {
+                out[i] = Math.tanh(in[i]);
+            }
+        }
+
+        @Override
+        public void applyWithDerivative(double[] in, double[] out, double[] derivatives, int n) {
+            for (int i = 0; i < n; i++) {
+                double value = Math.tanh(in[i]);
+                out[i] = value;
+                derivatives[i] = 1.0 / Math.pow(Math.cosh(value), 2.0);
+            }
+        }
     };
 
     ActivationFunction SIGMOID = new ActivationFunction() {
@@ -62,5 +148,108 @@ public interface ActivationFunction extends DoubleUnaryOperator {
         public DoubleUnaryOperator getDerivative() {
             return value -> value * (1.0 - value);
         }
+
+        @Override
+        public void applyInPlace(double[] in, double[] out, int n) {
+            for (int i = 0; i < n; i++) {
+                out[i] = 1.0 / (1.0 + Math.exp(-in[i]));
+            }
+        }
+
+        @Override
+        public void applyWithDerivative(double[] in, double[] out, double[] derivatives, int n) {
+            for (int i = 0; i < n; i++) {
+                double value = 1.0 / (1.0 + Math.exp(-in[i]));
+                out[i] = value;
+                derivatives[i] = value * (1.0 - value);
+            }
+        }
     };
+
+    /**
+     * Approximation of {@link #HYPERBOLIC_TANGENT} by lookup table with linear interpolation. Absolute error of the
+     * function is less than 6·10<sup>-6</sup> for every argument. Derivative is calculated from the same table as
+     * 1 - tanh<sup>2</sup>, its absolute error is less than 1.2·10<sup>-5</sup>.
+     */
+    ActivationFunction FAST_HYPERBOLIC_TANGENT = new ActivationFunction() {
+        @Override
+        public double apply(double value) {
+            return HyperbolicTangentTable.tanh(value);
+        }
+
+        @Override
+        public DoubleUnaryOperator getDerivative() {
+            return value -> {
+                double tanh = HyperbolicTangentTable.tanh(value);
+                return 1.0 - tanh * tanh;
+            };
+        }
+
+        @Override
+        public void applyInPlace(double[] in, double[] out, int n) {
+            for (int i = 0; i < n; i++) {
+                out[i] = HyperbolicTangentTable.tanh(in[i]);
+            }
+        }
+
+        @Override
+        public void applyWithDerivative(double[] in, double[] out, double[] derivatives, int n) {
+            for (int i = 0; i < n; i++) {
+                double value = HyperbolicTangentTable.tanh(in[i]);
+                double tanh = HyperbolicTangentTable.tanh(value);
+                out[i] = value;
+                derivatives[i] = 1.0 - tanh * tanh;
+            }
+        }
+    };
+
+    /**
+     * Approximation of {@link #SIGMOID} by lookup table of hyperbolic tangent with linear interpolation. Absolute
+     * error of the function is less than 3·10<sup>-6</sup> for every argument. Derivative is calculated from output
+     * value exactly like derivative of {@link #SIGMOID}.
+     */
+    ActivationFunction FAST_SIGMOID = new ActivationFunction() {
+        @Override
+        public double apply(double value) {
+            return HyperbolicTangentTable.sigmoid(value);
+        }
+
+        @Override
+        public DoubleUnaryOperator getDerivative() {
+            return value -> value * (1.0 - value);
+        }
+
+        @Override
+        public void applyInPlace(double[] in, double[] out, int n) {
+            for (int i = 0; i < n; i++) {
+                out[i] = HyperbolicTangentTable.sigmoid(in[i]);
+            }
+        }
+
+        @Override
+        public void applyWithDerivative(double[] in, double[] out, double[] derivatives, int n) {
+            for (int i = 0; i < n; i++) {
+                double value = HyperbolicTangentTable.sigmoid(in[i]);
+                out[i] = value;
+                derivatives[i] = value * (1.0 - value);
+            }
+        }
+    };
+
+    /**
+     * Returns fast approximation of the given activation function if there is one.
+     *
+     * @param activationFunction activation function
+     * @return {@link #FAST_SIGMOID} for {@link #SIGMOID}, {@link #FAST_HYPERBOLIC_TANGENT} for
+     * {@link #HYPERBOLIC_TANGENT} or the given activation function itself otherwise
+     */
+    static ActivationFunction fast(ActivationFunction activationFunction) {
+        if (activationFunction == SIGMOID) {
+            return FAST_SIGMOID;
+        }
+        if (activationFunction == HYPERBOLIC_TANGENT) {
+            return FAST_HYPERBOLIC_TANGENT;
+        }
+        return activationFunction;
+    }
 }
@@ -2,17 +2,28 @@ package org.briarheart.neuralnet.layer;
 
 import com.google.common.base.Preconditions;
 import lombok.Getter;
-import lombok.Setter;
 import org.briarheart.neuralnet.NeuralLink;
 import org.briarheart.neuralnet.activation.ActivationFunction;
+import org.briarheart.neuralnet.neuron.BasicNeuron;
 import org.briarheart.neuralnet.neuron.Bias;
 import org.briarheart.neuralnet.neuron.Neuron;
 import org.briarheart.neuralnet.training.TrainingStrategy;
+import org.briarheart.neuralnet.util.math.VectorKernels;
 
-import java.util.ArrayList;
+import java.util.AbstractList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.RandomAccess;
 
 /**
+ * Base class for neural layers. Weights of links leading to the layer are kept in one dense row-major array, bias
+ * weights are kept in separate array, and weighted sums, output values and sensibilities of layer's neurons are kept
+ * in flat arrays as well. Neurons of the layer are views over these arrays. Links between neurons are not stored at
+ * all: input and output lists of neurons are views creating a short-lived {@link NeuralLink} over an element of the
+ * weight array on every access, so the heap taken by a network grows with number of neurons rather than with number
+ * of weights. In return code iterating over links, such as per-neuron training strategies, allocates a link per
+ * visited weight, and links obtained twice for the same weight are equal in state but not identical.
+ *
  * @author Roman Chigvintsev
  */
 public abstract class AbstractNeuralLayer implements NeuralLayer {
@@ -23,10 +34,23 @@ public abstract class AbstractNeuralLayer implements NeuralLayer {
     @Getter
     private final ActivationFunction activationFunction;
 
+    @Getter
+    private double[] weights = new double[0];
+    @Getter
+    private double[] biases;
+    @Getter
+    private final transient double[] weightedSums;
+    @Getter
+    private final transient double[] outputValues;
+    @Getter
+    private final transient double[] sensibilities;
+    @Getter
+    private final transient double[] derivatives;
+    private final transient boolean differentiable;
+
     @Getter
     private NeuralLayer nextLayer;
     @Getter
-    @Setter
     private transient NeuralLayer previousLayer;
 
     public AbstractNeuralLayer(int size, List<Neuron> neurons, ActivationFunction activationFunction) {
@@ -34,6 +58,33 @@ public abstract class AbstractNeuralLayer implements NeuralLayer {
         this.size = size;
         this.neurons = neurons;
         this.activationFunction = activationFunction;
+
+        this.biases = new double[size];
+        this.weightedSums = new double[size];
+        this.outputValues = new double[size];
+        this.sensibilities = new double[size];
+        this.derivatives = new double[size];
+        this.differentiable = activationFunction != null && activationFunction.getDerivative() != null;
+
+        int i = 0;
+        for (Neuron neuron : neurons) {
+            if (neuron instanceof Bias) {
+                continue;
+            }
+            Preconditions.checkArgument(i < size, "Number of neurons must match layer size");
+            if (neuron instanceof BasicNeuron) {
+                ((BasicNeuron) neuron).bind(weightedSums, outputValues, sensibilities, i);
+            }
+            i++;
+        }
+        Preconditions.checkArgument(i == size, "Number of neurons must match layer size");
+    }
+
+    @Override
+    public void setPreviousLayer(NeuralLayer previousLayer) {
+        this.previousLayer = previousLayer;
+        this.weights = previousLayer != null ? new double[size * previousLayer.getSize()] : new double[0];
+        Arrays.fill(biases, 0.0);
     }
 
     @Override
@@ -52,23 +103,56 @@ public abstract class AbstractNeuralLayer implements NeuralLayer {
         return feed(inputValues, null);
     }
 
+    /**
+     * Feeds output values of the previous layer to this layer and then to the next one. When expected output is
+     * given, that is during training, derivatives of activation function are calculated along with output values.
+     */
     @Override
     public double[] feed(double[] inputValues, double[] expectedOutput) {
-        for (Neuron neuron : neurons) {
-            if (neuron instanceof Bias) {
-                continue;
-            }
+        if (expectedOutput != null && differentiable) {
+            calculateOutputValues(previousLayer.getOutputValues(), weightedSums, outputValues, derivatives);
+        } else {
+            calculateOutputValues(previousLayer.getOutputValues(), weightedSums, outputValues);
+        }
+        return nextLayer != null
+                ? nextLayer.feed(inputValues, expectedOutput)
+                : Arrays.copyOf(outputValues, size);
+    }
 
-            double weightedSum = calculateWeightedSum(neuron);
-            neuron.setWeightedSum(weightedSum);
+    @Override
+    public void calculateOutputValues(double[] inputValues, double[] weightedSums, double[] outputValues) {
+        double[] sums = calculateWeightedSums(inputValues, weightedSums != null ? weightedSums : outputValues);
+        activationFunction.applyInPlace(sums, outputValues, size);
+    }
 
-            double outputValue = activationFunction.apply(weightedSum);
-            neuron.setOutputValue(outputValue);
+    /**
+     * Calculates output values along with derivatives of activation function. Since this is done during training,
+     * weighted sums are accumulated sequentially in order of inputs rather than by unrolled
+     * {@link VectorKernels#dot(double[], int, double[], int, int)}, so training results do not depend on vector
+     * kernels and backpropagation with batch size of one adjusts weights exactly as per-neuron one does.
+     */
+    @Override
+    public void calculateOutputValues(double[] inputValues, double[] weightedSums, double[] outputValues,
+                                      double[] derivatives) {
+        double[] sums = weightedSums != null ? weightedSums : outputValues;
+        int numberOfInputs = weights.length / size;
+        for (int j = 0, row = 0; j < size; j++, row += numberOfInputs) {
+            sums[j] = VectorKernels.sequentialDot(biases[j], weights, row, inputValues, 0, numberOfInputs);
         }
+        activationFunction.applyWithDerivative(sums, outputValues, derivatives, size);
+    }
 
-        return nextLayer != null
-                ? nextLayer.feed(inputValues, expectedOutput)
-                : neurons.stream().mapToDouble(Neuron::getOutputValue).toArray();
+    @Override
+    public void calculateOutputValues(double[] inputValues, double[] outputValues, int batchSize) {
+        int numberOfInputs = weights.length / size;
+        // Every row of weights is reused for all samples of the batch while it is hot in cache
+        for (int j = 0, row = 0; j < size; j++, row += numberOfInputs) {
+            double bias = biases[j];
+            for (int b = 0, in = 0, out = j; b < batchSize; b++, in += numberOfInputs, out += size) {
+                outputValues[out] = bias + VectorKernels.dot(weights, row, inputValues, in, numberOfInputs);
+            }
+        }
+        activationFunction.applyInPlace(outputValues, outputValues, batchSize * size);
     }
 
     @Override
@@ -77,36 +161,117 @@ public abstract class AbstractNeuralLayer implements NeuralLayer {
         neurons.forEach(neuron -> trainingStrategy.adjustWeights(neuron, activationFunction));
     }
 
-    protected double calculateWeightedSum(Neuron neuron) {
-        List<NeuralLink> inputs = neuron.getInputs();
-        double weightedSum = 0.0;
-        for (NeuralLink input : inputs) {
-            weightedSum += input.getWeight() * input.getFrom().getOutputValue();
-        }
-        return weightedSum;
+    private double[] calculateWeightedSums(double[] inputValues, double[] sums) {
+        int numberOfInputs = weights.length / size;
+        System.arraycopy(biases, 0, sums, 0, size);
+        VectorKernels.gemv(weights, size, numberOfInputs, inputValues, sums);
+        return sums;
     }
 
     private void connectLayers(NeuralLayer nextLayer) {
-        for (Neuron neuron : neurons) {
-            List<Neuron> nextLayerNeurons = nextLayer.getNeurons();
-            List<NeuralLink> outputs = new ArrayList<>(nextLayerNeurons.size());
-            for (Neuron nextLayerNeuron : nextLayerNeurons) {
-                if (nextLayerNeuron instanceof Bias) {
-                    continue;
-                }
-
-                List<NeuralLink> inputs = nextLayerNeuron.getInputs();
-                if (inputs.isEmpty()) {
-                    inputs = new ArrayList<>(neurons.size());
-                    nextLayerNeuron.setInputs(inputs);
-                }
-                NeuralLink neuralLink = new NeuralLink(neuron, nextLayerNeuron);
-                outputs.add(neuralLink);
-                inputs.add(neuralLink);
+        nextLayer.setPreviousLayer(this);
+
+        double[] nextLayerWeights = nextLayer.getWeights();
+        double[] nextLayerBiases = nextLayer.getBiases();
+        Neuron[] from = neurons.toArray(new Neuron[0]);
+        Neuron[] to = nextLayer.getNeurons().stream().filter(neuron -> !(neuron instanceof Bias))
+                .toArray(Neuron[]::new);
+
+        // Column of neuron's weight in the rows of the next layer or -1 for bias
+        int[] columns = new int[from.length];
+        boolean hasBias = false;
+        for (int i = 0, k = 0; i < from.length; i++) {
+            boolean bias = from[i] instanceof Bias;
+            columns[i] = bias ? -1 : k++;
+            hasBias |= bias;
+        }
+
+        for (int i = 0; i < from.length; i++) {
+            from[i].setOutputs(new OutputLinks(from[i], to, columns[i], size, nextLayerWeights, nextLayerBiases));
+        }
+        for (int j = 0; j < to.length; j++) {
+            to[j].setInputs(new InputLinks(from, to[j], columns, j, size, nextLayerWeights, nextLayerBiases));
+        }
+
+        for (int i = 0; i < nextLayerWeights.length; i++) {
+            nextLayerWeights[i] = Math.random();
+        }
+        if (hasBias) {
+            for (int j = 0; j < to.length; j++) {
+                nextLayerBiases[j] = Math.random();
             }
-            neuron.setOutputs(outputs);
         }
+    }
 
-        nextLayer.setPreviousLayer(this);
+    private static NeuralLink createLink(Neuron from, Neuron to, int column, int row, int size, double[] weights,
+                                         double[] biases) {
+        return column < 0
+                ? new NeuralLink(from, to, biases, row)
+                : new NeuralLink(from, to, weights, row * size + column);
+    }
+
+    /**
+     * Input links of the neuron of the next layer. Links are created on every access.
+     */
+    private static class InputLinks extends AbstractList<NeuralLink> implements RandomAccess {
+        private final Neuron[] from;
+        private final Neuron to;
+        private final int[] columns;
+        private final int row;
+        private final int size;
+        private final double[] weights;
+        private final double[] biases;
+
+        private InputLinks(Neuron[] from, Neuron to, int[] columns, int row, int size, double[] weights,
+                           double[] biases) {
+            this.from = from;
+            this.to = to;
+            this.columns = columns;
+            this.row = row;
+            this.size = size;
+            this.weights = weights;
+            this.biases = biases;
+        }
+
+        @Override
+        public NeuralLink get(int index) {
+            return createLink(from[index], to, columns[index], row, size, weights, biases);
+        }
+
+        @Override
+        public int size() {
+            return from.length;
+        }
+    }
+
+    /**
+     * Output links of the neuron of this layer. Links are created on every access.
+     */
+    private static class OutputLinks extends AbstractList<NeuralLink> implements RandomAccess {
+        private final Neuron from;
+        private final Neuron[] to;
+        private final int column;
+        private final int size;
+        private final double[] weights;
+        private final double[] biases;
+
+        private OutputLinks(Neuron from, Neuron[] to, int column, int size, double[] weights, double[] biases) {
+            this.from = from;
+            this.to = to;
+            this.column = column;
+            this.size = size;
+            this.weights = weights;
+            this.biases = biases;
+        }
+
+        @Override
+        public NeuralLink get(int index) {
+            return createLink(from, to[index], column, index, size, weights, biases);
+        }
+
+        @Override
+        public int size() {
+            return to.length;
+        }
     }
 }
@@ -6,6 +6,7 @@ import org.briarheart.neuralnet.neuron.Bias;
 import org.briarheart.neuralnet.neuron.Neuron;
 import org.briarheart.neuralnet.training.TrainingStrategy;
 
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -27,16 +28,27 @@ public class InputLayer extends AbstractNeuralLayer {
         Preconditions.checkArgument(inputValues.length == getSize(),
                 "Number of input values must match number of neurons in layer");
 
-        int i = 0;
-        for (Neuron neuron : getNeurons()) {
-            if (neuron instanceof Bias) {
-                continue;
-            }
-            neuron.setOutputValue(inputValues[i++]);
-        }
+        System.arraycopy(inputValues, 0, getOutputValues(), 0, inputValues.length);
         return getNextLayer().feed(inputValues, expectedOutput);
     }
 
+    @Override
+    public void calculateOutputValues(double[] inputValues, double[] weightedSums, double[] outputValues) {
+        System.arraycopy(inputValues, 0, outputValues, 0, getSize());
+    }
+
+    @Override
+    public void calculateOutputValues(double[] inputValues, double[] weightedSums, double[] outputValues,
+                                      double[] derivatives) {
+        System.arraycopy(inputValues, 0, outputValues, 0, getSize());
+        Arrays.fill(derivatives, 0, getSize(), 1.0);
+    }
+
+    @Override
+    public void calculateOutputValues(double[] inputValues, double[] outputValues, int batchSize) {
+        System.arraycopy(inputValues, 0, outputValues, 0, batchSize * getSize());
+    }
+
     @Override
     public void adjustWeights(TrainingStrategy trainingStrategy) {
         getNextLayer().adjustWeights(trainingStrategy);
@@ -10,10 +10,50 @@ import java.util.List;
  * @author Roman Chigvintsev
  */
 public interface NeuralLayer {
+    /**
+     * Returns number of neurons in this layer not counting bias neuron.
+     */
+    int getSize();
+
     List<Neuron> getNeurons();
 
     ActivationFunction getActivationFunction();
 
+    /**
+     * Returns weights of links leading to this layer from the previous one. Weights are stored in row-major order:
+     * row {@code j} contains weights of inputs of the {@code j}-th neuron of this layer. Returned array is the backing
+     * storage of the layer, so changes in it are visible to the layer and its links.
+     */
+    double[] getWeights();
+
+    /**
+     * Returns weights of links leading to this layer from the bias neuron of the previous one. Returned array is the
+     * backing storage of the layer, so changes in it are visible to the layer and its links.
+     */
+    double[] getBiases();
+
+    /**
+     * Returns weighted sums of neurons of this layer calculated during last feed.
+     */
+    double[] getWeightedSums();
+
+    /**
+     * Returns output values of neurons of this layer calculated during last feed.
+     */
+    double[] getOutputValues();
+
+    /**
+     * Returns sensibilities of neurons of this layer calculated during last error backpropagation.
+     */
+    double[] getSensibilities();
+
+    /**
+     * Returns derivatives of activation function at output values of neurons of this layer calculated during last
+     * feed with expected output. Derivatives are only calculated during training by layers with differentiable
+     * activation function.
+     */
+    double[] getDerivatives();
+
     NeuralLayer getPreviousLayer();
 
     void setPreviousLayer(NeuralLayer layer);
@@ -26,5 +66,42 @@ public interface NeuralLayer {
 
     double[] feed(double[] inputValues, double[] expectedOutput);
 
+    /**
+     * Calculates weighted sums and output values of neurons of this layer for the given output values of the
+     * previous layer and stores them in the given arrays. This method only reads weights of the layer and does not
+     * change state of its neurons unless layer's own arrays are passed in.
+     *
+     * @param inputValues output values of the previous layer (must not be {@code null})
+     * @param weightedSums array to store weighted sums in or {@code null} if weighted sums are not needed
+     * @param outputValues array to store output values in (must not be {@code null})
+     */
+    void calculateOutputValues(double[] inputValues, double[] weightedSums, double[] outputValues);
+
+    /**
+     * Calculates weighted sums, output values and derivatives of activation function at output values of neurons of
+     * this layer for the given output values of the previous layer and stores them in the given arrays. Output values
+     * and derivatives are calculated in a single pass. This method only reads weights of the layer and does not
+     * change state of its neurons unless layer's own arrays are passed in.
+     *
+     * @param inputValues output values of the previous layer (must not be {@code null})
+     * @param weightedSums array to store weighted sums in or {@code null} if weighted sums are not needed
+     * @param outputValues array to store output values in (must not be {@code null})
+     * @param derivatives array to store derivatives in (must not be {@code null})
+     * @see ActivationFunction#applyWithDerivative(double[], double[], double[], int)
+     */
+    void calculateOutputValues(double[] inputValues, double[] weightedSums, double[] outputValues,
+                               double[] derivatives);
+
+    /**
+     * Calculates output values of neurons of this layer for a batch of samples at once. Input values and output
+     * values are stored in row-major order: each row holds values of a single sample. This method only reads weights
+     * of the layer and does not change state of its neurons.
+     *
+     * @param inputValues output values of the previous layer for every sample of the batch (must not be {@code null})
+     * @param outputValues array to store output values in (must not be {@code null})
+     * @param batchSize number of samples in the batch
+     */
+    void calculateOutputValues(double[] inputValues, double[] outputValues, int batchSize);
+
     void adjustWeights(TrainingStrategy trainingStrategy);
 }
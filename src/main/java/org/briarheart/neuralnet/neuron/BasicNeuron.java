@@ -1,36 +1,89 @@
 package org.briarheart.neuralnet.neuron;
 
+import com.google.common.base.Preconditions;
 import lombok.Getter;
-import lombok.RequiredArgsConstructor;
 import lombok.Setter;
 import org.briarheart.neuralnet.NeuralLink;
 
 import java.util.List;
 
 /**
+ * Neuron whose state is bound to the flat arrays of its layer. Input and output links of the neuron are views over
+ * weights of the layer and are not serialized to JSON since weights are serialized with the layer itself.
+ *
  * @author Roman Chigvintsev
  */
-@RequiredArgsConstructor
 public class BasicNeuron implements Neuron {
     @Getter
     private final String name;
 
     @Getter
     @Setter
-    private List<NeuralLink> inputs = List.of();
+    private transient List<NeuralLink> inputs = List.of();
     @Getter
     @Setter
-    private List<NeuralLink> outputs = List.of();
-    @Getter
-    @Setter
-    private double weightedSum;
-    @Getter
-    @Setter
-    private double outputValue;
+    private transient List<NeuralLink> outputs = List.of();
     @Getter
     @Setter
     private double error;
-    @Getter
-    @Setter
-    private double sensibility;
+
+    private transient double[] weightedSums = new double[1];
+    private transient double[] outputValues = new double[1];
+    private transient double[] sensibilities = new double[1];
+    private transient int index;
+
+    public BasicNeuron(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Binds weighted sum, output value and sensibility of this neuron to the elements of the given arrays. Layers use
+     * this method to keep state of their neurons in flat arrays.
+     *
+     * @param weightedSums array of weighted sums (must not be {@code null})
+     * @param outputValues array of output values (must not be {@code null})
+     * @param sensibilities array of sensibilities (must not be {@code null})
+     * @param index index of array elements representing this neuron
+     */
+    public void bind(double[] weightedSums, double[] outputValues, double[] sensibilities, int index) {
+        Preconditions.checkNotNull(weightedSums, "Weighted sums must not be null");
+        Preconditions.checkNotNull(outputValues, "Output values must not be null");
+        Preconditions.checkNotNull(sensibilities, "Sensibilities must not be null");
+        Preconditions.checkElementIndex(index,
+                Math.min(weightedSums.length, Math.min(outputValues.length, sensibilities.length)), "Neuron index");
+        this.weightedSums = weightedSums;
+        this.outputValues = outputValues;
+        this.sensibilities = sensibilities;
+        this.index = index;
+    }
+
+    @Override
+    public double getWeightedSum() {
+        return weightedSums[index];
+    }
+
+    @Override
+    public void setWeightedSum(double weightedSum) {
+        weightedSums[index] = weightedSum;
+    }
+
+    @Override
+    public double getOutputValue() {
+        return outputValues[index];
+    }
+
+    @Override
+    public void setOutputValue(double outputValue) {
+        outputValues[index] = outputValue;
+    }
+
+    @Override
+    public double getSensibility() {
+        return sensibilities[index];
+    }
+
+    @Override
+    public void setSensibility(double sensibility) {
+        sensibilities[index] = sensibility;
+    }
 }
@@ -0,0 +1,140 @@
+package org.briarheart.neuralnet.training;
+
+import com.google.common.base.Preconditions;
+import lombok.Getter;
+import org.briarheart.neuralnet.NeuralNetwork;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Asynchronous lock-free backpropagation in the spirit of Hogwild! algorithm. Worker threads of a {@link ForkJoinPool}
+ * pull chunks of training samples from a shared counter and adjust weights of the network right away, without any
+ * locks or barriers between samples. Updates of different threads may overwrite each other, but when every sample
+ * touches only a small part of weights such collisions are rare and do not hurt convergence much. The only barrier is
+ * at the end of every epoch, where mean squared error of the epoch is calculated.
+ * <p>
+ * Unlike {@link ParallelBackpropagation} training results are not deterministic when number of threads is greater than
+ * one. When batch size is greater than one or optimizer other than plain stochastic gradient descent is used, every
+ * thread accumulates gradient of its own samples and applies it once a batch is complete. State of optimizer is shared
+ * by all threads and is updated without locks just like weights, only counter of steps of Adam optimizer is atomic,
+ * since its lost increments would skew bias correction rather than add noise. Adjustments of weights (steps) made by
+ * all threads are counted by a shared counter, and every thread evaluates learning rate schedule by that counter after
+ * every chunk of samples, so schedules measured in steps advance as they do in serial training, only with granularity
+ * of a chunk.
+ *
+ * @author Roman Chigvintsev
+ */
+public class AsynchronousBackpropagation extends Backpropagation {
+    /**
+     * Number of sample indices a thread pulls from the shared counter at once.
+     */
+    private static final int CHUNK_SIZE = 16;
+
+    @Getter
+    private final int numberOfThreads;
+
+    private ForkJoinPool pool;
+    private BackpropagationWorker[] workers;
+
+    public AsynchronousBackpropagation(double learningRate, int numberOfThreads) {
+        super(learningRate);
+        Preconditions.checkArgument(numberOfThreads > 0, "Number of threads must be greater than zero");
+        this.numberOfThreads = numberOfThreads;
+    }
+
+    @Override
+    public void train(
+            NeuralNetwork neuralNetwork,
+            double[][] trainingSet,
+            double[][] expectedOutput,
+            double[][] validationSet,
+            double[][] validationOutput
+    ) {
+        Preconditions.checkNotNull(neuralNetwork, "Neural network must not be null");
+
+        pool = new ForkJoinPool(numberOfThreads);
+        workers = new BackpropagationWorker[numberOfThreads];
+        for (int i = 0; i < numberOfThreads; i++) {
+            workers[i] = new BackpropagationWorker(neuralNetwork);
+        }
+        try {
+            super.train(neuralNetwork, trainingSet, expectedOutput, validationSet, validationOutput);
+        } finally {
+            pool.shutdown();
+            pool = null;
+            workers = null;
+        }
+    }
+
+    @Override
+    protected double trainEpoch(
+            NeuralNetwork neuralNetwork,
+            double[][] trainingSet,
+            double[][] expectedOutput,
+            int[] sampleIndices
+    ) {
+        AtomicInteger nextChunk = new AtomicInteger();
+        AtomicLong completedSteps = new AtomicLong();
+        long firstStep = getStep();
+        List<ForkJoinTask<Double>> tasks = new ArrayList<>(numberOfThreads);
+        for (BackpropagationWorker worker : workers) {
+            tasks.add(pool.submit(() -> train(neuralNetwork, worker, trainingSet, expectedOutput, sampleIndices,
+                    nextChunk, firstStep, completedSteps)));
+        }
+
+        double errorSum = 0.0;
+        for (ForkJoinTask<Double> task : tasks) {
+            errorSum += task.join();
+        }
+        completeSteps(completedSteps.get());
+        return errorSum;
+    }
+
+    private double train(
+            NeuralNetwork neuralNetwork,
+            BackpropagationWorker worker,
+            double[][] trainingSet,
+            double[][] expectedOutput,
+            int[] sampleIndices,
+            AtomicInteger nextChunk,
+            long firstStep,
+            AtomicLong completedSteps
+    ) {
+        double learningRate = getLearningRate();
+        int batchSize = getBatchSize();
+        boolean updatedInPlace = isUpdatedInPlace();
+        Gradient gradient = worker.getGradient();
+        double errorSum = 0.0;
+        int from;
+        while ((from = nextChunk.getAndAdd(CHUNK_SIZE)) < sampleIndices.length) {
+            int to = Math.min(from + CHUNK_SIZE, sampleIndices.length);
+            int steps = 0;
+            for (int i = from; i < to; i++) {
+                int sampleIndex = sampleIndices[i];
+                if (updatedInPlace) {
+                    errorSum += worker.train(trainingSet[sampleIndex], expectedOutput[sampleIndex], learningRate);
+                    steps++;
+                } else {
+                    errorSum += worker.train(trainingSet[sampleIndex], expectedOutput[sampleIndex]);
+                    if (gradient.getNumberOfSamples() == batchSize) {
+                        applyGradient(neuralNetwork, gradient, learningRate);
+                        steps++;
+                    }
+                }
+            }
+            if (steps > 0) {
+                learningRate = evaluateLearningRate(firstStep + completedSteps.addAndGet(steps));
+            }
+        }
+        if (gradient.getNumberOfSamples() > 0) {
+            applyGradient(neuralNetwork, gradient, learningRate);
+            completedSteps.incrementAndGet();
+        }
+        return errorSum;
+    }
+}
@@ -8,9 +8,16 @@ import org.briarheart.neuralnet.NeuralNetwork;
 import org.briarheart.neuralnet.activation.ActivationFunction;
 import org.briarheart.neuralnet.layer.NeuralLayer;
 import org.briarheart.neuralnet.neuron.Neuron;
+import org.briarheart.neuralnet.training.optimizer.Optimizer;
+import org.briarheart.neuralnet.training.optimizer.StochasticGradientDescent;
+import org.briarheart.neuralnet.training.schedule.ConstantLearningRate;
+import org.briarheart.neuralnet.training.schedule.LearningRateSchedule;
 import org.briarheart.neuralnet.util.Arrays;
+import org.briarheart.neuralnet.util.math.VectorKernels;
 
+import java.lang.reflect.Method;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -31,11 +38,44 @@ import java.util.Map;
 @Slf4j
 public class Backpropagation implements SupervisedTrainingStrategy {
     private final boolean pickSamplesRandomly;
+    /**
+     * Whether subclass overrides {@link #adjustWeights(Neuron, ActivationFunction)}, in which case weights are
+     * adjusted neuron by neuron rather than by whole rows of layers.
+     */
+    private final boolean adjustedPerNeuron;
 
     @Getter
     @Setter
     private double learningRate;
 
+    /**
+     * Number of training samples whose gradients are accumulated before weights are adjusted. When batch size is
+     * greater than one, weights are adjusted by the mean gradient of the batch. With batch size of one and plain
+     * stochastic gradient descent weights are adjusted exactly, down to the last bit, as by calling
+     * {@link #adjustWeights(Neuron, ActivationFunction)} for every neuron.
+     */
+    @Getter
+    private int batchSize = 1;
+
+    /**
+     * Rule by which weights are adjusted by gradient. Plain stochastic gradient descent with batch size of one adjusts
+     * weights of every neuron in place, any other optimizer or batch size goes through accumulated gradient.
+     */
+    @Getter
+    private Optimizer optimizer = new StochasticGradientDescent();
+
+    /**
+     * Schedule by which learning rate changes during training. Learning rate set before training is the initial one,
+     * it is restored once training is finished.
+     */
+    @Getter
+    private LearningRateSchedule learningRateSchedule = new ConstantLearningRate();
+
+    private Gradient gradient;
+    private double initialLearningRate;
+    private int epoch;
+    private long step;
+
     public Backpropagation(double learningRate) {
         this(learningRate, false);
     }
@@ -43,16 +83,36 @@ public class Backpropagation implements SupervisedTrainingStrategy {
     public Backpropagation(double learningRate, boolean pickSamplesRandomly) {
         this.learningRate = learningRate;
         this.pickSamplesRandomly = pickSamplesRandomly;
+        this.adjustedPerNeuron = overridesAdjustWeights(getClass());
+    }
+
+    public void setBatchSize(int batchSize) {
+        Preconditions.checkArgument(batchSize > 0, "Batch size must be greater than zero");
+        this.batchSize = batchSize;
+    }
+
+    public void setOptimizer(Optimizer optimizer) {
+        this.optimizer = Preconditions.checkNotNull(optimizer, "Optimizer must not be null");
+    }
+
+    public void setLearningRateSchedule(LearningRateSchedule learningRateSchedule) {
+        this.learningRateSchedule = Preconditions.checkNotNull(learningRateSchedule,
+                "Learning rate schedule must not be null");
     }
 
     @Override
-    public void train(NeuralNetwork neuralNetwork, double[][] trainingSet, double[][] expectedOutput) {
+    public void train(
+            NeuralNetwork neuralNetwork,
+            double[][] trainingSet,
+            double[][] expectedOutput,
+            double[][] validationSet,
+            double[][] validationOutput
+    ) {
         Preconditions.checkNotNull(neuralNetwork, "Neural network must not be null");
         Preconditions.checkNotNull(trainingSet, "Training set must not be null");
         Preconditions.checkNotNull(expectedOutput, "Expected output must not be null");
 
         Map<Integer, Double> msePerEpoch = new HashMap<>();
-        int epoch = 0;
         double mse = 1.0;
 
         int[] sampleIndices = new int[trainingSet.length];
@@ -61,24 +121,48 @@ public class Backpropagation implements SupervisedTrainingStrategy {
             Arrays.shuffle(sampleIndices);
         }
 
-        while (mse > neuralNetwork.getTargetError() && epoch < neuralNetwork.getMaxEpochs()) {
-            double errorSum = 0.0;
-            for (int i = 0; i < trainingSet.length; i++) {
-                int sampleIndex = sampleIndices[i];
-                errorSum += train(neuralNetwork, trainingSet, expectedOutput, sampleIndex);
-            }
-
-            mse = errorSum / trainingSet.length;
-            if (log.isDebugEnabled()) {
-                log.debug("Epoch #{}: [mse={}]", epoch + 1, mse);
+        EarlyStopping earlyStopping = validationSet != null
+                ? new EarlyStopping(neuralNetwork, validationSet, validationOutput)
+                : null;
+        optimizer.initialize(getParameterSizes(neuralNetwork));
+        gradient = isUpdatedInPlace() ? null : new Gradient(neuralNetwork);
+        initialLearningRate = learningRate;
+        learningRateSchedule.initialize();
+        epoch = 0;
+        step = 0;
+        try {
+            while (mse > neuralNetwork.getTargetError() && epoch < neuralNetwork.getMaxEpochs()) {
+                learningRate = learningRateSchedule.getLearningRate(initialLearningRate, epoch, step);
+                double errorSum = trainEpoch(neuralNetwork, trainingSet, expectedOutput, sampleIndices);
+                mse = errorSum / trainingSet.length;
+                if (log.isDebugEnabled()) {
+                    log.debug("Epoch #{}: [mse={}, learning_rate={}]", epoch + 1, mse, learningRate);
+                }
+                msePerEpoch.put(epoch, mse);
+                learningRateSchedule.onEpochEnd(epoch, mse);
+                onEpochEnd(neuralNetwork, epoch);
+                if (earlyStopping != null && earlyStopping.onEpochEnd(epoch)) {
+                    log.debug("Validation error has not improved since epoch #{}, stopping training",
+                            earlyStopping.getBestEpoch() + 1);
+                    break;
+                }
+                epoch++;
             }
-            msePerEpoch.put(epoch, mse);
-            onEpochEnd(neuralNetwork, epoch);
-            epoch++;
+        } finally {
+            learningRate = initialLearningRate;
+        }
+        if (earlyStopping != null) {
+            earlyStopping.finish();
         }
         neuralNetwork.setMsePerEpoch(msePerEpoch);
     }
 
+    /**
+     * Adjusts weights of input links of the given neuron by its sensibility. With batch size of one and plain
+     * stochastic gradient descent this class does not call this method, it adjusts whole rows of weights of layers at
+     * once with exactly the same result. Subclasses which override this method get it called for every neuron after
+     * every sample instead, at the cost of speed. Parallel, asynchronous and single precision training never call it.
+     */
     @Override
     public void adjustWeights(Neuron neuron, ActivationFunction activationFunction) {
         neuron.getInputs().forEach(input -> {
@@ -88,6 +172,32 @@ public class Backpropagation implements SupervisedTrainingStrategy {
         });
     }
 
+    /**
+     * Runs single training epoch.
+     *
+     * @param neuralNetwork neural network to be trained
+     * @param trainingSet training set
+     * @param expectedOutput expected output
+     * @param sampleIndices indices of training samples in order they should be processed
+     * @return sum of mean errors of all training samples
+     */
+    protected double trainEpoch(
+            NeuralNetwork neuralNetwork,
+            double[][] trainingSet,
+            double[][] expectedOutput,
+            int[] sampleIndices
+    ) {
+        double errorSum = 0.0;
+        for (int sampleIndex : sampleIndices) {
+            errorSum += train(neuralNetwork, trainingSet, expectedOutput, sampleIndex);
+        }
+        if (gradient != null && gradient.getNumberOfSamples() > 0) {
+            applyGradient(neuralNetwork, gradient);
+            completeStep();
+        }
+        return errorSum;
+    }
+
     protected double train(
             NeuralNetwork neuralNetwork,
             double[][] trainingSet,
@@ -98,10 +208,144 @@ public class Backpropagation implements SupervisedTrainingStrategy {
         double[] estimatedOutput = inputLayer.feed(trainingSet[sampleIndex], expectedOutput[sampleIndex]);
         double meanError = calculateMeanError(estimatedOutput, expectedOutput[sampleIndex]);
         propagateErrorBack(neuralNetwork);
-        inputLayer.adjustWeights(this);
+        if (gradient == null) {
+            if (adjustedPerNeuron) {
+                inputLayer.adjustWeights(this);
+            } else {
+                adjustWeights(neuralNetwork);
+            }
+            completeStep();
+        } else {
+            gradient.accumulate(neuralNetwork);
+            if (gradient.getNumberOfSamples() == batchSize) {
+                applyGradient(neuralNetwork, gradient);
+                completeStep();
+            }
+        }
         return meanError;
     }
 
+    /**
+     * Adjusts weights of all layers of the given network by gradient of its last fed sample. It has the same effect as
+     * calling {@link #adjustWeights(Neuron, ActivationFunction)} for every neuron, but updates whole rows of weights
+     * of layers at once.
+     */
+    private void adjustWeights(NeuralNetwork neuralNetwork) {
+        NeuralLayer layer = neuralNetwork.getInputLayer().getNextLayer();
+        for (; layer != null; layer = layer.getNextLayer()) {
+            double[] weights = layer.getWeights();
+            double[] biases = layer.getBiases();
+            double[] sensibilities = layer.getSensibilities();
+            double[] inputValues = layer.getPreviousLayer().getOutputValues();
+            int numberOfInputs = inputValues.length;
+            for (int j = 0, row = 0; j < sensibilities.length; j++, row += numberOfInputs) {
+                double step = learningRate * sensibilities[j];
+                biases[j] += step;
+                VectorKernels.axpy(step, inputValues, 0, weights, row, numberOfInputs);
+            }
+        }
+    }
+
+    /**
+     * Counts completed adjustment of weights and evaluates learning rate for the next one.
+     */
+    void completeStep() {
+        completeSteps(1);
+    }
+
+    /**
+     * Counts the given number of completed adjustments of weights at once and evaluates learning rate for the next
+     * one.
+     */
+    void completeSteps(long count) {
+        step += count;
+        learningRate = learningRateSchedule.getLearningRate(initialLearningRate, epoch, step);
+    }
+
+    /**
+     * Returns number of adjustments of weights completed since training was started.
+     */
+    long getStep() {
+        return step;
+    }
+
+    /**
+     * Evaluates learning rate of the current epoch after the given number of completed adjustments of weights without
+     * changing state of this strategy, so threads which adjust weights at once can evaluate it on their own.
+     */
+    double evaluateLearningRate(long step) {
+        return learningRateSchedule.getLearningRate(initialLearningRate, epoch, step);
+    }
+
+    /**
+     * Returns {@code true} if weights are adjusted per sample by plain gradient descent right in neurons without
+     * accumulating gradient.
+     */
+    boolean isUpdatedInPlace() {
+        return batchSize == 1 && optimizer instanceof StochasticGradientDescent;
+    }
+
+    /**
+     * Adjusts weights of the given network by the mean of accumulated gradient using optimizer and resets the
+     * gradient. Weights and biases of layer {@code i} (counting from the first layer after the input one) are passed
+     * to the optimizer as parameter arrays {@code 2 * i} and {@code 2 * i + 1}.
+     */
+    void applyGradient(NeuralNetwork neuralNetwork, Gradient gradient) {
+        applyGradient(neuralNetwork, gradient, learningRate);
+    }
+
+    /**
+     * Adjusts weights of the given network by the mean of accumulated gradient using the given learning rate rather
+     * than the current one and resets the gradient.
+     */
+    void applyGradient(NeuralNetwork neuralNetwork, Gradient gradient, double learningRate) {
+        double scale = 1.0 / gradient.getNumberOfSamples();
+        optimizer.nextStep();
+        NeuralLayer layer = neuralNetwork.getInputLayer().getNextLayer();
+        for (int i = 0; layer != null; i++, layer = layer.getNextLayer()) {
+            double[] weightGradient = gradient.getWeightGradient(i);
+            double[] biasGradient = gradient.getBiasGradient(i);
+            scale(weightGradient, scale);
+            scale(biasGradient, scale);
+            optimizer.update(2 * i, layer.getWeights(), weightGradient, learningRate);
+            optimizer.update(2 * i + 1, layer.getBiases(), biasGradient, learningRate);
+        }
+        gradient.reset();
+    }
+
+    private static boolean overridesAdjustWeights(Class<?> type) {
+        try {
+            Method method = type.getMethod("adjustWeights", Neuron.class, ActivationFunction.class);
+            return method.getDeclaringClass() != Backpropagation.class;
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static int[] getParameterSizes(NeuralNetwork neuralNetwork) {
+        int numberOfLayers = 0;
+        NeuralLayer inputLayer = neuralNetwork.getInputLayer();
+        for (NeuralLayer layer = inputLayer.getNextLayer(); layer != null; layer = layer.getNextLayer()) {
+            numberOfLayers++;
+        }
+
+        int[] sizes = new int[2 * numberOfLayers];
+        NeuralLayer layer = inputLayer.getNextLayer();
+        for (int i = 0; layer != null; i++, layer = layer.getNextLayer()) {
+            sizes[2 * i] = layer.getWeights().length;
+            sizes[2 * i + 1] = layer.getBiases().length;
+        }
+        return sizes;
+    }
+
+    private static void scale(double[] values, double factor) {
+        if (factor != 1.0) {
+            for (int i = 0; i < values.length; i++) {
+                values[i] *= factor;
+            }
+        }
+    }
+
     protected double calculateMeanError(double[] estimatedOutput, double[] expectedOutput) {
         double errorSum = 0.0;
         for (int i = 0; i < estimatedOutput.length; i++) {
@@ -111,25 +355,37 @@ public class Backpropagation implements SupervisedTrainingStrategy {
         return errorSum / estimatedOutput.length;
     }
 
+    /**
+     * Calculates sensibilities of neurons of all layers of the given network for its last sample fed with expected
+     * output. Derivatives of activation functions are not evaluated here, they are taken from layers which store
+     * them during feed. Errors coming from the next layer are summed by compensated summation, the same as
+     * {@link java.util.stream.DoubleStream#sum()} of errors coming through output links of a neuron gives.
+     */
     protected void propagateErrorBack(NeuralNetwork neuralNetwork) {
         NeuralLayer inputLayer = neuralNetwork.getInputLayer();
-        NeuralLayer currentLayer = neuralNetwork.getOutputLayer();
-        while (currentLayer != inputLayer) {
-            for (Neuron neuron : currentLayer.getNeurons()) {
-                ActivationFunction activationFunction = currentLayer.getActivationFunction();
-                double sensibility;
-                if (!neuron.getOutputs().isEmpty()) {
-                    sensibility = neuron.getOutputs().stream()
-                            .mapToDouble(output -> output.getWeight() * output.getTo().getSensibility())
-                            .sum();
-                    sensibility *= activationFunction.getDerivative().applyAsDouble(neuron.getOutputValue());
-                } else {
-                    sensibility = activationFunction.getDerivative().applyAsDouble(neuron.getOutputValue())
-                            * neuron.getError();
-                }
-                neuron.setSensibility(sensibility);
+        NeuralLayer outputLayer = neuralNetwork.getOutputLayer();
+
+        double[] outputSensibilities = outputLayer.getSensibilities();
+        double[] outputDerivatives = outputLayer.getDerivatives();
+        List<Neuron> outputNeurons = outputLayer.getNeurons();
+        for (int j = 0; j < outputSensibilities.length; j++) {
+            outputSensibilities[j] = outputDerivatives[j] * outputNeurons.get(j).getError();
+        }
+
+        NeuralLayer layer = outputLayer.getPreviousLayer();
+        while (layer != inputLayer) {
+            NeuralLayer nextLayer = layer.getNextLayer();
+            double[] sensibilities = layer.getSensibilities();
+            double[] derivatives = layer.getDerivatives();
+            double[] nextLayerWeights = nextLayer.getWeights();
+            double[] nextLayerSensibilities = nextLayer.getSensibilities();
+            int layerSize = sensibilities.length;
+            for (int j = 0; j < layerSize; j++) {
+                double sensibility = VectorKernels.compensatedDot(nextLayerWeights, j, layerSize,
+                        nextLayerSensibilities, 0, nextLayerSensibilities.length);
+                sensibilities[j] = sensibility * derivatives[j];
             }
-            currentLayer = currentLayer.getPreviousLayer();
+            layer = layer.getPreviousLayer();
         }
     }
 
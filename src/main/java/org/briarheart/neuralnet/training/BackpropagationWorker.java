@@ -0,0 +1,168 @@
+package org.briarheart.neuralnet.training;
+
+import lombok.Getter;
+import org.briarheart.neuralnet.NeuralNetwork;
+import org.briarheart.neuralnet.layer.NeuralLayer;
+
+
+/**
+ * Runs forward and backward passes of backpropagation against its own activation and gradient buffers. Unless
+ * {@link #train(double[], double[], double)} is used, weights of the network are only read, so several workers can
+ * process different samples of the same network at once.
+ *
+ * @author Roman Chigvintsev
+ */
+class BackpropagationWorker {
+    private final NeuralLayer[] layers;
+    private final double[][] derivatives;
+    private final double[][] outputValues;
+    private final double[][] sensibilities;
+
+    @Getter
+    private final Gradient gradient;
+
+    BackpropagationWorker(NeuralNetwork neuralNetwork) {
+        NeuralLayer inputLayer = neuralNetwork.getInputLayer();
+        int numberOfLayers = 0;
+        for (NeuralLayer layer = inputLayer.getNextLayer(); layer != null; layer = layer.getNextLayer()) {
+            numberOfLayers++;
+        }
+
+        this.layers = new NeuralLayer[numberOfLayers];
+        this.derivatives = new double[numberOfLayers][];
+        this.outputValues = new double[numberOfLayers][];
+        this.sensibilities = new double[numberOfLayers][];
+        NeuralLayer layer = inputLayer.getNextLayer();
+        for (int i = 0; i < numberOfLayers; i++, layer = layer.getNextLayer()) {
+            layers[i] = layer;
+            derivatives[i] = new double[layer.getSize()];
+            outputValues[i] = new double[layer.getSize()];
+            sensibilities[i] = new double[layer.getSize()];
+        }
+        this.gradient = new Gradient(neuralNetwork);
+    }
+
+    /**
+     * Returns output values of the given layer (counting from the first layer after the input one) for the last
+     * propagated sample.
+     */
+    double[] getOutputValues(int layer) {
+        return outputValues[layer];
+    }
+
+    /**
+     * Returns sensibilities of neurons of the given layer (counting from the first layer after the input one) for the
+     * last propagated sample.
+     */
+    double[] getSensibilities(int layer) {
+        return sensibilities[layer];
+    }
+
+    int getNumberOfLayers() {
+        return layers.length;
+    }
+
+    /**
+     * Adds gradients of the given training samples to the gradient of this worker.
+     *
+     * @param trainingSet training set
+     * @param expectedOutput expected output
+     * @param sampleIndices indices of training samples
+     * @param from index of the first sample index to process, inclusive
+     * @param to index of the last sample index to process, exclusive
+     * @return sum of mean errors of processed samples
+     */
+    double train(double[][] trainingSet, double[][] expectedOutput, int[] sampleIndices, int from, int to) {
+        double errorSum = 0.0;
+        for (int i = from; i < to; i++) {
+            int sampleIndex = sampleIndices[i];
+            errorSum += train(trainingSet[sampleIndex], expectedOutput[sampleIndex]);
+        }
+        return errorSum;
+    }
+
+    /**
+     * Adds gradient of the given training sample to the gradient of this worker.
+     *
+     * @return mean error of the sample
+     */
+    double train(double[] input, double[] expectedOutput) {
+        double meanError = propagate(input, expectedOutput);
+        gradient.accumulate(input, outputValues, sensibilities);
+        return meanError;
+    }
+
+    /**
+     * Adjusts weights of the network by gradient of the given training sample right away. Weights are written
+     * without any synchronization, so updates of workers running at the same time may overwrite each other.
+     *
+     * @return mean error of the sample
+     */
+    double train(double[] input, double[] expectedOutput, double learningRate) {
+        double meanError = propagate(input, expectedOutput);
+        for (int i = 0; i < layers.length; i++) {
+            double[] layerInput = i == 0 ? input : outputValues[i - 1];
+            double[] layerSensibilities = sensibilities[i];
+            double[] weights = layers[i].getWeights();
+            double[] biases = layers[i].getBiases();
+            int numberOfInputs = layerInput.length;
+            for (int k = 0; k < numberOfInputs; k++) {
+                double value = layerInput[k];
+                // Zero inputs do not change weights, skipping them keeps threads away from each other's weights
+                if (value == 0.0) {
+                    continue;
+                }
+                for (int j = 0, index = k; j < layerSensibilities.length; j++, index += numberOfInputs) {
+                    weights[index] += learningRate * layerSensibilities[j] * value;
+                }
+            }
+            for (int j = 0; j < layerSensibilities.length; j++) {
+                biases[j] += learningRate * layerSensibilities[j];
+            }
+        }
+        return meanError;
+    }
+
+    /**
+     * Runs forward and backward passes for the given training sample without touching gradient or weights. Output
+     * values and sensibilities of every layer are left in buffers of this worker.
+     *
+     * @return mean error of the sample
+     */
+    double propagate(double[] input, double[] expectedOutput) {
+        double[] layerInput = input;
+        for (int i = 0; i < layers.length; i++) {
+            layers[i].calculateOutputValues(layerInput, null, outputValues[i], derivatives[i]);
+            layerInput = outputValues[i];
+        }
+
+        int outputLayer = layers.length - 1;
+        double[] estimatedOutput = outputValues[outputLayer];
+        double[] outputSensibilities = sensibilities[outputLayer];
+        double[] outputDerivatives = derivatives[outputLayer];
+        double errorSum = 0.0;
+        for (int j = 0; j < estimatedOutput.length; j++) {
+            double error = expectedOutput[j] - estimatedOutput[j];
+            errorSum += Math.pow(error, 2.0);
+            outputSensibilities[j] = outputDerivatives[j] * error;
+        }
+
+        for (int i = outputLayer - 1; i >= 0; i--) {
+            double[] layerOutput = outputValues[i];
+            double[] layerSensibilities = sensibilities[i];
+            double[] nextLayerWeights = layers[i + 1].getWeights();
+            double[] nextLayerSensibilities = sensibilities[i + 1];
+            double[] layerDerivatives = derivatives[i];
+            int layerSize = layerOutput.length;
+            for (int j = 0; j < layerSize; j++) {
+                double sensibility = 0.0;
+                for (int m = 0, index = j; m < nextLayerSensibilities.length; m++, index += layerSize) {
+                    sensibility += nextLayerWeights[index] * nextLayerSensibilities[m];
+                }
+                layerSensibilities[j] = sensibility * layerDerivatives[j];
+            }
+        }
+
+        return errorSum / estimatedOutput.length;
+    }
+}
@@ -0,0 +1,132 @@
+package org.briarheart.neuralnet.training;
+
+import com.google.common.base.Preconditions;
+import lombok.Getter;
+import org.briarheart.neuralnet.NeuralNetwork;
+import org.briarheart.neuralnet.layer.NeuralLayer;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Tracks mean squared error of a neural network on a validation set during training. Validation error is evaluated
+ * every {@link NeuralNetwork#getValidationInterval()} epochs. Whenever it improves, weights of the network are copied
+ * to a snapshot. Once validation error has not improved for {@link NeuralNetwork#getPatience()} evaluations in a row,
+ * training should stop and the best weights should be restored.
+ *
+ * @author Roman Chigvintsev
+ */
+class EarlyStopping {
+    private final NeuralNetwork neuralNetwork;
+    private final double[][] validationSet;
+    private final double[][] validationOutput;
+    private final double[][] estimatedOutput;
+    private final double[][] bestWeights;
+    private final double[][] bestBiases;
+    private final Map<Integer, Double> msePerEpoch = new HashMap<>();
+
+    @Getter
+    private double bestMse = Double.POSITIVE_INFINITY;
+    @Getter
+    private int bestEpoch = -1;
+
+    private int evaluationsWithoutImprovement;
+
+    /**
+     * Creates new instance of this class.
+     *
+     * @param neuralNetwork neural network to be trained (must not be {@code null})
+     * @param validationSet validation set (must not be {@code null})
+     * @param validationOutput expected output of validation set, one row per sample (must not be {@code null})
+     */
+    EarlyStopping(NeuralNetwork neuralNetwork, double[][] validationSet, double[][] validationOutput) {
+        Preconditions.checkNotNull(neuralNetwork, "Neural network must not be null");
+        Preconditions.checkNotNull(validationSet, "Validation set must not be null");
+        Preconditions.checkNotNull(validationOutput, "Validation output must not be null");
+        Preconditions.checkArgument(validationSet.length == validationOutput.length,
+                "Number of validation samples must match number of rows of validation output");
+
+        this.neuralNetwork = neuralNetwork;
+        this.validationSet = validationSet;
+        this.validationOutput = validationOutput;
+        this.estimatedOutput = new double[validationSet.length][neuralNetwork.getOutputLayer().getSize()];
+
+        int numberOfLayers = 0;
+        NeuralLayer inputLayer = neuralNetwork.getInputLayer();
+        for (NeuralLayer layer = inputLayer.getNextLayer(); layer != null; layer = layer.getNextLayer()) {
+            numberOfLayers++;
+        }
+        this.bestWeights = new double[numberOfLayers][];
+        this.bestBiases = new double[numberOfLayers][];
+        NeuralLayer layer = inputLayer.getNextLayer();
+        for (int i = 0; i < numberOfLayers; i++, layer = layer.getNextLayer()) {
+            bestWeights[i] = new double[layer.getWeights().length];
+            bestBiases[i] = new double[layer.getBiases().length];
+        }
+    }
+
+    /**
+     * Evaluates validation error after the given epoch if it is time to do so.
+     *
+     * @param epoch index of the completed epoch starting from zero
+     * @return {@code true} if training should stop
+     */
+    boolean onEpochEnd(int epoch) {
+        if ((epoch + 1) % neuralNetwork.getValidationInterval() != 0) {
+            return false;
+        }
+
+        double mse = calculateMse();
+        msePerEpoch.put(epoch, mse);
+        if (mse < bestMse) {
+            bestMse = mse;
+            bestEpoch = epoch;
+            evaluationsWithoutImprovement = 0;
+            copyWeights(true);
+            return false;
+        }
+        return ++evaluationsWithoutImprovement >= neuralNetwork.getPatience();
+    }
+
+    /**
+     * Restores weights of the network with the lowest validation error, if any, and reports validation error of
+     * every evaluated epoch to the network.
+     */
+    void finish() {
+        if (bestEpoch >= 0) {
+            copyWeights(false);
+        }
+        neuralNetwork.setValidationMsePerEpoch(msePerEpoch);
+    }
+
+    private double calculateMse() {
+        neuralNetwork.feedBatch(validationSet, estimatedOutput);
+        double errorSum = 0.0;
+        for (int i = 0; i < validationSet.length; i++) {
+            double[] expected = validationOutput[i];
+            double[] estimated = estimatedOutput[i];
+            double sampleErrorSum = 0.0;
+            for (int j = 0; j < expected.length; j++) {
+                double error = expected[j] - estimated[j];
+                sampleErrorSum += error * error;
+            }
+            errorSum += sampleErrorSum / expected.length;
+        }
+        return errorSum / validationSet.length;
+    }
+
+    private void copyWeights(boolean toSnapshot) {
+        NeuralLayer layer = neuralNetwork.getInputLayer().getNextLayer();
+        for (int i = 0; layer != null; i++, layer = layer.getNextLayer()) {
+            double[] weights = layer.getWeights();
+            double[] biases = layer.getBiases();
+            if (toSnapshot) {
+                System.arraycopy(weights, 0, bestWeights[i], 0, weights.length);
+                System.arraycopy(biases, 0, bestBiases[i], 0, biases.length);
+            } else {
+                System.arraycopy(bestWeights[i], 0, weights, 0, weights.length);
+                System.arraycopy(bestBiases[i], 0, biases, 0, biases.length);
+            }
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package org.briarheart.neuralnet.training;
+
+import com.google.common.base.Preconditions;
+import lombok.Getter;
+import org.briarheart.neuralnet.NeuralNetwork;
+import org.briarheart.neuralnet.layer.NeuralLayer;
+import org.briarheart.neuralnet.util.math.VectorKernels;
+
+import java.util.Arrays;
+
+/**
+ * Gradient of the error of a neural network accumulated over a number of training samples. Gradient of every layer
+ * except the input one is kept in flat arrays aligned with weights and biases of the layer.
+ *
+ * @author Roman Chigvintsev
+ */
+class Gradient {
+    private final double[][] weightGradients;
+    private final double[][] biasGradients;
+
+    @Getter
+    private int numberOfSamples;
+
+    Gradient(NeuralNetwork neuralNetwork) {
+        Preconditions.checkNotNull(neuralNetwork, "Neural network must not be null");
+
+        int numberOfLayers = 0;
+        NeuralLayer inputLayer = neuralNetwork.getInputLayer();
+        for (NeuralLayer layer = inputLayer.getNextLayer(); layer != null; layer = layer.getNextLayer()) {
+            numberOfLayers++;
+        }
+
+        this.weightGradients = new double[numberOfLayers][];
+        this.biasGradients = new double[numberOfLayers][];
+        NeuralLayer layer = inputLayer.getNextLayer();
+        for (int i = 0; i < numberOfLayers; i++, layer = layer.getNextLayer()) {
+            weightGradients[i] = new double[layer.getWeights().length];
+            biasGradients[i] = new double[layer.getBiases().length];
+        }
+    }
+
+    int getNumberOfLayers() {
+        return weightGradients.length;
+    }
+
+    double[] getWeightGradient(int layer) {
+        return weightGradients[layer];
+    }
+
+    double[] getBiasGradient(int layer) {
+        return biasGradients[layer];
+    }
+
+    /**
+     * Adds gradient for a single sample.
+     *
+     * @param inputValues input values of the sample
+     * @param outputValues output values of every layer except the input one
+     * @param sensibilities sensibilities of neurons of every layer except the input one
+     */
+    void accumulate(double[] inputValues, double[][] outputValues, double[][] sensibilities) {
+        for (int i = 0; i < weightGradients.length; i++) {
+            accumulate(i, sensibilities[i], i == 0 ? inputValues : outputValues[i - 1]);
+        }
+        numberOfSamples++;
+    }
+
+    /**
+     * Adds gradient of all layers of the given network for its last fed sample.
+     */
+    void accumulate(NeuralNetwork neuralNetwork) {
+        NeuralLayer inputLayer = neuralNetwork.getInputLayer();
+        NeuralLayer layer = inputLayer.getNextLayer();
+        for (int i = 0; layer != null; i++, layer = layer.getNextLayer()) {
+            accumulate(i, layer.getSensibilities(), layer.getPreviousLayer().getOutputValues());
+        }
+        numberOfSamples++;
+    }
+
+    /**
+     * Adds the given gradient to this one.
+     */
+    void add(Gradient gradient) {
+        for (int i = 0; i < weightGradients.length; i++) {
+            add(weightGradients[i], gradient.weightGradients[i]);
+            add(biasGradients[i], gradient.biasGradients[i]);
+        }
+        numberOfSamples += gradient.numberOfSamples;
+    }
+
+    void reset() {
+        for (int i = 0; i < weightGradients.length; i++) {
+            Arrays.fill(weightGradients[i], 0.0);
+            Arrays.fill(biasGradients[i], 0.0);
+        }
+        numberOfSamples = 0;
+    }
+
+    private void accumulate(int layer, double[] sensibilities, double[] inputValues) {
+        double[] weightGradient = weightGradients[layer];
+        double[] biasGradient = biasGradients[layer];
+        int numberOfInputs = inputValues.length;
+        for (int j = 0, row = 0; j < sensibilities.length; j++, row += numberOfInputs) {
+            double sensibility = sensibilities[j];
+            biasGradient[j] += sensibility;
+            VectorKernels.axpy(sensibility, inputValues, 0, weightGradient, row, numberOfInputs);
+        }
+    }
+
+    private static void add(double[] values, double[] increments) {
+        for (int i = 0; i < values.length; i++) {
+            values[i] += increments[i];
+        }
+    }
+}
@@ -1,14 +1,15 @@
 package org.briarheart.neuralnet.training;
 
+import com.google.common.base.Preconditions;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
-import org.briarheart.neuralnet.NeuralLink;
 import org.briarheart.neuralnet.NeuralNetwork;
 import org.briarheart.neuralnet.activation.ActivationFunction;
 import org.briarheart.neuralnet.layer.NeuralLayer;
 import org.briarheart.neuralnet.neuron.Bias;
 import org.briarheart.neuralnet.neuron.Neuron;
 import org.briarheart.neuralnet.util.Arrays;
+import org.briarheart.neuralnet.util.math.VectorKernels;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -43,7 +44,7 @@ public class Kohonen implements UnsupervisedTrainingStrategy {
         for (int epoch = 0; epoch < neuralNetwork.getMaxEpochs(); epoch++) {
             for (double[] sample : trainingSet) {
                 feedLayer(inputLayer, sample);
-                double[] distances = calculateEuclideanDistances(neuralNetwork);
+                double[] distances = calculateEuclideanDistances(neuralNetwork, sample);
                 int winnerNeuronIndex = Arrays.findMinimum(distances);
                 log.debug("Epoch #{}: [training_sample={}, winner_neuron_index={}]",
                         epoch + 1, java.util.Arrays.toString(sample), winnerNeuronIndex);
@@ -63,22 +64,56 @@ public class Kohonen implements UnsupervisedTrainingStrategy {
         });
     }
 
+    /**
+     * Determines winner neuron for the given input. This method does not change state of neurons, so it can be called
+     * by several threads at once as long as the network is not being trained at the same time.
+     */
     @Override
     public double[] feed(NeuralNetwork neuralNetwork, double[] input) {
-        NeuralLayer inputLayer = neuralNetwork.getInputLayer();
+        Preconditions.checkNotNull(input, "Input values must not be null");
+        Preconditions.checkArgument(input.length == neuralNetwork.getInputLayer().getSize(),
+                "Number of input values must match number of neurons in input layer");
+
         NeuralLayer outputLayer = neuralNetwork.getOutputLayer();
 
         double[] result = new double[outputLayer.getNeurons().size()];
         java.util.Arrays.fill(result, -1.0);
 
-        feedLayer(inputLayer, input);
-        double[] distances = calculateEuclideanDistances(neuralNetwork);
+        double[] distances = calculateEuclideanDistances(neuralNetwork, input);
         int winnerNeuronIndex = Arrays.findMinimum(distances);
         result[winnerNeuronIndex] = 1.0;
 
         return result;
     }
 
+    /**
+     * Determines winner neurons for a batch of inputs. Distances to output neurons are calculated for blocks of
+     * samples at once, so weights of every output neuron are reused across all samples of a block.
+     */
+    @Override
+    public void feedBatch(NeuralNetwork neuralNetwork, double[][] input, double[][] output) {
+        NeuralLayer outputLayer = neuralNetwork.getOutputLayer();
+        int numberOfOutputs = outputLayer.getSize();
+
+        int blockSize = Math.min(64, input.length);
+        double[] distances = new double[blockSize * numberOfOutputs];
+        for (int from = 0; from < input.length; from += blockSize) {
+            int batchSize = Math.min(blockSize, input.length - from);
+            calculateEuclideanDistances(outputLayer, input, from, batchSize, distances);
+            for (int b = 0, offset = 0; b < batchSize; b++, offset += numberOfOutputs) {
+                int winnerNeuronIndex = 0;
+                for (int i = 1; i < numberOfOutputs; i++) {
+                    if (distances[offset + i] < distances[offset + winnerNeuronIndex]) {
+                        winnerNeuronIndex = i;
+                    }
+                }
+                double[] result = output[from + b];
+                java.util.Arrays.fill(result, 0, numberOfOutputs, -1.0);
+                result[winnerNeuronIndex] = 1.0;
+            }
+        }
+    }
+
     private void resetWeights(NeuralLayer layer) {
         layer.getNeurons().forEach(neuron -> neuron.getOutputs().forEach(output -> output.setWeight(0.0)));
     }
@@ -92,17 +127,34 @@ public class Kohonen implements UnsupervisedTrainingStrategy {
         }
     }
 
-    private double[] calculateEuclideanDistances(NeuralNetwork neuralNetwork) {
+    private double[] calculateEuclideanDistances(NeuralNetwork neuralNetwork, double[] input) {
         NeuralLayer outputLayer = neuralNetwork.getOutputLayer();
-        double[] result = new double[outputLayer.getNeurons().size()];
-        for (int i = 0; i < outputLayer.getNeurons().size(); i++) {
-            Neuron neuron = outputLayer.getNeurons().get(i);
-            double distance = 0.0;
-            for (NeuralLink input : neuron.getInputs()) {
-                distance += Math.pow(input.getFrom().getOutputValue() - input.getWeight(), 2.0);
+        double[] result = new double[outputLayer.getSize()];
+        calculateEuclideanDistances(outputLayer, new double[][] {input}, 0, 1, result);
+        return result;
+    }
+
+    /**
+     * Calculates distances between samples of the given batch and weights of output neurons. Distances are stored in
+     * row-major order: each row holds distances for a single sample.
+     */
+    private void calculateEuclideanDistances(NeuralLayer outputLayer,
+                                             double[][] input,
+                                             int from,
+                                             int batchSize,
+                                             double[] distances) {
+        double[] weights = outputLayer.getWeights();
+        double[] biases = outputLayer.getBiases();
+        int numberOfOutputs = outputLayer.getSize();
+        int numberOfInputs = weights.length / numberOfOutputs;
+        for (int i = 0, row = 0; i < numberOfOutputs; i++, row += numberOfInputs) {
+            // Bias neuron of the input layer always outputs 1.0
+            double biasDistance = (1.0 - biases[i]) * (1.0 - biases[i]);
+            for (int b = 0; b < batchSize; b++) {
+                double[] sample = input[from + b];
+                distances[b * numberOfOutputs + i] = biasDistance
+                        + VectorKernels.squaredDistance(sample, 0, weights, row, numberOfInputs);
             }
-            result[i] = distance;
         }
-        return result;
     }
 }
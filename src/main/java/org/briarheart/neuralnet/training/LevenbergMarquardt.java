@@ -1,13 +1,19 @@
 package org.briarheart.neuralnet.training;
 
 import com.google.common.base.Preconditions;
+import lombok.Getter;
 import org.briarheart.neuralnet.NeuralLink;
 import org.briarheart.neuralnet.NeuralNetwork;
 import org.briarheart.neuralnet.layer.NeuralLayer;
 import org.briarheart.neuralnet.neuron.Neuron;
-import org.briarheart.neuralnet.util.math.IdentityMatrix;
+import org.briarheart.neuralnet.util.math.CholeskyDecomposition;
 import org.briarheart.neuralnet.util.math.Matrix;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
 /**
  * As Wikipedia states:
  * <blockquote>
@@ -19,42 +25,238 @@ import org.briarheart.neuralnet.util.math.Matrix;
  *     It was rediscovered in 1963 by Donald Marquardt, who worked as a statistician at DuPont, and independently by
  *     Girard, Wynne and Morrison.
  * </blockquote>
+ * In streaming mode (default) rows of Jacobian matrix are not stored. Instead normal matrix J<sup>T</sup>J and vector
+ * J<sup>T</sup>e are accumulated row by row as samples are processed, so memory consumption depends only on number of
+ * weights and not on number of samples. Otherwise the whole Jacobian matrix is stored and J<sup>T</sup>J and
+ * J<sup>T</sup>e are calculated by fused multiplication at the end of epoch. Since products are summed in the same
+ * order, both modes give the same results.
+ * <p>
+ * Damped normal equations are solved by Cholesky decomposition. Damping adapts to progress of training: if a step does
+ * not decrease error on training set, it is rolled back and retried with greater damping (closer to gradient descent),
+ * otherwise damping is decreased (closer to Gauss-Newton method) for the next epoch.
+ * <p>
+ * By default samples are processed by the calling thread, which also adjusts weights by backpropagation after every
+ * sample, so rows of Jacobian matrix are evaluated at weights changing during the epoch. When number of threads is
+ * given, normal equations are accumulated by that many worker threads instead, each of them summing products of its
+ * own share of samples against weights the epoch started with. Any number of worker threads, including one, follows
+ * the same algorithm, so results differ only by order in which partial sums of workers are added.
+ * <p>
+ * For larger networks J<sup>T</sup>J can be approximated by its block-diagonal part (see {@link BlockStructure}). Then
+ * weights of every layer or every neuron are treated as independent of other weights and many small systems are
+ * solved instead of a single large one. This reduces both memory consumption and time of every epoch at the cost of
+ * less accurate steps.
  *
  * @author Roman Chigvintsev
  */
 public class LevenbergMarquardt extends Backpropagation {
-    private final double damping;
+    public static final double DEFAULT_DAMPING = 0.1;
+
+    private static final double DAMPING_FACTOR = 10.0;
+    private static final double MIN_DAMPING = 1e-12;
+    private static final double MAX_DAMPING = 1e12;
+    private static final int MAX_ATTEMPTS = 10;
+
+    /**
+     * Structure of blocks of normal matrix J<sup>T</sup>J that are taken into account.
+     */
+    public enum BlockStructure {
+        /**
+         * Whole normal matrix is used.
+         */
+        FULL,
+        /**
+         * Only blocks of weights of the same layer are used.
+         */
+        LAYER,
+        /**
+         * Only blocks of weights (including bias) of the same neuron are used.
+         */
+        NEURON
+    }
+
+    private final double initialDamping;
+    @Getter
+    private final boolean streaming;
+    @Getter
+    private final int numberOfThreads;
+    @Getter
+    private final BlockStructure blockStructure;
+
+    /**
+     * Current damping, it changes during training.
+     */
+    @Getter
+    private double damping;
+
+    private double[][] trainingSet;
+    private double[][] expectedOutput;
+    private double[][] estimatedOutput;
 
     private Matrix jacobian;
     private Matrix error;
 
+    private int numberOfColumns;
+    private double[] jacobianRow;
+    private NormalEquations normalEquations;
+    private double[] dampedNormalMatrix;
+    private double[] delta;
+    private double[][] weightsSnapshot;
+
+    private ForkJoinPool pool;
+    private LevenbergMarquardtWorker[] workers;
+
     public LevenbergMarquardt(double learningRate) {
-        this(learningRate, 0.1);
+        this(learningRate, DEFAULT_DAMPING);
     }
 
     public LevenbergMarquardt(double learningRate, double damping) {
+        this(learningRate, damping, true);
+    }
+
+    public LevenbergMarquardt(double learningRate, double damping, boolean streaming) {
+        this(learningRate, damping, streaming, 0);
+    }
+
+    public LevenbergMarquardt(double learningRate, double damping, boolean streaming, int numberOfThreads) {
+        this(learningRate, damping, streaming, numberOfThreads, BlockStructure.FULL);
+    }
+
+    public LevenbergMarquardt(
+            double learningRate,
+            double damping,
+            boolean streaming,
+            int numberOfThreads,
+            BlockStructure blockStructure
+    ) {
         super(learningRate);
+        Preconditions.checkNotNull(blockStructure, "Block structure must not be null");
+        Preconditions.checkArgument(damping > 0.0, "Damping must be greater than zero");
+        Preconditions.checkArgument(numberOfThreads >= 0, "Number of threads must not be negative");
+        Preconditions.checkArgument(streaming || numberOfThreads == 0,
+                "Jacobian matrix can only be stored when training without worker threads");
+        this.initialDamping = damping;
         this.damping = damping;
+        this.streaming = streaming;
+        this.numberOfThreads = numberOfThreads;
+        this.blockStructure = blockStructure;
     }
 
     @Override
-    public void train(NeuralNetwork neuralNetwork, double[][] trainingSet, double[][] expectedOutput) {
+    public void train(
+            NeuralNetwork neuralNetwork,
+            double[][] trainingSet,
+            double[][] expectedOutput,
+            double[][] validationSet,
+            double[][] validationOutput
+    ) {
         Preconditions.checkNotNull(neuralNetwork, "Neural network must not be null");
         Preconditions.checkNotNull(trainingSet, "Training set must not be null");
 
-        int numberOfColumns = 0;
+        numberOfColumns = 0;
+        int numberOfLayers = 0;
+        List<Integer> blockSizes = new ArrayList<>();
         NeuralLayer currentLayer = neuralNetwork.getInputLayer().getNextLayer();
         while (currentLayer != null) {
+            int layerColumns = 0;
             for (Neuron neuron : currentLayer.getNeurons()) {
-                numberOfColumns += neuron.getInputs().size();
+                int neuronColumns = neuron.getInputs().size();
+                if (blockStructure == BlockStructure.NEURON) {
+                    blockSizes.add(neuronColumns);
+                }
+                layerColumns += neuronColumns;
+            }
+            if (blockStructure == BlockStructure.LAYER) {
+                blockSizes.add(layerColumns);
             }
+            numberOfColumns += layerColumns;
+            numberOfLayers++;
             currentLayer = currentLayer.getNextLayer();
         }
+        if (blockStructure == BlockStructure.FULL) {
+            blockSizes.add(numberOfColumns);
+        }
+        int[] blocks = blockSizes.stream().mapToInt(Integer::intValue).toArray();
+        int maxBlockSize = blockSizes.stream().mapToInt(Integer::intValue).max().orElse(0);
+
+        this.trainingSet = trainingSet;
+        this.expectedOutput = expectedOutput;
+        estimatedOutput = new double[trainingSet.length][neuralNetwork.getOutputLayer().getSize()];
+        damping = initialDamping;
 
-        jacobian = new Matrix(trainingSet.length, numberOfColumns);
-        error = new Matrix(trainingSet.length, 1);
+        jacobianRow = new double[numberOfColumns];
+        normalEquations = new NormalEquations(blocks);
+        dampedNormalMatrix = new double[maxBlockSize * maxBlockSize];
+        delta = new double[numberOfColumns];
+        weightsSnapshot = new double[2 * numberOfLayers][];
+        if (!streaming) {
+            jacobian = new Matrix(trainingSet.length, numberOfColumns);
+            error = new Matrix(trainingSet.length, 1);
+        }
+        if (numberOfThreads > 0) {
+            pool = new ForkJoinPool(numberOfThreads);
+            workers = new LevenbergMarquardtWorker[numberOfThreads];
+            for (int i = 0; i < numberOfThreads; i++) {
+                workers[i] = new LevenbergMarquardtWorker(neuralNetwork, blocks);
+            }
+        }
 
-        super.train(neuralNetwork, trainingSet, expectedOutput);
+        try {
+            super.train(neuralNetwork, trainingSet, expectedOutput, validationSet, validationOutput);
+        } finally {
+            this.trainingSet = null;
+            this.expectedOutput = null;
+            estimatedOutput = null;
+            jacobian = null;
+            error = null;
+            jacobianRow = null;
+            normalEquations = null;
+            dampedNormalMatrix = null;
+            delta = null;
+            weightsSnapshot = null;
+            if (pool != null) {
+                pool.shutdown();
+                pool = null;
+                workers = null;
+            }
+        }
+    }
+
+    /**
+     * Runs single training epoch. When training in worker threads, samples are split into contiguous shards and normal
+     * equations of every shard are accumulated by its own worker against weights the epoch started with. Unlike the
+     * epoch run by the calling thread, weights are not adjusted by backpropagation after every sample then. Normal
+     * equations of workers are summed in a fixed order, so for a fixed number of threads training results are
+     * deterministic.
+     */
+    @Override
+    protected double trainEpoch(
+            NeuralNetwork neuralNetwork,
+            double[][] trainingSet,
+            double[][] expectedOutput,
+            int[] sampleIndices
+    ) {
+        if (numberOfThreads == 0) {
+            return super.trainEpoch(neuralNetwork, trainingSet, expectedOutput, sampleIndices);
+        }
+
+        int numberOfSamples = sampleIndices.length;
+        int numberOfShards = Math.min(numberOfThreads, numberOfSamples);
+        List<ForkJoinTask<Double>> tasks = new ArrayList<>(numberOfShards);
+        for (int i = 0; i < numberOfShards; i++) {
+            LevenbergMarquardtWorker worker = workers[i];
+            int from = numberOfSamples * i / numberOfShards;
+            int to = numberOfSamples * (i + 1) / numberOfShards;
+            tasks.add(pool.submit(() -> worker.accumulate(trainingSet, expectedOutput, sampleIndices, from, to)));
+        }
+
+        double errorSum = 0.0;
+        for (int i = 0; i < numberOfShards; i++) {
+            errorSum += tasks.get(i).join();
+            NormalEquations workerNormalEquations = workers[i].getNormalEquations();
+            normalEquations.add(workerNormalEquations);
+            workerNormalEquations.reset();
+        }
+        return errorSum;
     }
 
     @Override
@@ -71,7 +273,11 @@ public class LevenbergMarquardt extends Backpropagation {
 
     @Override
     protected void onEpochEnd(NeuralNetwork neuralNetwork, int epoch) {
+        if (!streaming) {
+            normalEquations.accumulate(jacobian, error);
+        }
         applyWeightDeltas(neuralNetwork);
+        normalEquations.reset();
     }
 
     private void updateJacobianMatrix(NeuralNetwork neuralNetwork, int sampleIndex, double meanError) {
@@ -82,32 +288,107 @@ public class LevenbergMarquardt extends Backpropagation {
         while (currentLayer != null) {
             for (Neuron neuron : currentLayer.getNeurons()) {
                 for (NeuralLink input : neuron.getInputs()) {
-                    double value = neuron.getSensibility() * input.getFrom().getOutputValue() / meanError;
-                    jacobian.set(sampleIndex, col++, value);
+                    jacobianRow[col++] = neuron.getSensibility() * input.getFrom().getOutputValue() / meanError;
                 }
             }
             currentLayer = currentLayer.getNextLayer();
         }
 
-        error.set(sampleIndex, 0, meanError);
+        if (streaming) {
+            normalEquations.accumulate(jacobianRow, meanError);
+        } else {
+            jacobian.copyRow(sampleIndex, jacobianRow);
+            error.set(sampleIndex, 0, meanError);
+        }
     }
 
+    /**
+     * Solves damped normal equations and applies the step to weights. A step which does not decrease error on
+     * training set is rolled back and retried with greater damping.
+     */
     private void applyWeightDeltas(NeuralNetwork neuralNetwork) {
-        Matrix m1 = jacobian.transpose()
-                .multiply(jacobian)
-                .add(new IdentityMatrix(jacobian.getSize().getY()).multiplyScalar(damping));
-        Matrix m2 = jacobian.transpose().multiply(error);
-        Matrix delta = m1.inverse().multiply(m2);
+        copyWeights(neuralNetwork, true);
+        double errorBefore = calculateError(neuralNetwork);
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            if (solve()) {
+                addDeltas(neuralNetwork);
+                if (calculateError(neuralNetwork) < errorBefore) {
+                    damping = Math.max(damping / DAMPING_FACTOR, MIN_DAMPING);
+                    return;
+                }
+                copyWeights(neuralNetwork, false);
+            }
+            if (damping >= MAX_DAMPING) {
+                return;
+            }
+            damping = Math.min(damping * DAMPING_FACTOR, MAX_DAMPING);
+        }
+    }
 
+    /**
+     * Solves (J<sup>T</sup>J + damping·I)·delta = J<sup>T</sup>e separately for every diagonal block of
+     * J<sup>T</sup>J.
+     *
+     * @return {@code false} if any damped block of normal matrix is not positive-definite
+     */
+    private boolean solve() {
+        System.arraycopy(normalEquations.getVector(), 0, delta, 0, numberOfColumns);
+        for (int b = 0; b < normalEquations.getNumberOfBlocks(); b++) {
+            double[] block = normalEquations.getBlock(b);
+            int size = normalEquations.getBlockSize(b);
+            for (int i = 0, row = 0; i < size; i++, row += size) {
+                System.arraycopy(block, row, dampedNormalMatrix, row, i);
+                dampedNormalMatrix[row + i] = block[row + i] + damping;
+            }
+            if (!CholeskyDecomposition.decompose(dampedNormalMatrix, size)) {
+                return false;
+            }
+            CholeskyDecomposition.solve(dampedNormalMatrix, size, delta, normalEquations.getBlockOffset(b));
+        }
+        return true;
+    }
+
+    private void addDeltas(NeuralNetwork neuralNetwork) {
         int i = 0;
         NeuralLayer currentLayer = neuralNetwork.getInputLayer().getNextLayer();
         while (currentLayer != null) {
             for (Neuron neuron : currentLayer.getNeurons()) {
                 for (NeuralLink input : neuron.getInputs()) {
-                    input.setWeight(input.getWeight() + delta.get(i++, 0));
+                    input.setWeight(input.getWeight() + delta[i++]);
                 }
             }
             currentLayer = currentLayer.getNextLayer();
         }
     }
+
+    /**
+     * Calculates sum of mean squared errors of all training samples.
+     */
+    private double calculateError(NeuralNetwork neuralNetwork) {
+        neuralNetwork.feedBatch(trainingSet, estimatedOutput);
+        double errorSum = 0.0;
+        for (int i = 0; i < trainingSet.length; i++) {
+            errorSum += calculateMeanError(estimatedOutput[i], expectedOutput[i]);
+        }
+        return errorSum;
+    }
+
+    private void copyWeights(NeuralNetwork neuralNetwork, boolean toSnapshot) {
+        NeuralLayer layer = neuralNetwork.getInputLayer().getNextLayer();
+        for (int i = 0; layer != null; i += 2, layer = layer.getNextLayer()) {
+            copyWeights(layer.getWeights(), i, toSnapshot);
+            copyWeights(layer.getBiases(), i + 1, toSnapshot);
+        }
+    }
+
+    private void copyWeights(double[] weights, int index, boolean toSnapshot) {
+        if (toSnapshot) {
+            if (weightsSnapshot[index] == null) {
+                weightsSnapshot[index] = new double[weights.length];
+            }
+            System.arraycopy(weights, 0, weightsSnapshot[index], 0, weights.length);
+        } else {
+            System.arraycopy(weightsSnapshot[index], 0, weights, 0, weights.length);
+        }
+    }
 }
@@ -0,0 +1,61 @@
+package org.briarheart.neuralnet.training;
+
+import lombok.Getter;
+import org.briarheart.neuralnet.NeuralNetwork;
+
+/**
+ * Accumulates normal equations of Levenberg-Marquardt algorithm for a range of training samples against its own
+ * buffers. Weights of the network are only read, so several workers can process different samples at once.
+ * <p>
+ * Columns of Jacobian matrix follow the order of weights used by {@link LevenbergMarquardt}: layer by layer, neuron by
+ * neuron, bias of a neuron first and then its input weights.
+ *
+ * @author Roman Chigvintsev
+ */
+class LevenbergMarquardtWorker {
+    private final BackpropagationWorker worker;
+    private final double[] jacobianRow;
+
+    @Getter
+    private final NormalEquations normalEquations;
+
+    LevenbergMarquardtWorker(NeuralNetwork neuralNetwork, int[] blockSizes) {
+        this.worker = new BackpropagationWorker(neuralNetwork);
+        this.normalEquations = new NormalEquations(blockSizes);
+        this.jacobianRow = new double[normalEquations.getOrder()];
+    }
+
+    /**
+     * Adds Jacobian rows of the given training samples to normal equations of this worker.
+     *
+     * @param trainingSet training set
+     * @param expectedOutput expected output
+     * @param sampleIndices indices of training samples
+     * @param from index of the first sample index to process, inclusive
+     * @param to index of the last sample index to process, exclusive
+     * @return sum of mean errors of processed samples
+     */
+    double accumulate(double[][] trainingSet, double[][] expectedOutput, int[] sampleIndices, int from, int to) {
+        double errorSum = 0.0;
+        for (int s = from; s < to; s++) {
+            int sampleIndex = sampleIndices[s];
+            double[] input = trainingSet[sampleIndex];
+            double meanError = worker.propagate(input, expectedOutput[sampleIndex]);
+
+            int col = 0;
+            for (int i = 0; i < worker.getNumberOfLayers(); i++) {
+                double[] layerInput = i == 0 ? input : worker.getOutputValues(i - 1);
+                double[] sensibilities = worker.getSensibilities(i);
+                for (double sensibility : sensibilities) {
+                    jacobianRow[col++] = sensibility / meanError;
+                    for (double value : layerInput) {
+                        jacobianRow[col++] = sensibility * value / meanError;
+                    }
+                }
+            }
+            normalEquations.accumulate(jacobianRow, meanError);
+            errorSum += meanError;
+        }
+        return errorSum;
+    }
+}
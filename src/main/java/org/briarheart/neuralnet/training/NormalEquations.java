@@ -0,0 +1,144 @@
+package org.briarheart.neuralnet.training;
+
+import lombok.Getter;
+import org.briarheart.neuralnet.util.math.Matrix;
+import org.briarheart.neuralnet.util.math.SymmetricMatrix;
+
+import java.util.Arrays;
+
+/**
+ * Normal equations J<sup>T</sup>J·x = J<sup>T</sup>e of a linear least squares problem accumulated row by row of
+ * Jacobian matrix J. Columns of J can be split into consecutive blocks, in which case only diagonal blocks of
+ * J<sup>T</sup>J are accumulated and products of columns of different blocks are ignored. Since J<sup>T</sup>J is
+ * symmetric, only lower triangle (including diagonal) of every block is accumulated.
+ *
+ * @author Roman Chigvintsev
+ */
+class NormalEquations {
+    @Getter
+    private final int order;
+    private final int[] blockSizes;
+    private final int[] blockOffsets;
+    /**
+     * Lower triangles of diagonal blocks of J<sup>T</sup>J in row-major order.
+     */
+    private final double[][] blocks;
+    /**
+     * J<sup>T</sup>e.
+     */
+    @Getter
+    private final double[] vector;
+
+    NormalEquations(int order) {
+        this(new int[] {order});
+    }
+
+    /**
+     * Creates new instance of this class.
+     *
+     * @param blockSizes sizes of consecutive diagonal blocks, their sum is order of the equations
+     */
+    NormalEquations(int[] blockSizes) {
+        this.blockSizes = blockSizes.clone();
+        this.blockOffsets = new int[blockSizes.length];
+        this.blocks = new double[blockSizes.length][];
+        int order = 0;
+        for (int b = 0; b < blockSizes.length; b++) {
+            blockOffsets[b] = order;
+            blocks[b] = new double[blockSizes[b] * blockSizes[b]];
+            order += blockSizes[b];
+        }
+        this.order = order;
+        this.vector = new double[order];
+    }
+
+    int getNumberOfBlocks() {
+        return blocks.length;
+    }
+
+    int getBlockSize(int block) {
+        return blockSizes[block];
+    }
+
+    int getBlockOffset(int block) {
+        return blockOffsets[block];
+    }
+
+    /**
+     * Returns lower triangle of the given diagonal block of J<sup>T</sup>J in row-major order.
+     */
+    double[] getBlock(int block) {
+        return blocks[block];
+    }
+
+    /**
+     * Adds outer product of the given Jacobian row with itself to J<sup>T</sup>J and the row multiplied by the given
+     * error to J<sup>T</sup>e.
+     */
+    void accumulate(double[] jacobianRow, double error) {
+        for (int b = 0; b < blocks.length; b++) {
+            double[] block = blocks[b];
+            int size = blockSizes[b];
+            int offset = blockOffsets[b];
+            for (int i = 0, row = 0; i < size; i++, row += size) {
+                double value = jacobianRow[offset + i];
+                vector[offset + i] += value * error;
+                for (int j = 0; j <= i; j++) {
+                    block[row + j] += value * jacobianRow[offset + j];
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds J<sup>T</sup>J and J<sup>T</sup>e calculated from the whole Jacobian matrix and vector of errors. Every
+     * diagonal block of J<sup>T</sup>J is calculated from view of the corresponding columns of Jacobian matrix, so
+     * products of columns of different blocks are not calculated at all.
+     *
+     * @param jacobian Jacobian matrix
+     * @param error vector of errors as a single column matrix
+     */
+    void accumulate(Matrix jacobian, Matrix error) {
+        int numberOfRows = jacobian.getSize().getX();
+        for (int b = 0; b < blocks.length; b++) {
+            double[] block = blocks[b];
+            int size = blockSizes[b];
+            int offset = blockOffsets[b];
+            Matrix columns = jacobian.submatrix(0, offset, numberOfRows, size);
+            SymmetricMatrix normalMatrix = columns.transposeMultiply();
+            Matrix blockVector = columns.transposeMultiply(error);
+            for (int i = 0, row = 0; i < size; i++, row += size) {
+                vector[offset + i] += blockVector.get(i, 0);
+                for (int j = 0; j <= i; j++) {
+                    block[row + j] += normalMatrix.get(i, j);
+                }
+            }
+        }
+    }
+
+    /**
+     * Adds the given normal equations with the same blocks to these ones.
+     */
+    void add(NormalEquations normalEquations) {
+        for (int i = 0; i < order; i++) {
+            vector[i] += normalEquations.vector[i];
+        }
+        for (int b = 0; b < blocks.length; b++) {
+            double[] block = blocks[b];
+            double[] otherBlock = normalEquations.blocks[b];
+            int size = blockSizes[b];
+            for (int i = 0, row = 0; i < size; i++, row += size) {
+                for (int j = row; j <= row + i; j++) {
+                    block[j] += otherBlock[j];
+                }
+            }
+        }
+    }
+
+    void reset() {
+        for (double[] block : blocks) {
+            Arrays.fill(block, 0.0);
+        }
+        Arrays.fill(vector, 0.0);
+    }
+}
@@ -1,38 +1,40 @@
 package org.briarheart.neuralnet.training;
 
-import lombok.Setter;
-import org.briarheart.neuralnet.NeuralNetwork;
+import com.google.common.base.Preconditions;
+import lombok.Getter;
+import org.briarheart.neuralnet.training.schedule.ExponentialDecay;
+import org.briarheart.neuralnet.training.schedule.LearningRateSchedule;
 
 /**
  * Stochastic online learning algorithm. Its two main features are random choice of samples for training and variation
  * of learning rate in runtime (online). This training method is used when noise is found in the objective function.
  * It helps to escape the local minimum (one of the best solutions) and to reach the global minimum (the best solution).
+ * <p>
+ * By default learning rate is reduced by the given percentage after every step until it reaches
+ * {@link #MIN_LEARNING_RATE}. Any other {@link LearningRateSchedule} can be used instead.
  *
  * @author Roman Chigvintsev
  */
 public class OnlineBackpropagation extends Backpropagation {
-    @Setter
+    public static final double MIN_LEARNING_RATE = 0.1;
+
+    @Getter
     private double learningRateReductionPercentage = 0.01;
 
     public OnlineBackpropagation(double learningRate) {
         super(learningRate, true);
+        setLearningRateReductionPercentage(learningRateReductionPercentage);
     }
 
-    @Override
-    protected double train(NeuralNetwork neuralNetwork,
-                           double[][] trainingSet,
-                           double[][] expectedOutput,
-                           int sampleIndex) {
-        double meanError = super.train(neuralNetwork, trainingSet, expectedOutput, sampleIndex);
-        setLearningRate(reduceLearningRate(getLearningRate(), learningRateReductionPercentage));
-        return meanError;
-    }
-
-    private double reduceLearningRate(double learningRate, double reductionPercentage) {
-        double newLearningRate = learningRate * ((100.0 - reductionPercentage) / 100.0);
-        if (newLearningRate < 0.1) {
-            newLearningRate = 1.0;
-        }
-        return newLearningRate;
+    /**
+     * Sets percentage by which learning rate is reduced after every step. This replaces learning rate schedule with
+     * exponential decay.
+     */
+    public void setLearningRateReductionPercentage(double learningRateReductionPercentage) {
+        Preconditions.checkArgument(learningRateReductionPercentage >= 0.0 && learningRateReductionPercentage < 100.0,
+                "Learning rate reduction percentage must be in range [0, 100)");
+        this.learningRateReductionPercentage = learningRateReductionPercentage;
+        double factor = (100.0 - learningRateReductionPercentage) / 100.0;
+        setLearningRateSchedule(new ExponentialDecay(factor, LearningRateSchedule.Interval.STEP, MIN_LEARNING_RATE));
     }
 }
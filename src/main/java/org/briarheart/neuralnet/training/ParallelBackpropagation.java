@@ -0,0 +1,110 @@
+package org.briarheart.neuralnet.training;
+
+import com.google.common.base.Preconditions;
+import lombok.Getter;
+import org.briarheart.neuralnet.NeuralNetwork;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Synchronous data-parallel backpropagation. Every mini-batch is split into contiguous shards which are processed by
+ * worker threads of a {@link ForkJoinPool}. Each worker runs forward and backward passes on its shard against its own
+ * activation and gradient buffers. Once all shards are processed, gradients of workers are summed in a fixed order
+ * and applied to the network, so for a fixed number of threads training results are deterministic.
+ * <p>
+ * Batch size must not be less than number of threads, otherwise some workers would never receive samples. It should
+ * be considerably greater than number of threads, so that workers have enough samples to outweigh the cost of
+ * synchronization.
+ *
+ * @author Roman Chigvintsev
+ */
+public class ParallelBackpropagation extends Backpropagation {
+    @Getter
+    private final int numberOfThreads;
+
+    private ForkJoinPool pool;
+    private BackpropagationWorker[] workers;
+
+    public ParallelBackpropagation(double learningRate, int numberOfThreads) {
+        super(learningRate);
+        Preconditions.checkArgument(numberOfThreads > 0, "Number of threads must be greater than zero");
+        this.numberOfThreads = numberOfThreads;
+    }
+
+    @Override
+    public void train(
+            NeuralNetwork neuralNetwork,
+            double[][] trainingSet,
+            double[][] expectedOutput,
+            double[][] validationSet,
+            double[][] validationOutput
+    ) {
+        Preconditions.checkNotNull(neuralNetwork, "Neural network must not be null");
+        Preconditions.checkState(getBatchSize() >= numberOfThreads,
+                "Batch size must not be less than number of threads");
+
+        pool = new ForkJoinPool(numberOfThreads);
+        workers = new BackpropagationWorker[numberOfThreads];
+        for (int i = 0; i < numberOfThreads; i++) {
+            workers[i] = new BackpropagationWorker(neuralNetwork);
+        }
+        try {
+            super.train(neuralNetwork, trainingSet, expectedOutput, validationSet, validationOutput);
+        } finally {
+            pool.shutdown();
+            pool = null;
+            workers = null;
+        }
+    }
+
+    @Override
+    protected double trainEpoch(
+            NeuralNetwork neuralNetwork,
+            double[][] trainingSet,
+            double[][] expectedOutput,
+            int[] sampleIndices
+    ) {
+        double errorSum = 0.0;
+        for (int from = 0; from < sampleIndices.length; from += getBatchSize()) {
+            int to = Math.min(from + getBatchSize(), sampleIndices.length);
+            errorSum += trainBatch(neuralNetwork, trainingSet, expectedOutput, sampleIndices, from, to);
+        }
+        return errorSum;
+    }
+
+    private double trainBatch(
+            NeuralNetwork neuralNetwork,
+            double[][] trainingSet,
+            double[][] expectedOutput,
+            int[] sampleIndices,
+            int from,
+            int to
+    ) {
+        int numberOfSamples = to - from;
+        int numberOfShards = Math.min(numberOfThreads, numberOfSamples);
+        List<ForkJoinTask<Double>> tasks = new ArrayList<>(numberOfShards);
+        for (int i = 0; i < numberOfShards; i++) {
+            BackpropagationWorker worker = workers[i];
+            int shardFrom = from + numberOfSamples * i / numberOfShards;
+            int shardTo = from + numberOfSamples * (i + 1) / numberOfShards;
+            tasks.add(pool.submit(() -> worker.train(trainingSet, expectedOutput, sampleIndices, shardFrom, shardTo)));
+        }
+
+        Gradient gradient = workers[0].getGradient();
+        double errorSum = 0.0;
+        for (int i = 0; i < numberOfShards; i++) {
+            errorSum += tasks.get(i).join();
+            if (i > 0) {
+                Gradient workerGradient = workers[i].getGradient();
+                gradient.add(workerGradient);
+                workerGradient.reset();
+            }
+        }
+        applyGradient(neuralNetwork, gradient);
+        completeStep();
+        return errorSum;
+    }
+}
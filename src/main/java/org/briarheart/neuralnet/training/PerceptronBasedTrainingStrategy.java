@@ -26,11 +26,28 @@ public abstract class PerceptronBasedTrainingStrategy implements SupervisedTrain
     private double error;
 
     @Override
-    public void train(NeuralNetwork neuralNetwork, double[][] trainingSet, double[][] expectedOutput) {
+    public void train(
+            NeuralNetwork neuralNetwork,
+            double[][] trainingSet,
+            double[][] expectedOutput,
+            double[][] validationSet,
+            double[][] validationOutput
+    ) {
         Preconditions.checkNotNull(neuralNetwork, "Neural network must not be null");
         Preconditions.checkNotNull(trainingSet, "Training set must not be null");
         Preconditions.checkNotNull(expectedOutput, "Expected output must not be null");
 
+        EarlyStopping earlyStopping = null;
+        if (validationSet != null) {
+            Preconditions.checkNotNull(validationOutput, "Validation output must not be null");
+            // Expected output of perceptron is a single row, while early stopping needs one row per sample
+            double[][] validationOutputRows = new double[validationOutput[0].length][];
+            for (int i = 0; i < validationOutputRows.length; i++) {
+                validationOutputRows[i] = new double[] {validationOutput[0][i]};
+            }
+            earlyStopping = new EarlyStopping(neuralNetwork, validationSet, validationOutputRows);
+        }
+
         Map<Integer, Double> msePerEpoch = new HashMap<>();
         int epoch = 0;
         double error = 0.0;
@@ -39,9 +56,15 @@ public abstract class PerceptronBasedTrainingStrategy implements SupervisedTrain
                 error = train(neuralNetwork, trainingSet[i], expectedOutput[0][i], epoch);
             }
             msePerEpoch.put(epoch, Math.pow(error, 2.0));
+            if (earlyStopping != null && earlyStopping.onEpochEnd(epoch)) {
+                break;
+            }
             epoch++;
         }
 
+        if (earlyStopping != null) {
+            earlyStopping.finish();
+        }
         neuralNetwork.setMsePerEpoch(msePerEpoch);
         neuralNetwork.setTrainingError(error);
     }
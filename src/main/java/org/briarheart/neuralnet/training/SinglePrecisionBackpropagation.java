@@ -0,0 +1,288 @@
+package org.briarheart.neuralnet.training;
+
+import com.google.common.base.Preconditions;
+import org.briarheart.neuralnet.NeuralNetwork;
+import org.briarheart.neuralnet.activation.ActivationFunction;
+import org.briarheart.neuralnet.layer.NeuralLayer;
+import org.briarheart.neuralnet.training.optimizer.Optimizer;
+import org.briarheart.neuralnet.training.optimizer.StochasticGradientDescent;
+import org.briarheart.neuralnet.util.Arrays;
+import org.briarheart.neuralnet.util.math.VectorKernels;
+
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * Backpropagation which trains single precision copy of weights of the network. Training and expected output sets
+ * are converted to single precision once before training, forward and backward passes keep weights, layer outputs,
+ * sensibilities and gradient in {@code float} arrays. Only activation functions and their derivatives are evaluated
+ * in double precision, their results are rounded back.
+ * <p>
+ * Weights of the network itself are overwritten by trained single precision weights after every epoch, so mean
+ * squared error reported per epoch, early stopping and feed-forward of the network see the same weights. Since every
+ * single precision value is exactly representable in double precision, compiling the trained network in
+ * {@link org.briarheart.neuralnet.Precision#SINGLE single precision} loses nothing.
+ * <p>
+ * Weights are adjusted by plain stochastic gradient descent, other optimizers are not supported.
+ *
+ * @author Roman Chigvintsev
+ */
+public class SinglePrecisionBackpropagation extends Backpropagation {
+    private NeuralLayer[] layers;
+    private int[] layerSizes;
+    private ActivationFunction[] activationFunctions;
+    private DoubleUnaryOperator[] derivatives;
+
+    private float[][] weights;
+    private float[][] biases;
+    private float[][] outputValues;
+    private float[][] sensibilities;
+    private float[][] weightGradients;
+    private float[][] biasGradients;
+    private int numberOfAccumulatedSamples;
+
+    private float[][] singlePrecisionTrainingSet;
+    private float[][] singlePrecisionExpectedOutput;
+
+    public SinglePrecisionBackpropagation(double learningRate) {
+        this(learningRate, false);
+    }
+
+    public SinglePrecisionBackpropagation(double learningRate, boolean pickSamplesRandomly) {
+        super(learningRate, pickSamplesRandomly);
+    }
+
+    @Override
+    public void setOptimizer(Optimizer optimizer) {
+        Preconditions.checkArgument(optimizer instanceof StochasticGradientDescent,
+                "Single precision backpropagation only supports stochastic gradient descent");
+        super.setOptimizer(optimizer);
+    }
+
+    @Override
+    public void train(
+            NeuralNetwork neuralNetwork,
+            double[][] trainingSet,
+            double[][] expectedOutput,
+            double[][] validationSet,
+            double[][] validationOutput
+    ) {
+        Preconditions.checkNotNull(neuralNetwork, "Neural network must not be null");
+        Preconditions.checkNotNull(trainingSet, "Training set must not be null");
+        Preconditions.checkNotNull(expectedOutput, "Expected output must not be null");
+
+        initialize(neuralNetwork);
+        singlePrecisionTrainingSet = Arrays.toFloat(trainingSet);
+        singlePrecisionExpectedOutput = Arrays.toFloat(expectedOutput);
+        try {
+            super.train(neuralNetwork, trainingSet, expectedOutput, validationSet, validationOutput);
+        } finally {
+            release();
+        }
+    }
+
+    @Override
+    protected double trainEpoch(
+            NeuralNetwork neuralNetwork,
+            double[][] trainingSet,
+            double[][] expectedOutput,
+            int[] sampleIndices
+    ) {
+        double errorSum = 0.0;
+        for (int sampleIndex : sampleIndices) {
+            float[] input = singlePrecisionTrainingSet[sampleIndex];
+            errorSum += propagate(input, singlePrecisionExpectedOutput[sampleIndex]);
+            if (getBatchSize() == 1) {
+                adjustWeights(input);
+                completeStep();
+            } else {
+                accumulateGradient(input);
+                if (numberOfAccumulatedSamples == getBatchSize()) {
+                    applyGradient();
+                    completeStep();
+                }
+            }
+        }
+        if (numberOfAccumulatedSamples > 0) {
+            applyGradient();
+            completeStep();
+        }
+        return errorSum;
+    }
+
+    @Override
+    protected void onEpochEnd(NeuralNetwork neuralNetwork, int epoch) {
+        for (int i = 0; i < layers.length; i++) {
+            copy(weights[i], layers[i].getWeights());
+            copy(biases[i], layers[i].getBiases());
+        }
+        super.onEpochEnd(neuralNetwork, epoch);
+    }
+
+    private void initialize(NeuralNetwork neuralNetwork) {
+        NeuralLayer inputLayer = neuralNetwork.getInputLayer();
+        int numberOfLayers = 0;
+        for (NeuralLayer layer = inputLayer.getNextLayer(); layer != null; layer = layer.getNextLayer()) {
+            numberOfLayers++;
+        }
+
+        layers = new NeuralLayer[numberOfLayers];
+        layerSizes = new int[numberOfLayers + 1];
+        activationFunctions = new ActivationFunction[numberOfLayers];
+        derivatives = new DoubleUnaryOperator[numberOfLayers];
+        weights = new float[numberOfLayers][];
+        biases = new float[numberOfLayers][];
+        outputValues = new float[numberOfLayers][];
+        sensibilities = new float[numberOfLayers][];
+        weightGradients = new float[numberOfLayers][];
+        biasGradients = new float[numberOfLayers][];
+        numberOfAccumulatedSamples = 0;
+
+        layerSizes[0] = inputLayer.getSize();
+        NeuralLayer layer = inputLayer.getNextLayer();
+        for (int i = 0; i < numberOfLayers; i++, layer = layer.getNextLayer()) {
+            layers[i] = layer;
+            layerSizes[i + 1] = layer.getSize();
+            activationFunctions[i] = layer.getActivationFunction();
+            derivatives[i] = layer.getActivationFunction().getDerivative();
+            weights[i] = Arrays.toFloat(layer.getWeights());
+            biases[i] = Arrays.toFloat(layer.getBiases());
+            outputValues[i] = new float[layer.getSize()];
+            sensibilities[i] = new float[layer.getSize()];
+            if (getBatchSize() > 1) {
+                weightGradients[i] = new float[weights[i].length];
+                biasGradients[i] = new float[biases[i].length];
+            }
+        }
+    }
+
+    private void release() {
+        layers = null;
+        activationFunctions = null;
+        derivatives = null;
+        weights = null;
+        biases = null;
+        outputValues = null;
+        sensibilities = null;
+        weightGradients = null;
+        biasGradients = null;
+        singlePrecisionTrainingSet = null;
+        singlePrecisionExpectedOutput = null;
+    }
+
+    /**
+     * Runs forward and backward passes for the given training sample leaving output values and sensibilities of
+     * every layer in buffers.
+     *
+     * @return mean error of the sample
+     */
+    private double propagate(float[] input, float[] expectedOutput) {
+        float[] layerInput = input;
+        for (int i = 0; i < layers.length; i++) {
+            float[] layerWeights = weights[i];
+            float[] layerBiases = biases[i];
+            float[] layerOutput = outputValues[i];
+            ActivationFunction activationFunction = activationFunctions[i];
+            int numberOfLayerInputs = layerSizes[i];
+            for (int j = 0, row = 0; j < layerOutput.length; j++, row += numberOfLayerInputs) {
+                float weightedSum = layerBiases[j]
+                        + VectorKernels.dot(layerWeights, row, layerInput, 0, numberOfLayerInputs);
+                layerOutput[j] = (float) activationFunction.apply(weightedSum);
+            }
+            layerInput = layerOutput;
+        }
+
+        int outputLayer = layers.length - 1;
+        float[] estimatedOutput = outputValues[outputLayer];
+        float[] outputSensibilities = sensibilities[outputLayer];
+        DoubleUnaryOperator outputDerivative = derivatives[outputLayer];
+        double errorSum = 0.0;
+        for (int j = 0; j < estimatedOutput.length; j++) {
+            float error = expectedOutput[j] - estimatedOutput[j];
+            errorSum += error * error;
+            outputSensibilities[j] = (float) (outputDerivative.applyAsDouble(estimatedOutput[j]) * error);
+        }
+
+        for (int i = outputLayer - 1; i >= 0; i--) {
+            float[] layerOutput = outputValues[i];
+            float[] layerSensibilities = sensibilities[i];
+            float[] nextLayerWeights = weights[i + 1];
+            float[] nextLayerSensibilities = sensibilities[i + 1];
+            DoubleUnaryOperator derivative = derivatives[i];
+            int layerSize = layerOutput.length;
+            for (int j = 0; j < layerSize; j++) {
+                float sensibility = 0.0f;
+                for (int m = 0, index = j; m < nextLayerSensibilities.length; m++, index += layerSize) {
+                    sensibility += nextLayerWeights[index] * nextLayerSensibilities[m];
+                }
+                layerSensibilities[j] = (float) (sensibility * derivative.applyAsDouble(layerOutput[j]));
+            }
+        }
+
+        return errorSum / estimatedOutput.length;
+    }
+
+    /**
+     * Adjusts weights by gradient of the last propagated sample.
+     */
+    private void adjustWeights(float[] input) {
+        float learningRate = (float) getLearningRate();
+        float[] layerInput = input;
+        for (int i = 0; i < layers.length; i++) {
+            float[] layerWeights = weights[i];
+            float[] layerBiases = biases[i];
+            float[] layerSensibilities = sensibilities[i];
+            int numberOfLayerInputs = layerSizes[i];
+            for (int j = 0, row = 0; j < layerSensibilities.length; j++, row += numberOfLayerInputs) {
+                float step = learningRate * layerSensibilities[j];
+                layerBiases[j] += step;
+                VectorKernels.axpy(step, layerInput, 0, layerWeights, row, numberOfLayerInputs);
+            }
+            layerInput = outputValues[i];
+        }
+    }
+
+    /**
+     * Adds gradient of the last propagated sample to accumulated gradient.
+     */
+    private void accumulateGradient(float[] input) {
+        float[] layerInput = input;
+        for (int i = 0; i < layers.length; i++) {
+            float[] weightGradient = weightGradients[i];
+            float[] biasGradient = biasGradients[i];
+            float[] layerSensibilities = sensibilities[i];
+            int numberOfLayerInputs = layerSizes[i];
+            for (int j = 0, row = 0; j < layerSensibilities.length; j++, row += numberOfLayerInputs) {
+                biasGradient[j] += layerSensibilities[j];
+                VectorKernels.axpy(layerSensibilities[j], layerInput, 0, weightGradient, row, numberOfLayerInputs);
+            }
+            layerInput = outputValues[i];
+        }
+        numberOfAccumulatedSamples++;
+    }
+
+    /**
+     * Adjusts weights by the mean of accumulated gradient and resets the gradient.
+     */
+    private void applyGradient() {
+        float step = (float) (getLearningRate() / numberOfAccumulatedSamples);
+        for (int i = 0; i < layers.length; i++) {
+            VectorKernels.axpy(step, weightGradients[i], 0, weights[i], 0, weights[i].length);
+            VectorKernels.axpy(step, biasGradients[i], 0, biases[i], 0, biases[i].length);
+            clear(weightGradients[i]);
+            clear(biasGradients[i]);
+        }
+        numberOfAccumulatedSamples = 0;
+    }
+
+    private static void clear(float[] values) {
+        for (int i = 0; i < values.length; i++) {
+            values[i] = 0.0f;
+        }
+    }
+
+    private static void copy(float[] source, double[] target) {
+        for (int i = 0; i < source.length; i++) {
+            target[i] = source[i];
+        }
+    }
+}
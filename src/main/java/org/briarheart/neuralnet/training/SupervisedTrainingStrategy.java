@@ -6,5 +6,21 @@ import org.briarheart.neuralnet.NeuralNetwork;
  * @author Roman Chigvintsev
  */
 public interface SupervisedTrainingStrategy extends TrainingStrategy {
-    void train(NeuralNetwork neuralNetwork, double[][] trainingSet, double[][] expectedOutput);
+    default void train(NeuralNetwork neuralNetwork, double[][] trainingSet, double[][] expectedOutput) {
+        train(neuralNetwork, trainingSet, expectedOutput, null, null);
+    }
+
+    /**
+     * Trains the given network with early stopping on the given validation set.
+     *
+     * @param neuralNetwork neural network to be trained
+     * @param trainingSet training set
+     * @param expectedOutput expected output of training set
+     * @param validationSet validation set or {@code null} to train without early stopping
+     * @param validationOutput expected output of validation set in the same layout as expected output of training set
+     *                         or {@code null} to train without early stopping
+     * @see NeuralNetwork#train(double[][], double[][], double[][], double[][])
+     */
+    void train(NeuralNetwork neuralNetwork, double[][] trainingSet, double[][] expectedOutput,
+               double[][] validationSet, double[][] validationOutput);
 }
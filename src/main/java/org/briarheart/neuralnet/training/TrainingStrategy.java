@@ -1,7 +1,9 @@
 package org.briarheart.neuralnet.training;
 
+import com.google.common.base.Preconditions;
 import org.briarheart.neuralnet.NeuralNetwork;
 import org.briarheart.neuralnet.activation.ActivationFunction;
+import org.briarheart.neuralnet.layer.NeuralLayer;
 import org.briarheart.neuralnet.neuron.Neuron;
 
 /**
@@ -16,7 +18,75 @@ public interface TrainingStrategy {
 
     void adjustWeights(Neuron neuron, ActivationFunction activationFunction);
 
+    /**
+     * Calculates output of the given neural network for the given input. Intermediate layer outputs are kept in
+     * per-call buffers and neither weights nor state of neurons are changed, so this method can be called by several
+     * threads at once as long as the network is not being trained at the same time.
+     *
+     * @param neuralNetwork neural network (must not be {@code null})
+     * @param input input values (must not be {@code null})
+     * @return output of the network
+     */
     default double[] feed(NeuralNetwork neuralNetwork, double[] input) {
-        return neuralNetwork.getInputLayer().feed(input);
+        Preconditions.checkNotNull(neuralNetwork, "Neural network must not be null");
+        Preconditions.checkNotNull(input, "Input values must not be null");
+
+        NeuralLayer inputLayer = neuralNetwork.getInputLayer();
+        Preconditions.checkArgument(input.length == inputLayer.getSize(),
+                "Number of input values must match number of neurons in input layer");
+
+        double[] output = input;
+        for (NeuralLayer layer = inputLayer.getNextLayer(); layer != null; layer = layer.getNextLayer()) {
+            double[] layerOutput = new double[layer.getSize()];
+            layer.calculateOutputValues(output, null, layerOutput);
+            output = layerOutput;
+        }
+        return output;
+    }
+
+    /**
+     * Calculates output of the given neural network for a batch of inputs and stores it in the given output matrix.
+     * Samples are pushed through the network in blocks, so every layer is evaluated as a matrix-matrix product and its
+     * weights are reused across all samples of a block. Like {@link #feed(NeuralNetwork, double[])} this method does
+     * not change state of the network.
+     *
+     * @param neuralNetwork neural network (must not be {@code null})
+     * @param input input values, one row per sample (must not be {@code null})
+     * @param output matrix to store output values in, one row per sample (must not be {@code null} and must have the
+     *               same number of rows as input)
+     */
+    default void feedBatch(NeuralNetwork neuralNetwork, double[][] input, double[][] output) {
+        NeuralLayer inputLayer = neuralNetwork.getInputLayer();
+        int numberOfInputs = inputLayer.getSize();
+        int numberOfOutputs = neuralNetwork.getOutputLayer().getSize();
+
+        int maxLayerSize = numberOfInputs;
+        for (NeuralLayer layer = inputLayer.getNextLayer(); layer != null; layer = layer.getNextLayer()) {
+            maxLayerSize = Math.max(maxLayerSize, layer.getSize());
+        }
+
+        // Block of 64 samples keeps layer inputs of typical networks in L2 cache
+        int blockSize = Math.min(64, input.length);
+        double[] layerInput = new double[blockSize * maxLayerSize];
+        double[] layerOutput = new double[blockSize * maxLayerSize];
+        for (int from = 0; from < input.length; from += blockSize) {
+            int batchSize = Math.min(blockSize, input.length - from);
+            for (int i = 0; i < batchSize; i++) {
+                System.arraycopy(input[from + i], 0, layerInput, i * numberOfInputs, numberOfInputs);
+            }
+
+            double[] values = layerInput;
+            double[] buffer = layerOutput;
+            for (NeuralLayer layer = inputLayer.getNextLayer(); layer != null; layer = layer.getNextLayer()) {
+                layer.calculateOutputValues(values, buffer, batchSize);
+                double[] tmp = values;
+                values = buffer;
+                buffer = tmp;
+            }
+
+            for (int i = 0; i < batchSize; i++) {
+                System.arraycopy(values, i * numberOfOutputs, output[from + i], 0, numberOfOutputs);
+            }
+        }
     }
 }
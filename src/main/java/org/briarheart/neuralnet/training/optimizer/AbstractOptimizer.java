@@ -0,0 +1,19 @@
+package org.briarheart.neuralnet.training.optimizer;
+
+/**
+ * Base class for optimizers.
+ *
+ * @author Roman Chigvintsev
+ */
+public abstract class AbstractOptimizer implements Optimizer {
+    /**
+     * Creates zero-filled state arrays aligned with parameter arrays of the given sizes.
+     */
+    protected static double[][] createState(int[] sizes) {
+        double[][] state = new double[sizes.length][];
+        for (int i = 0; i < sizes.length; i++) {
+            state[i] = new double[sizes[i]];
+        }
+        return state;
+    }
+}
@@ -0,0 +1,74 @@
+package org.briarheart.neuralnet.training.optimizer;
+
+import com.google.common.base.Preconditions;
+import lombok.Getter;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Adam keeps exponentially decaying averages of both gradients and squared gradients of every parameter and steps in
+ * the direction of the former scaled by root of the latter. Both averages are corrected for their bias towards zero at
+ * the beginning of training.
+ * <p>
+ * Steps are counted atomically, so asynchronous training which starts steps from several threads at once does not lose
+ * any of them and bias correction follows the true number of steps. Averages themselves are still updated without
+ * locks just like weights, and a thread may apply bias correction of a step started by another thread at the same
+ * time, which differs from its own one only slightly.
+ *
+ * @author Roman Chigvintsev
+ */
+public class Adam extends AbstractOptimizer {
+    @Getter
+    private final double beta1;
+    @Getter
+    private final double beta2;
+    @Getter
+    private final double epsilon;
+
+    private double[][] means;
+    private double[][] variances;
+    private final AtomicInteger step = new AtomicInteger();
+    private double meanCorrection;
+    private double varianceCorrection;
+
+    public Adam() {
+        this(0.9, 0.999, 1e-8);
+    }
+
+    public Adam(double beta1, double beta2, double epsilon) {
+        Preconditions.checkArgument(beta1 >= 0.0 && beta1 < 1.0, "Beta 1 must be in range [0, 1)");
+        Preconditions.checkArgument(beta2 >= 0.0 && beta2 < 1.0, "Beta 2 must be in range [0, 1)");
+        Preconditions.checkArgument(epsilon > 0.0, "Epsilon must be greater than zero");
+        this.beta1 = beta1;
+        this.beta2 = beta2;
+        this.epsilon = epsilon;
+    }
+
+    @Override
+    public void initialize(int[] sizes) {
+        means = createState(sizes);
+        variances = createState(sizes);
+        step.set(0);
+    }
+
+    @Override
+    public void nextStep() {
+        int currentStep = step.incrementAndGet();
+        meanCorrection = 1.0 - Math.pow(beta1, currentStep);
+        varianceCorrection = 1.0 - Math.pow(beta2, currentStep);
+    }
+
+    @Override
+    public void update(int index, double[] parameters, double[] gradient, double learningRate) {
+        double[] mean = means[index];
+        double[] variance = variances[index];
+        double stepSize = learningRate / meanCorrection;
+        double varianceScale = 1.0 / varianceCorrection;
+        for (int i = 0; i < parameters.length; i++) {
+            double g = gradient[i];
+            mean[i] = beta1 * mean[i] + (1.0 - beta1) * g;
+            variance[i] = beta2 * variance[i] + (1.0 - beta2) * g * g;
+            parameters[i] += stepSize * mean[i] / (Math.sqrt(variance[i] * varianceScale) + epsilon);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package org.briarheart.neuralnet.training.optimizer;
+
+import com.google.common.base.Preconditions;
+import lombok.Getter;
+
+/**
+ * Gradient descent with momentum. Every parameter moves with velocity which is exponentially decaying sum of its past
+ * steps, so oscillations across narrow valleys of the error surface are damped while consistent directions are
+ * accelerated. Nesterov variant evaluates the step at the point where momentum is about to carry parameters.
+ *
+ * @author Roman Chigvintsev
+ */
+public class Momentum extends AbstractOptimizer {
+    @Getter
+    private final double momentum;
+    @Getter
+    private final boolean nesterov;
+
+    private double[][] velocities;
+
+    public Momentum() {
+        this(0.9);
+    }
+
+    public Momentum(double momentum) {
+        this(momentum, false);
+    }
+
+    public Momentum(double momentum, boolean nesterov) {
+        Preconditions.checkArgument(momentum >= 0.0 && momentum < 1.0, "Momentum must be in range [0, 1)");
+        this.momentum = momentum;
+        this.nesterov = nesterov;
+    }
+
+    @Override
+    public void initialize(int[] sizes) {
+        velocities = createState(sizes);
+    }
+
+    @Override
+    public void update(int index, double[] parameters, double[] gradient, double learningRate) {
+        double[] velocity = velocities[index];
+        for (int i = 0; i < parameters.length; i++) {
+            double step = learningRate * gradient[i];
+            velocity[i] = momentum * velocity[i] + step;
+            parameters[i] += nesterov ? momentum * velocity[i] + step : velocity[i];
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package org.briarheart.neuralnet.training.optimizer;
+
+/**
+ * Rule by which gradient based training strategies adjust parameters (weights and biases) of a neural network.
+ * Parameters of every layer are kept in flat arrays, so an optimizer is given parameter arrays one by one together with
+ * gradient arrays of the same length. Any per-parameter state of an optimizer is kept in flat arrays aligned with
+ * parameter arrays as well.
+ * <p>
+ * Gradients passed to an optimizer point in the direction in which error decreases, i.e. they are gradients of the
+ * error function with opposite sign, and are averaged over all samples of a batch. So an optimizer adds a step in the
+ * direction of gradient to parameters.
+ *
+ * @author Roman Chigvintsev
+ */
+public interface Optimizer {
+    /**
+     * Prepares this optimizer for training. Any state left from previous training is discarded.
+     *
+     * @param sizes sizes of parameter arrays which will be passed to
+     *              {@link #update(int, double[], double[], double)}
+     */
+    void initialize(int[] sizes);
+
+    /**
+     * Starts next optimization step. This method is called once before parameter arrays of a step are updated.
+     */
+    default void nextStep() {
+        // Override in implementations
+    }
+
+    /**
+     * Adjusts the given parameters.
+     *
+     * @param index index of parameter array
+     * @param parameters parameters to adjust
+     * @param gradient gradient of parameters
+     * @param learningRate current learning rate
+     */
+    void update(int index, double[] parameters, double[] gradient, double learningRate);
+}
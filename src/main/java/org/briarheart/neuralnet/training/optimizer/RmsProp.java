@@ -0,0 +1,45 @@
+package org.briarheart.neuralnet.training.optimizer;
+
+import com.google.common.base.Preconditions;
+import lombok.Getter;
+
+/**
+ * RMSProp divides step of every parameter by root of exponentially decaying average of its squared gradients, so
+ * parameters with large gradients take smaller steps and vice versa.
+ *
+ * @author Roman Chigvintsev
+ */
+public class RmsProp extends AbstractOptimizer {
+    @Getter
+    private final double decayRate;
+    @Getter
+    private final double epsilon;
+
+    private double[][] meanSquares;
+
+    public RmsProp() {
+        this(0.9, 1e-8);
+    }
+
+    public RmsProp(double decayRate, double epsilon) {
+        Preconditions.checkArgument(decayRate >= 0.0 && decayRate < 1.0, "Decay rate must be in range [0, 1)");
+        Preconditions.checkArgument(epsilon > 0.0, "Epsilon must be greater than zero");
+        this.decayRate = decayRate;
+        this.epsilon = epsilon;
+    }
+
+    @Override
+    public void initialize(int[] sizes) {
+        meanSquares = createState(sizes);
+    }
+
+    @Override
+    public void update(int index, double[] parameters, double[] gradient, double learningRate) {
+        double[] meanSquare = meanSquares[index];
+        for (int i = 0; i < parameters.length; i++) {
+            double g = gradient[i];
+            meanSquare[i] = decayRate * meanSquare[i] + (1.0 - decayRate) * g * g;
+            parameters[i] += learningRate * g / (Math.sqrt(meanSquare[i]) + epsilon);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package org.briarheart.neuralnet.training.optimizer;
+
+/**
+ * Plain gradient descent which adds gradient multiplied by learning rate to parameters. This optimizer has no state.
+ *
+ * @author Roman Chigvintsev
+ */
+public class StochasticGradientDescent extends AbstractOptimizer {
+    @Override
+    public void initialize(int[] sizes) {
+        // Nothing to initialize
+    }
+
+    @Override
+    public void update(int index, double[] parameters, double[] gradient, double learningRate) {
+        for (int i = 0; i < parameters.length; i++) {
+            parameters[i] += learningRate * gradient[i];
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package org.briarheart.neuralnet.training.schedule;
+
+import com.google.common.base.Preconditions;
+import lombok.Getter;
+
+/**
+ * Base class for schedules which calculate learning rate as a function of time measured either in epochs or in steps.
+ *
+ * @author Roman Chigvintsev
+ */
+public abstract class AbstractLearningRateSchedule implements LearningRateSchedule {
+    @Getter
+    private final Interval interval;
+
+    protected AbstractLearningRateSchedule(Interval interval) {
+        this.interval = Preconditions.checkNotNull(interval, "Interval must not be null");
+    }
+
+    @Override
+    public double getLearningRate(double initialLearningRate, int epoch, long step) {
+        return getLearningRate(initialLearningRate, interval == Interval.EPOCH ? epoch : step);
+    }
+
+    /**
+     * Calculates learning rate.
+     *
+     * @param initialLearningRate learning rate training was started with
+     * @param time number of completed epochs or steps depending on interval of this schedule
+     * @return learning rate
+     */
+    protected abstract double getLearningRate(double initialLearningRate, long time);
+}
@@ -0,0 +1,13 @@
+package org.briarheart.neuralnet.training.schedule;
+
+/**
+ * Keeps learning rate unchanged during training.
+ *
+ * @author Roman Chigvintsev
+ */
+public class ConstantLearningRate implements LearningRateSchedule {
+    @Override
+    public double getLearningRate(double initialLearningRate, int epoch, long step) {
+        return initialLearningRate;
+    }
+}
@@ -0,0 +1,35 @@
+package org.briarheart.neuralnet.training.schedule;
+
+import com.google.common.base.Preconditions;
+import lombok.Getter;
+
+/**
+ * Decreases learning rate from the initial one to the minimum along half a period of cosine. Once the period is over,
+ * learning rate stays at the minimum.
+ *
+ * @author Roman Chigvintsev
+ */
+public class CosineAnnealing extends AbstractLearningRateSchedule {
+    @Getter
+    private final long period;
+    @Getter
+    private final double minLearningRate;
+
+    public CosineAnnealing(long period) {
+        this(period, 0.0, Interval.EPOCH);
+    }
+
+    public CosineAnnealing(long period, double minLearningRate, Interval interval) {
+        super(interval);
+        Preconditions.checkArgument(period > 0, "Period must be greater than zero");
+        Preconditions.checkArgument(minLearningRate >= 0.0, "Minimum learning rate must not be negative");
+        this.period = period;
+        this.minLearningRate = minLearningRate;
+    }
+
+    @Override
+    protected double getLearningRate(double initialLearningRate, long time) {
+        double progress = (double) Math.min(time, period) / period;
+        return minLearningRate + 0.5 * (initialLearningRate - minLearningRate) * (1.0 + Math.cos(Math.PI * progress));
+    }
+}
@@ -0,0 +1,35 @@
+package org.briarheart.neuralnet.training.schedule;
+
+import com.google.common.base.Preconditions;
+import lombok.Getter;
+
+/**
+ * Multiplies learning rate by a constant factor every epoch or step until it reaches the minimum. Initial learning rate
+ * which is already below the minimum is kept as it is.
+ *
+ * @author Roman Chigvintsev
+ */
+public class ExponentialDecay extends AbstractLearningRateSchedule {
+    @Getter
+    private final double factor;
+    @Getter
+    private final double minLearningRate;
+
+    public ExponentialDecay(double factor) {
+        this(factor, Interval.EPOCH, 0.0);
+    }
+
+    public ExponentialDecay(double factor, Interval interval, double minLearningRate) {
+        super(interval);
+        Preconditions.checkArgument(factor > 0.0 && factor <= 1.0, "Factor must be in range (0, 1]");
+        Preconditions.checkArgument(minLearningRate >= 0.0, "Minimum learning rate must not be negative");
+        this.factor = factor;
+        this.minLearningRate = minLearningRate;
+    }
+
+    @Override
+    protected double getLearningRate(double initialLearningRate, long time) {
+        double learningRate = initialLearningRate * Math.pow(factor, time);
+        return Math.max(learningRate, Math.min(minLearningRate, initialLearningRate));
+    }
+}
@@ -0,0 +1,46 @@
+package org.briarheart.neuralnet.training.schedule;
+
+/**
+ * Schedule by which learning rate of a training strategy changes during training. Learning rate is evaluated before
+ * every epoch and after every step (adjustment of weights) as a function of initial learning rate, number of completed
+ * epochs and number of completed steps. Schedules which depend on progress of training receive mean squared error of
+ * every epoch.
+ *
+ * @author Roman Chigvintsev
+ */
+public interface LearningRateSchedule {
+    /**
+     * Unit in which time of schedule is measured.
+     */
+    enum Interval {
+        EPOCH,
+        STEP
+    }
+
+    /**
+     * Prepares this schedule for training. Any state left from previous training is discarded.
+     */
+    default void initialize() {
+        // Override in implementations
+    }
+
+    /**
+     * Calculates learning rate.
+     *
+     * @param initialLearningRate learning rate training was started with
+     * @param epoch number of completed epochs
+     * @param step number of completed steps
+     * @return learning rate
+     */
+    double getLearningRate(double initialLearningRate, int epoch, long step);
+
+    /**
+     * Notifies this schedule about end of epoch.
+     *
+     * @param epoch index of the epoch starting from zero
+     * @param mse mean squared error of the epoch
+     */
+    default void onEpochEnd(int epoch, double mse) {
+        // Override in implementations
+    }
+}
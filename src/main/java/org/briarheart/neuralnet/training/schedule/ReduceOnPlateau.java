@@ -0,0 +1,65 @@
+package org.briarheart.neuralnet.training.schedule;
+
+import com.google.common.base.Preconditions;
+import lombok.Getter;
+
+/**
+ * Multiplies learning rate by a constant factor when mean squared error of epochs has not improved by at least the
+ * given delta for the given number of epochs in a row. Learning rate never drops below the minimum, unless initial
+ * learning rate is already below it.
+ *
+ * @author Roman Chigvintsev
+ */
+public class ReduceOnPlateau implements LearningRateSchedule {
+    @Getter
+    private final double factor;
+    @Getter
+    private final int patience;
+    @Getter
+    private final double minDelta;
+    @Getter
+    private final double minLearningRate;
+
+    private double scale;
+    private double bestMse;
+    private int epochsWithoutImprovement;
+
+    public ReduceOnPlateau(double factor, int patience) {
+        this(factor, patience, 0.0, 0.0);
+    }
+
+    public ReduceOnPlateau(double factor, int patience, double minDelta, double minLearningRate) {
+        Preconditions.checkArgument(factor > 0.0 && factor < 1.0, "Factor must be in range (0, 1)");
+        Preconditions.checkArgument(patience > 0, "Patience must be greater than zero");
+        Preconditions.checkArgument(minDelta >= 0.0, "Minimum delta must not be negative");
+        Preconditions.checkArgument(minLearningRate >= 0.0, "Minimum learning rate must not be negative");
+        this.factor = factor;
+        this.patience = patience;
+        this.minDelta = minDelta;
+        this.minLearningRate = minLearningRate;
+        initialize();
+    }
+
+    @Override
+    public void initialize() {
+        scale = 1.0;
+        bestMse = Double.POSITIVE_INFINITY;
+        epochsWithoutImprovement = 0;
+    }
+
+    @Override
+    public double getLearningRate(double initialLearningRate, int epoch, long step) {
+        return Math.max(initialLearningRate * scale, Math.min(minLearningRate, initialLearningRate));
+    }
+
+    @Override
+    public void onEpochEnd(int epoch, double mse) {
+        if (mse < bestMse - minDelta) {
+            bestMse = mse;
+            epochsWithoutImprovement = 0;
+        } else if (++epochsWithoutImprovement >= patience) {
+            scale *= factor;
+            epochsWithoutImprovement = 0;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package org.briarheart.neuralnet.training.schedule;
+
+import com.google.common.base.Preconditions;
+import lombok.Getter;
+
+/**
+ * Multiplies learning rate by a constant factor every fixed number of epochs or steps.
+ *
+ * @author Roman Chigvintsev
+ */
+public class StepDecay extends AbstractLearningRateSchedule {
+    @Getter
+    private final long stepSize;
+    @Getter
+    private final double factor;
+
+    public StepDecay(long stepSize, double factor) {
+        this(stepSize, factor, Interval.EPOCH);
+    }
+
+    public StepDecay(long stepSize, double factor, Interval interval) {
+        super(interval);
+        Preconditions.checkArgument(stepSize > 0, "Step size must be greater than zero");
+        Preconditions.checkArgument(factor > 0.0 && factor <= 1.0, "Factor must be in range (0, 1]");
+        this.stepSize = stepSize;
+        this.factor = factor;
+    }
+
+    @Override
+    protected double getLearningRate(double initialLearningRate, long time) {
+        return initialLearningRate * Math.pow(factor, time / stepSize);
+    }
+}
@@ -0,0 +1,48 @@
+package org.briarheart.neuralnet.training.schedule;
+
+import com.google.common.base.Preconditions;
+import lombok.Getter;
+
+/**
+ * Linearly increases learning rate up to the one given by another schedule during the first epochs or steps of
+ * training. Large updates of randomly initialized weights are avoided this way. The other schedule sees the same
+ * number of completed epochs and steps as this one, i.e. time is not shifted by length of warmup.
+ *
+ * @author Roman Chigvintsev
+ */
+public class Warmup implements LearningRateSchedule {
+    @Getter
+    private final long length;
+    @Getter
+    private final Interval interval;
+    @Getter
+    private final LearningRateSchedule schedule;
+
+    public Warmup(long length, Interval interval) {
+        this(length, interval, new ConstantLearningRate());
+    }
+
+    public Warmup(long length, Interval interval, LearningRateSchedule schedule) {
+        Preconditions.checkArgument(length > 0, "Length of warmup must be greater than zero");
+        this.length = length;
+        this.interval = Preconditions.checkNotNull(interval, "Interval must not be null");
+        this.schedule = Preconditions.checkNotNull(schedule, "Schedule must not be null");
+    }
+
+    @Override
+    public void initialize() {
+        schedule.initialize();
+    }
+
+    @Override
+    public double getLearningRate(double initialLearningRate, int epoch, long step) {
+        double learningRate = schedule.getLearningRate(initialLearningRate, epoch, step);
+        long time = interval == Interval.EPOCH ? epoch : step;
+        return time < length ? learningRate * (time + 1) / length : learningRate;
+    }
+
+    @Override
+    public void onEpochEnd(int epoch, double mse) {
+        schedule.onEpochEnd(epoch, mse);
+    }
+}
@@ -39,6 +39,37 @@ public class Arrays {
         return copy;
     }
 
+    /**
+     * Converts the given array to single precision rounding every element to the nearest {@code float} value.
+     *
+     * @param source array to be converted (must not be {@code null})
+     * @return new array of single precision values
+     */
+    public static float[] toFloat(double[] source) {
+        Preconditions.checkNotNull(source, "Source array must not be null");
+        float[] result = new float[source.length];
+        for (int i = 0; i < source.length; i++) {
+            result[i] = (float) source[i];
+        }
+        return result;
+    }
+
+    /**
+     * Converts every row of the given array to single precision.
+     *
+     * @param source array to be converted (must not be {@code null} and must not contain {@code null} rows)
+     * @return new array of single precision values
+     * @see #toFloat(double[])
+     */
+    public static float[][] toFloat(double[][] source) {
+        Preconditions.checkNotNull(source, "Source array must not be null");
+        float[][] result = new float[source.length][];
+        for (int i = 0; i < source.length; i++) {
+            result[i] = toFloat(source[i]);
+        }
+        return result;
+    }
+
     /**
      * Returns index of minimum element in the given array.
      *
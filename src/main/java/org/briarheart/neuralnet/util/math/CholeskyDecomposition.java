@@ -0,0 +1,95 @@
+package org.briarheart.neuralnet.util.math;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * In-place Cholesky decomposition of symmetric positive-definite matrices stored in flat row-major arrays. Matrix A is
+ * decomposed into L·L<sup>T</sup>, where L is lower triangular, and linear system A·x = b is then solved by forward
+ * and back substitution. This takes about half the operations of LU decomposition and no pivoting.
+ *
+ * @author Roman Chigvintsev
+ */
+public class CholeskyDecomposition {
+    private CholeskyDecomposition() {
+        //no instance
+    }
+
+    /**
+     * Replaces lower triangle (including diagonal) of the given matrix with its Cholesky factor L. Only lower triangle
+     * of the matrix is read, upper triangle is left untouched.
+     *
+     * @param a square matrix of the given order in row-major order (must not be {@code null})
+     * @param n order of the matrix
+     * @return {@code true} if matrix is positive-definite and was decomposed, {@code false} otherwise (in this case
+     * content of the lower triangle is undefined)
+     */
+    public static boolean decompose(double[] a, int n) {
+        Preconditions.checkNotNull(a, "Matrix must not be null");
+        Preconditions.checkArgument(a.length >= n * n, "Matrix must have at least n * n elements");
+
+        for (int j = 0, rowJ = 0; j < n; j++, rowJ += n) {
+            double diagonal = a[rowJ + j];
+            for (int k = 0; k < j; k++) {
+                diagonal -= a[rowJ + k] * a[rowJ + k];
+            }
+            if (!(diagonal > 0.0)) {
+                return false;
+            }
+            diagonal = Math.sqrt(diagonal);
+            a[rowJ + j] = diagonal;
+
+            for (int i = j + 1, rowI = rowJ + n; i < n; i++, rowI += n) {
+                double value = a[rowI + j];
+                for (int k = 0; k < j; k++) {
+                    value -= a[rowI + k] * a[rowJ + k];
+                }
+                a[rowI + j] = value / diagonal;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Solves linear system L·L<sup>T</sup>·x = b in place.
+     *
+     * @param l matrix whose lower triangle holds Cholesky factor as produced by {@link #decompose(double[], int)}
+     * @param n order of the matrix
+     * @param b right-hand side which is replaced with solution (must not be {@code null})
+     */
+    public static void solve(double[] l, int n, double[] b) {
+        solve(l, n, b, 0);
+    }
+
+    /**
+     * Solves linear system L·L<sup>T</sup>·x = b in place, where b is a part of the given array.
+     *
+     * @param l matrix whose lower triangle holds Cholesky factor as produced by {@link #decompose(double[], int)}
+     * @param n order of the matrix
+     * @param b array holding right-hand side which is replaced with solution (must not be {@code null})
+     * @param offset index of the first element of right-hand side in the array
+     */
+    public static void solve(double[] l, int n, double[] b, int offset) {
+        Preconditions.checkNotNull(l, "Matrix must not be null");
+        Preconditions.checkNotNull(b, "Right-hand side must not be null");
+        Preconditions.checkArgument(offset >= 0 && b.length >= offset + n,
+                "Right-hand side must have at least n elements");
+
+        // Forward substitution: L·y = b
+        for (int i = 0, rowI = 0; i < n; i++, rowI += n) {
+            double value = b[offset + i];
+            for (int k = 0; k < i; k++) {
+                value -= l[rowI + k] * b[offset + k];
+            }
+            b[offset + i] = value / l[rowI + i];
+        }
+
+        // Back substitution: L^T·x = y
+        for (int i = n - 1; i >= 0; i--) {
+            double value = b[offset + i];
+            for (int k = i + 1, index = k * n + i; k < n; k++, index += n) {
+                value -= l[index] * b[offset + k];
+            }
+            b[offset + i] = value / l[i * n + i];
+        }
+    }
+}
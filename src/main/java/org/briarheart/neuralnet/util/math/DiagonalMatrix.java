@@ -0,0 +1,163 @@
+package org.briarheart.neuralnet.util.math;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Square matrix whose elements outside of main diagonal are zeros. Only diagonal elements are stored, so addition
+ * and multiplication take time linear in number of elements of the other operand.
+ *
+ * @author Roman Chigvintsev
+ */
+public class DiagonalMatrix extends Matrix {
+    final double[] diagonal;
+
+    public DiagonalMatrix(double... diagonal) {
+        this(Preconditions.checkNotNull(diagonal, "Diagonal must not be null").length);
+        System.arraycopy(diagonal, 0, this.diagonal, 0, diagonal.length);
+    }
+
+    DiagonalMatrix(int order) {
+        super(order, order, null);
+        this.diagonal = new double[order];
+    }
+
+    @Override
+    public Matrix add(Matrix m) {
+        Preconditions.checkNotNull(m, "Matrix must not be null");
+        Preconditions.checkArgument(getSize().equals(m.getSize()),
+                "Matrices must have the same number of rows and columns");
+
+        if (m instanceof DiagonalMatrix) {
+            DiagonalMatrix result = new DiagonalMatrix(diagonal.length);
+            double[] otherDiagonal = ((DiagonalMatrix) m).diagonal;
+            for (int i = 0; i < diagonal.length; i++) {
+                result.diagonal[i] = diagonal[i] + otherDiagonal[i];
+            }
+            return result;
+        }
+        if (m instanceof SymmetricMatrix) {
+            return ((SymmetricMatrix) m).addDiagonal(this);
+        }
+        Matrix result = new Matrix(m);
+        result.setDeterminant(null);
+        for (int i = 0, index = 0; i < diagonal.length; i++, index += diagonal.length + 1) {
+            result.data[index] += diagonal[i];
+        }
+        return result;
+    }
+
+    /**
+     * Multiplies this matrix by the given one. Product of diagonal matrix D and matrix M is M with every row i
+     * multiplied by D<sub>ii</sub>.
+     */
+    @Override
+    public Matrix multiply(Matrix m) {
+        Preconditions.checkNotNull(m, "Matrix must not be null");
+        Preconditions.checkArgument(diagonal.length == m.getSize().getX(),
+                "Number of columns of the first matrix must match number of rows of the second matrix");
+
+        if (m instanceof DiagonalMatrix) {
+            DiagonalMatrix result = new DiagonalMatrix(diagonal.length);
+            double[] otherDiagonal = ((DiagonalMatrix) m).diagonal;
+            for (int i = 0; i < diagonal.length; i++) {
+                result.diagonal[i] = diagonal[i] * otherDiagonal[i];
+            }
+            return result;
+        }
+        Matrix result = new Matrix(m);
+        result.setDeterminant(null);
+        int cols = m.getSize().getY();
+        for (int i = 0, index = 0; i < diagonal.length; i++) {
+            double value = diagonal[i];
+            for (int j = 0; j < cols; j++, index++) {
+                result.data[index] *= value;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Multiplies the given matrix by this one. Product of matrix M and diagonal matrix D is M with every column j
+     * multiplied by D<sub>jj</sub>.
+     */
+    Matrix multiplyLeft(Matrix m) {
+        Preconditions.checkArgument(m.getSize().getY() == diagonal.length,
+                "Number of columns of the first matrix must match number of rows of the second matrix");
+
+        Matrix result = new Matrix(m);
+        result.setDeterminant(null);
+        for (int i = 0, index = 0; i < m.getSize().getX(); i++) {
+            for (int j = 0; j < diagonal.length; j++, index++) {
+                result.data[index] *= diagonal[j];
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Matrix multiplyScalar(double v) {
+        DiagonalMatrix result = new DiagonalMatrix(diagonal.length);
+        for (int i = 0; i < diagonal.length; i++) {
+            result.diagonal[i] = diagonal[i] * v;
+        }
+        return result;
+    }
+
+    @Override
+    public Matrix transpose() {
+        return new DiagonalMatrix(diagonal);
+    }
+
+    @Override
+    public double getDeterminant() {
+        return multiplyDiagonal();
+    }
+
+    @Override
+    public Matrix inverse() {
+        DiagonalMatrix result = new DiagonalMatrix(diagonal.length);
+        for (int i = 0; i < diagonal.length; i++) {
+            Preconditions.checkArgument(diagonal[i] != 0, "Matrix is not inversible");
+            result.diagonal[i] = 1.0 / diagonal[i];
+        }
+        return result;
+    }
+
+    /**
+     * Returns this matrix since it is equal to its transpose.
+     */
+    @Override
+    public Matrix transposedView() {
+        return this;
+    }
+
+    @Override
+    public double get(int row, int col) {
+        checkIndices(row, col);
+        return row == col ? diagonal[row] : 0.0;
+    }
+
+    /**
+     * Sets diagonal element of this matrix.
+     *
+     * @throws UnsupportedOperationException if non-zero value is set outside of main diagonal
+     */
+    @Override
+    public void set(int row, int col, double value) {
+        checkIndices(row, col);
+        if (row == col) {
+            diagonal[row] = value;
+        } else if (value != 0.0) {
+            throw new UnsupportedOperationException("Only diagonal elements of diagonal matrix can be set");
+        }
+    }
+
+    @Override
+    double[] dense() {
+        double[] result = new double[diagonal.length * diagonal.length];
+        for (int i = 0, index = 0; i < diagonal.length; i++, index += diagonal.length + 1) {
+            result[index] = diagonal[i];
+        }
+        return result;
+    }
+}
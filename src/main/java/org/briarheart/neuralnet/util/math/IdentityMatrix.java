@@ -5,17 +5,42 @@
  */
 package org.briarheart.neuralnet.util.math;
 
+import com.google.common.base.Preconditions;
+
+import java.util.Arrays;
+
 /**
  * @author Roman Chigvintsev
  */
-public class IdentityMatrix extends Matrix {
+public class IdentityMatrix extends DiagonalMatrix {
     public IdentityMatrix(int order) {
-        super(order, order);
-        for (int i = 0; i < order; i++) {
-            for (int j = 0; j < order; j++) {
-                super.set(i, j, i == j ? 1 : 0);
-            }
-        }
+        super(order);
+        Arrays.fill(diagonal, 1.0);
+    }
+
+    @Override
+    public Matrix multiply(Matrix m) {
+        Preconditions.checkNotNull(m, "Matrix must not be null");
+        Preconditions.checkArgument(diagonal.length == m.getSize().getX(),
+                "Number of columns of the first matrix must match number of rows of the second matrix");
+        return m instanceof DiagonalMatrix ? new DiagonalMatrix(((DiagonalMatrix) m).diagonal) : new Matrix(m);
+    }
+
+    @Override
+    Matrix multiplyLeft(Matrix m) {
+        Preconditions.checkArgument(m.getSize().getY() == diagonal.length,
+                "Number of columns of the first matrix must match number of rows of the second matrix");
+        return new Matrix(m);
+    }
+
+    @Override
+    public double getDeterminant() {
+        return 1.0;
+    }
+
+    @Override
+    public Matrix inverse() {
+        return new IdentityMatrix(diagonal.length);
     }
 
     @Override
@@ -0,0 +1,222 @@
+package org.briarheart.neuralnet.util.math;
+
+import com.google.common.base.Preconditions;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * LU decomposition of square matrix A with partial pivoting: P·A = L·U, where P is a permutation matrix, L is a lower
+ * triangular matrix with unit diagonal and U is an upper triangular matrix. At every step the row with the greatest
+ * absolute value in the current column is chosen as a pivot row, which keeps multipliers not greater than one.
+ * <p>
+ * The decomposition is computed once and then can be reused to solve linear systems and to find determinant and
+ * inverse of the matrix.
+ *
+ * @author Roman Chigvintsev
+ */
+public class LuDecomposition {
+    private final int order;
+    /**
+     * L (below main diagonal) and U (on and above main diagonal) in row-major order.
+     */
+    private final double[] lu;
+    /**
+     * Row i of P·A is row pivot[i] of A.
+     */
+    private final int[] pivot;
+    private final int pivotSign;
+    private final boolean singular;
+
+    /**
+     * Decomposes the given matrix.
+     *
+     * @param m square matrix (must not be {@code null})
+     */
+    public LuDecomposition(Matrix m) {
+        Preconditions.checkNotNull(m, "Matrix must not be null");
+        Preconditions.checkArgument(m.getSize().getX() == m.getSize().getY(),
+                "Only square matrices can be decomposed");
+
+        int n = m.getSize().getX();
+        double[] a = m.dense().clone();
+        int[] pivot = new int[n];
+        for (int i = 0; i < n; i++) {
+            pivot[i] = i;
+        }
+        int pivotSign = 1;
+        boolean singular = false;
+
+        double[] buffer = new double[n];
+        for (int k = 0, rowK = 0; k < n; k++, rowK += n) {
+            int p = k;
+            double max = Math.abs(a[rowK + k]);
+            for (int i = k + 1; i < n; i++) {
+                double value = Math.abs(a[i * n + k]);
+                if (value > max) {
+                    max = value;
+                    p = i;
+                }
+            }
+            if (p != k) {
+                System.arraycopy(a, p * n, buffer, 0, n);
+                System.arraycopy(a, rowK, a, p * n, n);
+                System.arraycopy(buffer, 0, a, rowK, n);
+                int index = pivot[p];
+                pivot[p] = pivot[k];
+                pivot[k] = index;
+                pivotSign = -pivotSign;
+            }
+
+            double pivotValue = a[rowK + k];
+            if (pivotValue == 0.0) {
+                singular = true;
+                continue;
+            }
+            for (int i = k + 1, rowI = rowK + n; i < n; i++, rowI += n) {
+                double multiplier = a[rowI + k] / pivotValue;
+                a[rowI + k] = multiplier;
+                if (multiplier != 0.0) {
+                    for (int j = k + 1; j < n; j++) {
+                        a[rowI + j] -= multiplier * a[rowK + j];
+                    }
+                }
+            }
+        }
+
+        this.order = n;
+        this.lu = a;
+        this.pivot = pivot;
+        this.pivotSign = pivotSign;
+        this.singular = singular;
+    }
+
+    /**
+     * Returns whether decomposed matrix is singular, i.e. it has no inverse.
+     */
+    public boolean isSingular() {
+        return singular;
+    }
+
+    /**
+     * Returns row permutation: row i of P·A is row {@code pivot[i]} of A.
+     */
+    public int[] getPivot() {
+        return pivot.clone();
+    }
+
+    /**
+     * Returns 1 if number of row swaps is even and -1 otherwise.
+     */
+    int getPivotSign() {
+        return pivotSign;
+    }
+
+    /**
+     * Returns lower triangular factor with unit diagonal.
+     */
+    public Matrix getL() {
+        Matrix result = new Matrix(order, order);
+        for (int i = 0, row = 0; i < order; i++, row += order) {
+            System.arraycopy(lu, row, result.data, row, i);
+            result.data[row + i] = 1.0;
+        }
+        return result;
+    }
+
+    /**
+     * Returns upper triangular factor.
+     */
+    public Matrix getU() {
+        Matrix result = new Matrix(order, order);
+        for (int i = 0, row = 0; i < order; i++, row += order) {
+            System.arraycopy(lu, row + i, result.data, row + i, order - i);
+        }
+        return result;
+    }
+
+    public double determinant() {
+        if (singular) {
+            return 0.0;
+        }
+        double result = pivotSign;
+        for (int i = 0; i < order; i++) {
+            result *= lu[i * order + i];
+        }
+        return result;
+    }
+
+    public Matrix solve(Matrix b) {
+        return solve(b, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Solves A·X = B. Columns of X are found independently, so for large right-hand sides they are found in parallel
+     * by the given pool.
+     *
+     * @param b right-hand side with the same number of rows as decomposed matrix (must not be {@code null})
+     * @param pool pool to solve system in (must not be {@code null})
+     * @return solution
+     * @throws IllegalStateException if decomposed matrix is singular
+     */
+    public Matrix solve(Matrix b, ForkJoinPool pool) {
+        Preconditions.checkNotNull(b, "Right-hand side must not be null");
+        Preconditions.checkArgument(b.getSize().getX() == order,
+                "Right-hand side must have the same number of rows as decomposed matrix");
+        Preconditions.checkState(!singular, "Matrix is singular");
+
+        int n = order;
+        int p = b.getSize().getY();
+        double[] bData = b.dense();
+        Matrix result = new Matrix(n, p);
+        double[] x = result.data;
+        for (int i = 0; i < n; i++) {
+            System.arraycopy(bData, pivot[i] * p, x, i * p, p);
+        }
+
+        Matrix.forEachRowBlock(pool, p, (long) n * n, (from, to) -> {
+            // Forward substitution: L·Y = P·B
+            for (int i = 1; i < n; i++) {
+                int rowX = i * p;
+                for (int k = 0; k < i; k++) {
+                    double multiplier = lu[i * n + k];
+                    if (multiplier != 0.0) {
+                        for (int j = from, index = k * p + from; j < to; j++, index++) {
+                            x[rowX + j] -= multiplier * x[index];
+                        }
+                    }
+                }
+            }
+
+            // Back substitution: U·X = Y
+            for (int i = n - 1; i >= 0; i--) {
+                int rowX = i * p;
+                for (int k = i + 1; k < n; k++) {
+                    double multiplier = lu[i * n + k];
+                    if (multiplier != 0.0) {
+                        for (int j = from, index = k * p + from; j < to; j++, index++) {
+                            x[rowX + j] -= multiplier * x[index];
+                        }
+                    }
+                }
+                double diagonal = lu[i * n + i];
+                for (int j = from; j < to; j++) {
+                    x[rowX + j] /= diagonal;
+                }
+            }
+        });
+        return result;
+    }
+
+    public Matrix inverse() {
+        return inverse(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Finds inverse of decomposed matrix.
+     *
+     * @throws IllegalStateException if decomposed matrix is singular
+     */
+    public Matrix inverse(ForkJoinPool pool) {
+        return solve(new IdentityMatrix(order), pool);
+    }
+}
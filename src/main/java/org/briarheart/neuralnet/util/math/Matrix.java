@@ -3,17 +3,67 @@ package org.briarheart.neuralnet.util.math;
 import com.google.common.base.Preconditions;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.Setter;
-import org.briarheart.neuralnet.util.Arrays;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 /**
+ * Dense matrix. Elements are stored in a single array in row-major order, so rows are contiguous in memory. Public
+ * accessors check bounds of indices while operations of this class work with the array directly.
+ * <p>
+ * Submatrices, rows, columns and transpose of a matrix can be obtained as views sharing the array of the matrix (see
+ * {@link #submatrix(int, int, int, int)}). A view addresses its elements by offset of the first element and strides
+ * between rows and columns, so creating a view takes constant time and changes made through a view are visible in
+ * the matrix and vice versa. Views can be used as operands of all operations of this class.
+ * <p>
+ * Matrices with special structure ({@link SymmetricMatrix}, {@link DiagonalMatrix}, {@link IdentityMatrix}) do not
+ * store their elements in a strided array, so they do not have submatrix, row and column views. Such matrix should be
+ * copied to dense matrix by {@link #Matrix(Matrix)} first. Since these matrices are equal to their transpose,
+ * {@link #transposedView()} of them is the matrix itself.
+ * <p>
+ * Operations on large matrices split rows of the result into blocks processed in parallel by a {@link ForkJoinPool}
+ * (common pool unless a pool is passed explicitly). Every element of the result is calculated by a single task in the
+ * same order as in a serial operation, so results do not depend on number of threads. Operations on matrices whose
+ * size is below threshold are performed in the calling thread.
+ *
  * @author Roman Chigvintsev
  */
 public class Matrix {
-    private final double[][] matrix;
+    /**
+     * Size of square blocks in which matrices are multiplied so that blocks of operands stay in cache.
+     */
+    private static final int BLOCK_SIZE = 64;
+    /**
+     * Minimal number of scalar operations for which operation is performed in parallel.
+     */
+    private static final long PARALLEL_THRESHOLD = 1L << 17;
+    /**
+     * Approximate number of scalar operations performed by single parallel task.
+     */
+    private static final long TASK_SIZE = 1L << 15;
+
+    /**
+     * Elements in row-major order or {@code null} for matrices with special structure which store their elements in
+     * some other way.
+     */
+    final transient double[] data;
+    /**
+     * Index of element (0, 0) in {@link #data}.
+     */
+    final transient int offset;
+    /**
+     * Distance between elements of adjacent rows in {@link #data}.
+     */
+    final transient int rowStride;
+    /**
+     * Distance between elements of adjacent columns in {@link #data}.
+     */
+    final transient int columnStride;
     @Getter
     private final transient Size size;
 
@@ -26,31 +76,111 @@ public class Matrix {
 
     public Matrix(Matrix a) {
         Preconditions.checkNotNull(a, "Matrix must not be null");
-        this.matrix = Arrays.copyOf(a.matrix);
+        this.data = a.isContiguous() ? a.data.clone() : a.dense();
+        this.offset = 0;
+        this.rowStride = a.size.y;
+        this.columnStride = 1;
         this.size = a.size;
         this.determinant = a.determinant;
     }
 
     private Matrix(Size size) {
-        this.matrix = new double[size.x][size.y];
+        this(size, new double[size.x * size.y], 0, size.y, 1);
+    }
+
+    /**
+     * Creates matrix with special structure which does not store its elements in row-major order or matrix backed
+     * by the given array in row-major order.
+     */
+    Matrix(int numberOfRows, int numberOfColumns, double[] data) {
+        this(new Size(numberOfRows, numberOfColumns), data, 0, numberOfColumns, 1);
+    }
+
+    private Matrix(Size size, double[] data, int offset, int rowStride, int columnStride) {
+        this.data = data;
+        this.offset = offset;
+        this.rowStride = rowStride;
+        this.columnStride = columnStride;
         this.size = size;
     }
 
+    /**
+     * Returns view of a part of this matrix. The view shares elements with this matrix.
+     *
+     * @param row index of the first row of the part
+     * @param col index of the first column of the part
+     * @param numberOfRows number of rows of the part
+     * @param numberOfColumns number of columns of the part
+     * @return view of the part of this matrix
+     * @throws UnsupportedOperationException if this matrix has special structure and does not store its elements in
+     *                                       a strided array
+     */
+    public Matrix submatrix(int row, int col, int numberOfRows, int numberOfColumns) {
+        checkDense();
+        Preconditions.checkArgument(row >= 0 && numberOfRows >= 0 && row + numberOfRows <= size.x,
+                "Rows are out of bounds");
+        Preconditions.checkArgument(col >= 0 && numberOfColumns >= 0 && col + numberOfColumns <= size.y,
+                "Columns are out of bounds");
+        return new Matrix(new Size(numberOfRows, numberOfColumns), data, index(row, col), rowStride, columnStride);
+    }
+
+    /**
+     * Returns view of the given row of this matrix as a single row matrix.
+     *
+     * @see #submatrix(int, int, int, int)
+     */
+    public Matrix row(int row) {
+        return submatrix(row, 0, 1, size.y);
+    }
+
+    /**
+     * Returns view of the given column of this matrix as a single column matrix.
+     *
+     * @see #submatrix(int, int, int, int)
+     */
+    public Matrix column(int col) {
+        return submatrix(0, col, size.x, 1);
+    }
+
+    /**
+     * Returns transpose of this matrix as a view sharing elements with this matrix. Unlike {@link #transpose()} it
+     * does not copy elements. Matrices with special structure which are equal to their transpose return themselves.
+     *
+     * @see #submatrix(int, int, int, int)
+     */
+    public Matrix transposedView() {
+        checkDense();
+        return new Matrix(new Size(size.y, size.x), data, offset, columnStride, rowStride);
+    }
+
     public Matrix add(Matrix m) {
+        if (m instanceof DiagonalMatrix) {
+            return m.add(this);
+        }
         return add(this, m);
     }
 
     public static Matrix add(Matrix a, Matrix b) {
+        return add(a, b, ForkJoinPool.commonPool());
+    }
+
+    public static Matrix add(Matrix a, Matrix b, ForkJoinPool pool) {
         Preconditions.checkNotNull(a, "Matrix \"a\" must not be null");
         Preconditions.checkNotNull(b, "Matrix \"b\" must not be null");
         Preconditions.checkArgument(a.size.equals(b.size), "Matrices must have the same number of rows and columns");
 
         Matrix result = new Matrix(a.size);
-        for (int i = 0; i < a.size.x; i++) {
-            for (int j = 0; j < a.size.y; j++) {
-                result.set(i, j, a.get(i, j) + b.get(i, j));
+        Matrix sa = a.strided();
+        Matrix sb = b.strided();
+        int cols = a.size.y;
+        forEachRowBlock(pool, a.size.x, cols, (from, to) -> {
+            for (int i = from, index = from * cols; i < to; i++) {
+                for (int j = 0, indexA = sa.index(i, 0), indexB = sb.index(i, 0); j < cols;
+                     j++, index++, indexA += sa.columnStride, indexB += sb.columnStride) {
+                    result.data[index] = sa.data[indexA] + sb.data[indexB];
+                }
             }
-        }
+        });
         return result;
     }
 
@@ -59,53 +189,193 @@ public class Matrix {
     }
 
     public static Matrix transpose(Matrix a) {
+        return transpose(a, ForkJoinPool.commonPool());
+    }
+
+    public static Matrix transpose(Matrix a, ForkJoinPool pool) {
         Preconditions.checkNotNull(a, "Matrix must not be null");
 
-        Matrix result = new Matrix(a.size.y, a.size.x);
-        for (int i = 0; i < a.size.x; i++) {
-            for (int j = 0; j < a.size.y; j++) {
-                result.set(j, i, a.get(i, j));
+        Matrix sa = a.strided();
+        int rows = a.size.x;
+        int cols = a.size.y;
+        Matrix result = new Matrix(cols, rows);
+        forEachRowBlock(pool, rows, cols, (from, to) -> {
+            for (int ii = from; ii < to; ii += BLOCK_SIZE) {
+                int iEnd = Math.min(ii + BLOCK_SIZE, to);
+                for (int jj = 0; jj < cols; jj += BLOCK_SIZE) {
+                    int jEnd = Math.min(jj + BLOCK_SIZE, cols);
+                    for (int i = ii; i < iEnd; i++) {
+                        for (int j = jj, index = sa.index(i, jj); j < jEnd; j++, index += sa.columnStride) {
+                            result.data[j * rows + i] = sa.data[index];
+                        }
+                    }
+                }
             }
-        }
+        });
         return result;
     }
 
     public Matrix multiply(Matrix a) {
+        if (a instanceof DiagonalMatrix) {
+            return ((DiagonalMatrix) a).multiplyLeft(this);
+        }
         return multiply(this, a);
     }
 
+    /**
+     * Multiplies two matrices. Product is calculated in square blocks of the operands with inner loop running along
+     * rows of the second matrix and of the result, so that all memory accesses are sequential.
+     */
     public static Matrix multiply(Matrix a, Matrix b) {
+        return multiply(a, b, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Multiplies two matrices using the given pool for large matrices.
+     *
+     * @see #multiply(Matrix, Matrix)
+     */
+    public static Matrix multiply(Matrix a, Matrix b, ForkJoinPool pool) {
         Preconditions.checkNotNull(a, "Matrix \"a\" must not be null");
         Preconditions.checkNotNull(b, "Matrix \"b\" must not be null");
         Preconditions.checkArgument(a.size.y == b.size.x,
                 "Number of columns of the first matrix must match number of rows of the second matrix");
 
         Matrix result = new Matrix(a.size.x, b.size.y);
-        for (int i = 0; i < a.size.x; i++) {
-            for (int j = 0; j < b.size.y; j++) {
-                double value = 0;
-                for (int k = 0; k < b.size.x; k++) {
-                    value += a.get(i, k) * b.get(k, j);
+        Matrix sa = a.strided();
+        Matrix sb = b.strided();
+        forEachRowBlock(pool, a.size.x, (long) a.size.y * b.size.y,
+                (from, to) -> multiply(sa, sb, result.data, from, to));
+        return result;
+    }
+
+    public SymmetricMatrix transposeMultiply() {
+        return transposeMultiply(this, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Calculates A<sup>T</sup>·A without creating transpose of A. Since the product is symmetric, only its lower
+     * triangle is calculated.
+     */
+    public static SymmetricMatrix transposeMultiply(Matrix a, ForkJoinPool pool) {
+        Preconditions.checkNotNull(a, "Matrix must not be null");
+
+        Matrix sa = a.strided();
+        double[] aData = sa.data;
+        int cs = sa.columnStride;
+        int m = a.size.x;
+        int n = a.size.y;
+        SymmetricMatrix result = new SymmetricMatrix(n);
+        double[] c = result.lowerTriangle;
+        forEachRowBlock(pool, n, (long) m * n / 2, (from, to) -> {
+            for (int r = 0; r < m; r++) {
+                int rowA = sa.index(r, 0);
+                for (int i = from; i < to; i++) {
+                    double value = aData[rowA + i * cs];
+                    int rowC = SymmetricMatrix.getRowOffset(i);
+                    for (int j = 0, index = rowA; j <= i; j++, index += cs) {
+                        c[rowC + j] += value * aData[index];
+                    }
                 }
-                result.set(i, j, value);
             }
-        }
+        });
+        return result;
+    }
+
+    public Matrix transposeMultiply(Matrix b) {
+        return transposeMultiply(this, b);
+    }
+
+    public static Matrix transposeMultiply(Matrix a, Matrix b) {
+        return transposeMultiply(a, b, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Calculates A<sup>T</sup>·B without creating transpose of A.
+     */
+    public static Matrix transposeMultiply(Matrix a, Matrix b, ForkJoinPool pool) {
+        Preconditions.checkNotNull(a, "Matrix \"a\" must not be null");
+        Preconditions.checkNotNull(b, "Matrix \"b\" must not be null");
+        Preconditions.checkArgument(a.size.x == b.size.x, "Matrices must have the same number of rows");
+
+        Matrix sa = a.strided();
+        Matrix sb = b.strided();
+        int m = a.size.x;
+        int n = a.size.y;
+        int p = b.size.y;
+        Matrix result = new Matrix(n, p);
+        forEachRowBlock(pool, n, (long) m * p, (from, to) -> {
+            for (int r = 0; r < m; r++) {
+                int rowB = sb.index(r, 0);
+                for (int i = from; i < to; i++) {
+                    double value = sa.data[sa.index(r, i)];
+                    int rowC = i * p;
+                    for (int j = 0, index = rowB; j < p; j++, index += sb.columnStride) {
+                        result.data[rowC + j] += value * sb.data[index];
+                    }
+                }
+            }
+        });
         return result;
     }
 
+    /**
+     * Adds rows from {@code iFrom} (inclusive) to {@code iTo} (exclusive) of product of matrices A (m×n) and B (n×p) to
+     * matrix C (m×p) stored in row-major order.
+     */
+    private static void multiply(Matrix a, Matrix b, double[] c, int iFrom, int iTo) {
+        int n = a.size.y;
+        int p = b.size.y;
+        double[] aData = a.data;
+        double[] bData = b.data;
+        int bColumnStride = b.columnStride;
+        for (int ii = iFrom; ii < iTo; ii += BLOCK_SIZE) {
+            int iEnd = Math.min(ii + BLOCK_SIZE, iTo);
+            for (int kk = 0; kk < n; kk += BLOCK_SIZE) {
+                int kEnd = Math.min(kk + BLOCK_SIZE, n);
+                for (int jj = 0; jj < p; jj += BLOCK_SIZE) {
+                    int jEnd = Math.min(jj + BLOCK_SIZE, p);
+                    for (int i = ii; i < iEnd; i++) {
+                        int rowC = i * p;
+                        for (int k = kk; k < kEnd; k++) {
+                            double value = aData[a.index(i, k)];
+                            int rowB = b.index(k, 0);
+                            if (bColumnStride == 1) {
+                                VectorKernels.axpy(value, bData, rowB + jj, c, rowC + jj, jEnd - jj);
+                            } else {
+                                for (int j = jj, index = rowB + jj * bColumnStride; j < jEnd;
+                                     j++, index += bColumnStride) {
+                                    c[rowC + j] += value * bData[index];
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
     public Matrix multiplyScalar(double v) {
         return multiplyScalar(this, v);
     }
 
     public static Matrix multiplyScalar(Matrix a, double v) {
+        return multiplyScalar(a, v, ForkJoinPool.commonPool());
+    }
+
+    public static Matrix multiplyScalar(Matrix a, double v, ForkJoinPool pool) {
         Preconditions.checkNotNull(a, "Matrix must not be null");
 
         Matrix result = new Matrix(a.size);
-        for (int i = 0; i < a.size.x; i++) {
-            for (int j = 0; j < a.size.y; j++) {
-                result.set(i, j, a.get(i, j) * v);
+        Matrix sa = a.strided();
+        int cols = a.size.y;
+        forEachRowBlock(pool, a.size.x, cols, (from, to) -> {
+            for (int i = from, index = from * cols; i < to; i++) {
+                for (int j = 0, indexA = sa.index(i, 0); j < cols; j++, index++, indexA += sa.columnStride) {
+                    result.data[index] = sa.data[indexA] * v;
+                }
             }
-        }
+        });
         return result;
     }
 
@@ -117,44 +387,27 @@ public class Matrix {
         return result;
     }
 
+    /**
+     * Returns LU decomposition of this matrix as array of three matrices: L, U and identity matrix whose first element
+     * is the sign of row permutation. Since rows are permuted by partial pivoting, L·U is equal to this matrix with
+     * permuted rows.
+     *
+     * @deprecated use {@link LuDecomposition} which also provides permutation of rows and can be reused
+     */
+    @Deprecated
     public Matrix[] getLuDecomposition() {
-        Matrix[] result = new Matrix[3];
-        Matrix lu = new Matrix(this);
-        Matrix l = new Matrix(lu.size);
-        Matrix pSign = new Matrix(new IdentityMatrix(lu.size.y));
-        int permutations = 0;
-        l.set(0, 0, 1.0);
-        for (int i = 1; i < lu.size.x; i++) {
-            l.set(i, i, 1.0);
-            for (int j = 0; j < i; j++) {
-                double multiplier = -lu.get(i, j) / lu.get(j, j);
-                lu.sumRowByRow(i, j, multiplier);
-                if (j == i - 1) {
-                    double value = lu.get(i, i);
-                    if (value == 0) {
-                        int rowIndex = lu.findRowWithNonZeroValue(i, i + 1, size.x - 1);
-                        lu.permutateRow(i, rowIndex);
-                        permutations++;
-                    }
-                }
-                l.set(i, j, -multiplier);
-            }
-        }
-        Matrix u = new Matrix(lu);
-        if (permutations % 2 == 1) {
-            pSign.set(0, 0, -1);
-        }
-        result[0] = l;
-        result[1] = u;
-        result[2] = pSign;
-        return result;
+        LuDecomposition lu = new LuDecomposition(this);
+        Matrix pSign = new Matrix(new IdentityMatrix(size.y));
+        pSign.data[0] = lu.getPivotSign();
+        return new Matrix[] {lu.getL(), lu.getU(), pSign};
     }
 
     public void sumRowByRow(int row, int rowSum, double multiplier) {
-        Preconditions.checkArgument(row < size.x && rowSum < size.x, "Row index is out of bounds");
-        for (int i = 0; i < size.y; i++) {
-            set(row, i, get(row, i) + get(rowSum, i) * multiplier);
-        }
+        checkDense();
+        Preconditions.checkArgument(row >= 0 && row < size.x && rowSum >= 0 && rowSum < size.x,
+                "Row index is out of bounds");
+        addRow(row, rowSum, multiplier);
+        determinant = null;
     }
 
     public double getDeterminant() {
@@ -174,8 +427,7 @@ public class Matrix {
         if (m.size.y == 2) {
             return (m.get(0, 0) * m.get(1, 1)) - (m.get(1, 0) * m.get(0, 1));
         }
-        Matrix[] lu = m.getLuDecomposition();
-        return lu[1].multiply(lu[2]).multiplyDiagonal();
+        return new LuDecomposition(m).determinant();
     }
 
     public Matrix inverse() {
@@ -183,56 +435,48 @@ public class Matrix {
     }
 
     public static Matrix inverse(Matrix m) {
-        Preconditions.checkNotNull(m, "Matrix must not be null");
-        Preconditions.checkArgument(m.getDeterminant() != 0, "Matrix is not inversible");
-
-        Matrix[] lu = m.getLuDecomposition();
-        Matrix l = lu[0];
-        Matrix u = lu[1];
-
-        Matrix z = new Matrix(m.size);
-        Matrix result = new Matrix(m.size);
-
-        for (int j = 0; j < m.size.x; j++) {
-            for (int i = 0; i < m.size.x; i++) {
-                double value = 0.0;
-                if (i == j) {
-                    value = 1.0;
-                }
-                for (int k = j; k < i; k++) {
-                    value -= l.get(i, k) * z.get(k, j);
-                }
-                z.set(i, j, value);
-            }
-        }
+        return inverse(m, ForkJoinPool.commonPool());
+    }
 
-        for (int j = 0; j < m.size.x; j++) {
-            for (int i = m.size.x - 1; i >= 0; i--) {
-                double value = z.get(i, j);
-                for (int k = i + 1; k < m.size.x; k++) {
-                    value -= u.get(i, k) * result.get(k, j);
-                }
-                value /= u.get(i, i);
-                result.set(i, j, value);
-            }
-        }
+    /**
+     * Inverts the given matrix by its LU decomposition. Columns of the inverse are found independently, so for large
+     * matrices they are found in parallel by the given pool.
+     */
+    public static Matrix inverse(Matrix m, ForkJoinPool pool) {
+        Preconditions.checkNotNull(m, "Matrix must not be null");
+        Preconditions.checkArgument(m.size.x == m.size.y, "Only square matrices can be inverted");
 
-        return result;
+        LuDecomposition lu = new LuDecomposition(m);
+        Preconditions.checkArgument(!lu.isSingular(), "Matrix is not inversible");
+        return lu.inverse(pool);
     }
 
     public double get(int row, int col) {
-        Preconditions.checkArgument(row < size.x, "Row index is out of bounds");
-        Preconditions.checkArgument(col < size.y, "Column index is out of bounds");
-        return matrix[row][col];
+        checkIndices(row, col);
+        return data[index(row, col)];
     }
 
     public void set(int row, int col, double value) {
-        Preconditions.checkArgument(row < size.x, "Row index is out of bounds");
-        Preconditions.checkArgument(col < size.y, "Column index is out of bounds");
-        matrix[row][col] = value;
+        checkIndices(row, col);
+        data[index(row, col)] = value;
         determinant = null;
     }
 
+    /**
+     * Returns copy of elements of this matrix as array of rows.
+     */
+    public double[][] toArray() {
+        Matrix s = strided();
+        double[][] result = new double[size.x][];
+        for (int i = 0; i < size.x; i++) {
+            result[i] = new double[size.y];
+            for (int j = 0, index = s.index(i, 0); j < size.y; j++, index += s.columnStride) {
+                result[i][j] = s.data[index];
+            }
+        }
+        return result;
+    }
+
     @Override
     public String toString() {
         return toJson(true);
@@ -244,33 +488,146 @@ public class Matrix {
             gsonBuilder.setPrettyPrinting();
         }
         Gson gson = gsonBuilder.create();
-        return gson.toJson(this);
+        JsonObject json = new JsonObject();
+        json.add("matrix", gson.toJsonTree(toArray()));
+        if (determinant != null) {
+            json.addProperty("determinant", determinant);
+        }
+        return gson.toJson(json);
     }
 
-    private int findRowWithNonZeroValue(int atColumn, int fromRow, int toRow) {
-        for (int i = fromRow; i <= toRow; i++) {
-            if (get(i, atColumn) != 0) {
-                return i;
+    /**
+     * Processes rows from zero to the given number of rows by the given kernel. If total number of operations is large
+     * enough and the pool has more than one thread, rows are split into blocks processed in parallel.
+     *
+     * @param pool pool to process rows in (must not be {@code null})
+     * @param numberOfRows number of rows
+     * @param operationsPerRow approximate number of scalar operations to process single row
+     * @param kernel kernel processing range of rows
+     */
+    static void forEachRowBlock(ForkJoinPool pool, int numberOfRows, long operationsPerRow, RowKernel kernel) {
+        Preconditions.checkNotNull(pool, "Pool must not be null");
+        if (pool.getParallelism() == 1 || numberOfRows < 2
+                || numberOfRows * operationsPerRow < PARALLEL_THRESHOLD) {
+            kernel.process(0, numberOfRows);
+        } else {
+            int rowsPerTask = (int) Math.max(1, TASK_SIZE / Math.max(1, operationsPerRow));
+            pool.invoke(new RowBlockTask(kernel, 0, numberOfRows, rowsPerTask));
+        }
+    }
+
+    /**
+     * Returns elements of this matrix in row-major order. Matrices with special structure create new array with their
+     * elements, other matrices return their own array.
+     */
+    double[] dense() {
+        if (isContiguous()) {
+            return data;
+        }
+        double[] result = new double[size.x * size.y];
+        for (int i = 0, index = 0; i < size.x; i++) {
+            for (int j = 0, from = index(i, 0); j < size.y; j++, index++, from += columnStride) {
+                result[index] = data[from];
             }
         }
-        return -1;
+        return result;
     }
 
-    private void permutateRow(int r1, int r2) {
-        double[] r1Values = copyRow(r1);
-        double[] r2Values = copyRow(r2);
-        copyRow(r1, r2Values);
-        copyRow(r2, r1Values);
+    /**
+     * Returns this matrix if its elements are stored in array with offset and strides, or dense copy of this matrix
+     * otherwise.
+     */
+    Matrix strided() {
+        return data != null ? this : new Matrix(size.x, size.y, dense());
     }
 
-    private double[] copyRow(int rowIndex) {
-        double[] result = new double[size.y];
-        System.arraycopy(matrix[rowIndex], 0, result, 0, size.y);
-        return result;
+    /**
+     * Returns index of the given element in {@link #data}.
+     */
+    int index(int row, int col) {
+        return offset + row * rowStride + col * columnStride;
+    }
+
+    /**
+     * Returns whether {@link #data} holds exactly the elements of this matrix in row-major order.
+     */
+    private boolean isContiguous() {
+        return data != null && offset == 0 && columnStride == 1 && rowStride == size.y
+                && data.length == size.x * size.y;
+    }
+
+    void checkIndices(int row, int col) {
+        Preconditions.checkArgument(row >= 0 && row < size.x, "Row index is out of bounds");
+        Preconditions.checkArgument(col >= 0 && col < size.y, "Column index is out of bounds");
+    }
+
+    private void addRow(int row, int rowSum, double multiplier) {
+        for (int i = 0, to = index(row, 0), from = index(rowSum, 0); i < size.y;
+             i++, to += columnStride, from += columnStride) {
+            data[to] += data[from] * multiplier;
+        }
     }
 
+    /**
+     * Copies the given values to the given row of this matrix. Only the first values up to number of columns of this
+     * matrix are copied.
+     *
+     * @param rowIndex index of row
+     * @param values values to copy (must not be {@code null} and must not be shorter than row)
+     */
     public void copyRow(int rowIndex, double[] values) {
-        System.arraycopy(values, 0, matrix[rowIndex], 0, size.y);
+        checkDense();
+        Preconditions.checkArgument(rowIndex >= 0 && rowIndex < size.x, "Row index is out of bounds");
+        Preconditions.checkNotNull(values, "Values must not be null");
+        Preconditions.checkArgument(values.length >= size.y,
+                "Number of values must not be less than number of columns");
+        if (columnStride == 1) {
+            System.arraycopy(values, 0, data, index(rowIndex, 0), size.y);
+        } else {
+            for (int j = 0, index = index(rowIndex, 0); j < size.y; j++, index += columnStride) {
+                data[index] = values[j];
+            }
+        }
+    }
+
+    private void checkDense() {
+        if (data == null) {
+            throw new UnsupportedOperationException("Operation is not supported by matrix with special structure, "
+                    + "copy it to dense matrix first");
+        }
+    }
+
+    @FunctionalInterface
+    interface RowKernel {
+        /**
+         * Processes rows from {@code from} (inclusive) to {@code to} (exclusive).
+         */
+        void process(int from, int to);
+    }
+
+    private static class RowBlockTask extends RecursiveAction {
+        private final RowKernel kernel;
+        private final int from;
+        private final int to;
+        private final int rowsPerTask;
+
+        RowBlockTask(RowKernel kernel, int from, int to, int rowsPerTask) {
+            this.kernel = kernel;
+            this.from = from;
+            this.to = to;
+            this.rowsPerTask = rowsPerTask;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= rowsPerTask) {
+                kernel.process(from, to);
+            } else {
+                int middle = (from + to) >>> 1;
+                invokeAll(new RowBlockTask(kernel, from, middle, rowsPerTask),
+                        new RowBlockTask(kernel, middle, to, rowsPerTask));
+            }
+        }
     }
 
     @Getter
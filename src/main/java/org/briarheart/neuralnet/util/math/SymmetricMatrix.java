@@ -0,0 +1,110 @@
+package org.briarheart.neuralnet.util.math;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Square matrix equal to its transpose. Only lower triangle (including main diagonal) is stored, packed row by row,
+ * so setting an element also sets its mirror element.
+ *
+ * @author Roman Chigvintsev
+ */
+public class SymmetricMatrix extends Matrix {
+    final double[] lowerTriangle;
+
+    public SymmetricMatrix(int order) {
+        super(order, order, null);
+        this.lowerTriangle = new double[getRowOffset(order)];
+    }
+
+    private SymmetricMatrix(SymmetricMatrix m) {
+        this(m.getSize().getX());
+        System.arraycopy(m.lowerTriangle, 0, lowerTriangle, 0, lowerTriangle.length);
+    }
+
+    @Override
+    public Matrix add(Matrix m) {
+        Preconditions.checkNotNull(m, "Matrix must not be null");
+        Preconditions.checkArgument(getSize().equals(m.getSize()),
+                "Matrices must have the same number of rows and columns");
+
+        if (m instanceof SymmetricMatrix) {
+            SymmetricMatrix result = new SymmetricMatrix(this);
+            double[] otherTriangle = ((SymmetricMatrix) m).lowerTriangle;
+            for (int i = 0; i < lowerTriangle.length; i++) {
+                result.lowerTriangle[i] += otherTriangle[i];
+            }
+            return result;
+        }
+        if (m instanceof DiagonalMatrix) {
+            return addDiagonal((DiagonalMatrix) m);
+        }
+        return super.add(m);
+    }
+
+    SymmetricMatrix addDiagonal(DiagonalMatrix m) {
+        SymmetricMatrix result = new SymmetricMatrix(this);
+        for (int i = 0; i < m.diagonal.length; i++) {
+            result.lowerTriangle[getRowOffset(i) + i] += m.diagonal[i];
+        }
+        return result;
+    }
+
+    @Override
+    public Matrix multiplyScalar(double v) {
+        SymmetricMatrix result = new SymmetricMatrix(getSize().getX());
+        for (int i = 0; i < lowerTriangle.length; i++) {
+            result.lowerTriangle[i] = lowerTriangle[i] * v;
+        }
+        return result;
+    }
+
+    @Override
+    public Matrix transpose() {
+        return new SymmetricMatrix(this);
+    }
+
+    /**
+     * Returns this matrix since it is equal to its transpose.
+     */
+    @Override
+    public Matrix transposedView() {
+        return this;
+    }
+
+    @Override
+    public double get(int row, int col) {
+        checkIndices(row, col);
+        return row >= col ? lowerTriangle[getRowOffset(row) + col] : lowerTriangle[getRowOffset(col) + row];
+    }
+
+    @Override
+    public void set(int row, int col, double value) {
+        checkIndices(row, col);
+        if (row >= col) {
+            lowerTriangle[getRowOffset(row) + col] = value;
+        } else {
+            lowerTriangle[getRowOffset(col) + row] = value;
+        }
+        setDeterminant(null);
+    }
+
+    @Override
+    double[] dense() {
+        int order = getSize().getX();
+        double[] result = new double[order * order];
+        for (int i = 0, index = 0; i < order; i++) {
+            for (int j = 0; j <= i; j++, index++) {
+                result[i * order + j] = lowerTriangle[index];
+                result[j * order + i] = lowerTriangle[index];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns index of the first element of the given row in packed lower triangle.
+     */
+    static int getRowOffset(int row) {
+        return row * (row + 1) / 2;
+    }
+}
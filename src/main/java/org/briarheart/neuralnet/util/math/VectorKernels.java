@@ -0,0 +1,201 @@
+package org.briarheart.neuralnet.util.math;
+
+/**
+ * Kernels of vector operations used by innermost loops of layers, training strategies and matrix operations. Vectors
+ * are parts of arrays given by offset and length. Reductions are unrolled into four independent accumulators, so
+ * consecutive multiply-add operations do not wait for each other, while element-wise loops are kept simple enough for
+ * JIT compiler to vectorize them.
+ * <p>
+ * Since reductions sum elements in four interleaved partial sums, their results may differ from sequential
+ * summation in the last bits. Where results must not depend on that, {@link #sequentialDot} keeps order of a plain
+ * loop.
+ *
+ * @author Roman Chigvintsev
+ */
+public class VectorKernels {
+    private VectorKernels() {
+        //no instance
+    }
+
+    /**
+     * Calculates dot product of two vectors.
+     */
+    public static double dot(double[] a, int aOffset, double[] b, int bOffset, int length) {
+        double sum0 = 0.0;
+        double sum1 = 0.0;
+        double sum2 = 0.0;
+        double sum3 = 0.0;
+        int i = 0;
+        for (int n = length & ~3; i < n; i += 4) {
+            sum0 += a[aOffset + i] * b[bOffset + i];
+            sum1 += a[aOffset + i + 1] * b[bOffset + i + 1];
+            sum2 += a[aOffset + i + 2] * b[bOffset + i + 2];
+            sum3 += a[aOffset + i + 3] * b[bOffset + i + 3];
+        }
+        for (; i < length; i++) {
+            sum0 += a[aOffset + i] * b[bOffset + i];
+        }
+        return (sum0 + sum1) + (sum2 + sum3);
+    }
+
+    /**
+     * Adds products of elements of two vectors to the given sum one by one in order of their indices. Unlike
+     * {@link #dot(double[], int, double[], int, int)} it does not split the sum into partial ones, so its result is
+     * exactly the same as of a plain loop.
+     */
+    public static double sequentialDot(double sum, double[] a, int aOffset, double[] b, int bOffset, int length) {
+        for (int i = 0; i < length; i++) {
+            sum += a[aOffset + i] * b[bOffset + i];
+        }
+        return sum;
+    }
+
+    /**
+     * Calculates dot product of two vectors by compensated summation, elements of vector a are stride elements apart.
+     * Products are summed in order of their indices in the same way as {@link java.util.stream.DoubleStream#sum()}
+     * of JDK 17 does, so the result is exactly the same as of summing a stream of products, but without its overhead.
+     */
+    public static double compensatedDot(double[] a, int aOffset, int aStride, double[] b, int bOffset, int length) {
+        double sum = 0.0;
+        double compensation = 0.0;
+        double simpleSum = 0.0;
+        for (int i = 0, index = aOffset; i < length; i++, index += aStride) {
+            double product = a[index] * b[bOffset + i];
+            double value = product - compensation;
+            double newSum = sum + value;
+            compensation = (newSum - sum) - value;
+            sum = newSum;
+            simpleSum += product;
+        }
+        double result = sum - compensation;
+        return Double.isNaN(result) && Double.isInfinite(simpleSum) ? simpleSum : result;
+    }
+
+    /**
+     * Adds vector x multiplied by alpha to vector y: y = alpha·x + y.
+     */
+    public static void axpy(double alpha, double[] x, int xOffset, double[] y, int yOffset, int length) {
+        for (int i = 0; i < length; i++) {
+            y[yOffset + i] += alpha * x[xOffset + i];
+        }
+    }
+
+    /**
+     * Calculates dot product of two single precision vectors.
+     */
+    public static float dot(float[] a, int aOffset, float[] b, int bOffset, int length) {
+        float sum0 = 0.0f;
+        float sum1 = 0.0f;
+        float sum2 = 0.0f;
+        float sum3 = 0.0f;
+        int i = 0;
+        for (int n = length & ~3; i < n; i += 4) {
+            sum0 += a[aOffset + i] * b[bOffset + i];
+            sum1 += a[aOffset + i + 1] * b[bOffset + i + 1];
+            sum2 += a[aOffset + i + 2] * b[bOffset + i + 2];
+            sum3 += a[aOffset + i + 3] * b[bOffset + i + 3];
+        }
+        for (; i < length; i++) {
+            sum0 += a[aOffset + i] * b[bOffset + i];
+        }
+        return (sum0 + sum1) + (sum2 + sum3);
+    }
+
+    /**
+     * Adds single precision vector x multiplied by alpha to vector y: y = alpha·x + y.
+     */
+    public static void axpy(float alpha, float[] x, int xOffset, float[] y, int yOffset, int length) {
+        for (int i = 0; i < length; i++) {
+            y[yOffset + i] += alpha * x[xOffset + i];
+        }
+    }
+
+    /**
+     * Calculates dot product of two vectors of 8-bit integers. Products are accumulated in 32-bit integers, which
+     * cannot overflow for vectors shorter than 2<sup>17</sup> elements.
+     */
+    public static int dot(byte[] a, int aOffset, byte[] b, int bOffset, int length) {
+        int sum0 = 0;
+        int sum1 = 0;
+        int sum2 = 0;
+        int sum3 = 0;
+        int i = 0;
+        for (int n = length & ~3; i < n; i += 4) {
+            sum0 += a[aOffset + i] * b[bOffset + i];
+            sum1 += a[aOffset + i + 1] * b[bOffset + i + 1];
+            sum2 += a[aOffset + i + 2] * b[bOffset + i + 2];
+            sum3 += a[aOffset + i + 3] * b[bOffset + i + 3];
+        }
+        for (; i < length; i++) {
+            sum0 += a[aOffset + i] * b[bOffset + i];
+        }
+        return (sum0 + sum1) + (sum2 + sum3);
+    }
+
+    /**
+     * Adds vector x of 32-bit integers multiplied by alpha to vector y: y = alpha·x + y. Overflow wraps around.
+     */
+    public static void axpy(int alpha, int[] x, int xOffset, int[] y, int yOffset, int length) {
+        for (int i = 0; i < length; i++) {
+            y[yOffset + i] += alpha * x[xOffset + i];
+        }
+    }
+
+    /**
+     * Adds four vectors of x multiplied by corresponding coefficients to vector y:
+     * y = alpha0·x0 + alpha1·x1 + alpha2·x2 + alpha3·x3 + y. Vectors of x start at xOffset and are stride elements
+     * apart. Accumulating four products at once reads and writes y four times less often than four calls of
+     * {@link #axpy(int, int[], int, int[], int, int)}. Overflow wraps around.
+     */
+    public static void axpy4(int alpha0, int alpha1, int alpha2, int alpha3, int[] x, int xOffset, int stride,
+                             int[] y, int length) {
+        int x0 = xOffset;
+        int x1 = x0 + stride;
+        int x2 = x1 + stride;
+        int x3 = x2 + stride;
+        for (int i = 0; i < length; i++) {
+            y[i] += alpha0 * x[x0 + i] + alpha1 * x[x1 + i] + alpha2 * x[x2 + i] + alpha3 * x[x3 + i];
+        }
+    }
+
+    /**
+     * Calculates squared Euclidean distance between two vectors.
+     */
+    public static double squaredDistance(double[] a, int aOffset, double[] b, int bOffset, int length) {
+        double sum0 = 0.0;
+        double sum1 = 0.0;
+        double sum2 = 0.0;
+        double sum3 = 0.0;
+        int i = 0;
+        for (int n = length & ~3; i < n; i += 4) {
+            double d0 = a[aOffset + i] - b[bOffset + i];
+            double d1 = a[aOffset + i + 1] - b[bOffset + i + 1];
+            double d2 = a[aOffset + i + 2] - b[bOffset + i + 2];
+            double d3 = a[aOffset + i + 3] - b[bOffset + i + 3];
+            sum0 += d0 * d0;
+            sum1 += d1 * d1;
+            sum2 += d2 * d2;
+            sum3 += d3 * d3;
+        }
+        for (; i < length; i++) {
+            double d = a[aOffset + i] - b[bOffset + i];
+            sum0 += d * d;
+        }
+        return (sum0 + sum1) + (sum2 + sum3);
+    }
+
+    /**
+     * Adds product of matrix A and vector x to vector y: y = A·x + y.
+     *
+     * @param a matrix in row-major order
+     * @param numberOfRows number of rows of the matrix and length of vector y
+     * @param numberOfColumns number of columns of the matrix and length of vector x
+     * @param x vector x
+     * @param y vector y
+     */
+    public static void gemv(double[] a, int numberOfRows, int numberOfColumns, double[] x, double[] y) {
+        for (int i = 0, row = 0; i < numberOfRows; i++, row += numberOfColumns) {
+            y[i] += dot(a, row, x, 0, numberOfColumns);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package org.briarheart.neuralnet;
+
+import org.briarheart.neuralnet.activation.ActivationFunction;
+import org.junit.jupiter.api.Test;
+
+import java.util.function.DoubleUnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests of array-at-a-time evaluation of activation functions.
+ *
+ * @author Roman Chigvintsev
+ */
+class ActivationFunctionTest {
+    private static final ActivationFunction[] DIFFERENTIABLE_FUNCTIONS = {
+            ActivationFunction.LINEAR,
+            ActivationFunction.HYPERBOLIC_TANGENT,
+            ActivationFunction.SIGMOID,
+            ActivationFunction.FAST_HYPERBOLIC_TANGENT,
+            ActivationFunction.FAST_SIGMOID
+    };
+
+    @Test
+    void shouldApplyInPlaceLikeScalarFunction() {
+        double[] input = createInput();
+        for (ActivationFunction activationFunction : DIFFERENTIABLE_FUNCTIONS) {
+            assertApplyInPlace(activationFunction, input);
+        }
+        assertApplyInPlace(ActivationFunction.HARD_LIMITING_THRESHOLD, input);
+    }
+
+    @Test
+    void shouldApplyWithDerivativeLikeScalarFunctions() {
+        double[] input = createInput();
+        for (ActivationFunction activationFunction : DIFFERENTIABLE_FUNCTIONS) {
+            DoubleUnaryOperator derivative = activationFunction.getDerivative();
+            double[] output = new double[input.length];
+            double[] derivatives = new double[input.length];
+            activationFunction.applyWithDerivative(input, output, derivatives, input.length - 1);
+            for (int i = 0; i < input.length - 1; i++) {
+                double expectedOutput = activationFunction.apply(input[i]);
+                assertEquals(expectedOutput, output[i], 0.0);
+                assertEquals(derivative.applyAsDouble(expectedOutput), derivatives[i], 0.0);
+            }
+            assertEquals(0.0, output[input.length - 1]);
+            assertEquals(0.0, derivatives[input.length - 1]);
+        }
+    }
+
+    @Test
+    void shouldThrowExceptionOnApplyWithDerivativeWhenFunctionIsNotDifferentiable() {
+        double[] values = createInput();
+        assertThrows(UnsupportedOperationException.class, () -> ActivationFunction.HARD_LIMITING_THRESHOLD
+                .applyWithDerivative(values, values, new double[values.length], values.length));
+    }
+
+    private static void assertApplyInPlace(ActivationFunction activationFunction, double[] input) {
+        double[] output = new double[input.length];
+        activationFunction.applyInPlace(input, output, input.length - 1);
+        double[] values = input.clone();
+        activationFunction.applyInPlace(values, values, values.length);
+        for (int i = 0; i < input.length - 1; i++) {
+            assertEquals(activationFunction.apply(input[i]), output[i], 0.0);
+            assertEquals(output[i], values[i], 0.0);
+        }
+        assertEquals(0.0, output[input.length - 1]);
+    }
+
+    private static double[] createInput() {
+        double[] input = new double[101];
+        for (int i = 0; i < input.length; i++) {
+            input[i] = -10.0 + 0.2 * i;
+        }
+        return input;
+    }
+}
@@ -0,0 +1,197 @@
+package org.briarheart.neuralnet;
+
+import org.briarheart.neuralnet.activation.ActivationFunction;
+import org.briarheart.neuralnet.layer.NeuralLayer;
+import org.briarheart.neuralnet.training.schedule.ConstantLearningRate;
+import org.briarheart.neuralnet.training.schedule.ExponentialDecay;
+import org.briarheart.neuralnet.training.schedule.LearningRateSchedule;
+import org.briarheart.neuralnet.training.schedule.LearningRateSchedule.Interval;
+import org.briarheart.neuralnet.util.CsvDataLoader;
+import org.briarheart.neuralnet.util.DataLoader;
+import org.briarheart.neuralnet.util.DataNormalizer;
+import org.briarheart.neuralnet.util.MinMaxDataNormalizer;
+import org.briarheart.neuralnet.util.resource.ClassPathResource;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Asynchronous backpropagation based tests.
+ *
+ * @author Roman Chigvintsev
+ */
+class AsynchronousBackpropagationTest {
+    @Test
+    void shouldPredictBreastCancer() throws IOException {
+        DataLoader dataLoader = new CsvDataLoader();
+        double[][] trainingSet = dataLoader.load(new ClassPathResource("data/breast_cancer_inputs_training.csv"));
+        double[][] expectedOutput = dataLoader.load(new ClassPathResource("data/breast_cancer_output_training.csv"));
+
+        DataNormalizer dataNormalizer = new MinMaxDataNormalizer();
+        double[][] normalizedTrainingSet = dataNormalizer.normalize(trainingSet);
+
+        NeuralNetwork neuralNetwork = createNeuralNetwork(4, 1);
+        neuralNetwork.train(normalizedTrainingSet, expectedOutput);
+
+        double[][] testTrainingSet = dataLoader.load(new ClassPathResource("data/breast_cancer_inputs_test.csv"));
+        double[][] testExpectedOutput = dataLoader.load(new ClassPathResource("data/breast_cancer_output_test.csv"));
+
+        double[][] normalizedTestTrainingSet = dataNormalizer.normalize(testTrainingSet);
+        double[][] testEstimatedOutput = neuralNetwork.feedBatch(normalizedTestTrainingSet);
+
+        double expectedMeanError = 1.0;
+        for (int i = 0; i < testEstimatedOutput.length; i++) {
+            double meanError = calculateMeanError(testExpectedOutput[i], testEstimatedOutput[i]);
+            assertTrue(meanError <= expectedMeanError,
+                    "Estimated mean error <" + meanError + "> is greater than expected mean error <"
+                            + expectedMeanError + ">");
+        }
+    }
+
+    @Test
+    void shouldPredictBreastCancerWithMiniBatches() throws IOException {
+        DataLoader dataLoader = new CsvDataLoader();
+        double[][] trainingSet = dataLoader.load(new ClassPathResource("data/breast_cancer_inputs_training.csv"));
+        double[][] expectedOutput = dataLoader.load(new ClassPathResource("data/breast_cancer_output_training.csv"));
+
+        DataNormalizer dataNormalizer = new MinMaxDataNormalizer();
+        double[][] normalizedTrainingSet = dataNormalizer.normalize(trainingSet);
+
+        NeuralNetwork neuralNetwork = createNeuralNetwork(4, 8);
+        neuralNetwork.train(normalizedTrainingSet, expectedOutput);
+        assertEquals(300, neuralNetwork.getMsePerEpoch().size());
+
+        double[][] testTrainingSet = dataLoader.load(new ClassPathResource("data/breast_cancer_inputs_test.csv"));
+        double[][] testExpectedOutput = dataLoader.load(new ClassPathResource("data/breast_cancer_output_test.csv"));
+
+        double[][] normalizedTestTrainingSet = dataNormalizer.normalize(testTrainingSet);
+        double[][] testEstimatedOutput = neuralNetwork.feedBatch(normalizedTestTrainingSet);
+
+        double expectedMeanError = 1.0;
+        for (int i = 0; i < testEstimatedOutput.length; i++) {
+            double meanError = calculateMeanError(testExpectedOutput[i], testEstimatedOutput[i]);
+            assertTrue(meanError <= expectedMeanError,
+                    "Estimated mean error <" + meanError + "> is greater than expected mean error <"
+                            + expectedMeanError + ">");
+        }
+    }
+
+    /**
+     * Schedule measured in steps must be evaluated by number of steps completed by all threads.
+     */
+    @Test
+    void shouldEvaluateLearningRateByStepsOfAllThreads() throws IOException {
+        DataLoader dataLoader = new CsvDataLoader();
+        double[][] trainingSet = new MinMaxDataNormalizer().normalize(
+                dataLoader.load(new ClassPathResource("data/breast_cancer_inputs_training.csv")));
+        double[][] expectedOutput = dataLoader.load(new ClassPathResource("data/breast_cancer_output_training.csv"));
+
+        AtomicLong maxStep = new AtomicLong();
+        LearningRateSchedule schedule = (initialLearningRate, epoch, step) -> {
+            maxStep.accumulateAndGet(step, Math::max);
+            return initialLearningRate;
+        };
+        NeuralNetwork neuralNetwork = createNeuralNetwork(2, 1, 3, schedule);
+        neuralNetwork.train(trainingSet, expectedOutput);
+        assertEquals(3L * trainingSet.length, maxStep.get());
+
+        maxStep.set(0);
+        neuralNetwork = createNeuralNetwork(2, 8, 3, schedule);
+        neuralNetwork.train(trainingSet, expectedOutput);
+        // Every thread applies its last partial batch on its own, so a step per epoch may be added by each of them
+        long stepsPerEpoch = (trainingSet.length + 7) / 8;
+        assertTrue(maxStep.get() >= 3 * stepsPerEpoch && maxStep.get() <= 3 * (stepsPerEpoch + 1),
+                "Unexpected number of steps <" + maxStep.get() + ">");
+    }
+
+    /**
+     * Learning rate decaying to almost zero every step must freeze weights after the first chunk of samples.
+     */
+    @Test
+    void shouldDecayLearningRateEveryStep() throws IOException {
+        DataLoader dataLoader = new CsvDataLoader();
+        double[][] trainingSet = new MinMaxDataNormalizer().normalize(
+                dataLoader.load(new ClassPathResource("data/breast_cancer_inputs_training.csv")));
+        double[][] expectedOutput = dataLoader.load(new ClassPathResource("data/breast_cancer_output_training.csv"));
+
+        NeuralNetwork neuralNetwork = createNeuralNetwork(1, 1, 3, new ExponentialDecay(0.01, Interval.STEP, 0.0));
+        initializeWeights(neuralNetwork, new Random(42));
+        neuralNetwork.train(trainingSet, expectedOutput);
+
+        NeuralNetwork firstChunkNeuralNetwork = createNeuralNetwork(1, 1, 1, new ConstantLearningRate());
+        initializeWeights(firstChunkNeuralNetwork, new Random(42));
+        firstChunkNeuralNetwork.train(Arrays.copyOf(trainingSet, 16),
+                Arrays.copyOf(expectedOutput, 16));
+
+        NeuralLayer layer = neuralNetwork.getInputLayer().getNextLayer();
+        NeuralLayer firstChunkLayer = firstChunkNeuralNetwork.getInputLayer().getNextLayer();
+        for (; layer != null; layer = layer.getNextLayer(), firstChunkLayer = firstChunkLayer.getNextLayer()) {
+            assertArrayEquals(firstChunkLayer.getWeights(), layer.getWeights(), 1e-12);
+            assertArrayEquals(firstChunkLayer.getBiases(), layer.getBiases(), 1e-12);
+        }
+    }
+
+    private NeuralNetwork createNeuralNetwork(int numberOfThreads, int batchSize, int maxEpochs,
+                                              LearningRateSchedule schedule) {
+        return NeuralNetwork.backpropagationBuilder()
+                .numberOfInputs(9)
+                .numberOfOutputs(1)
+                .numberOfLayers(2)
+                .hiddenLayerSize(5)
+                .maxEpochs(maxEpochs)
+                .learningRate(0.9)
+                .targetError(0.0)
+                .outputLayerActivationFunction(ActivationFunction.SIGMOID)
+                .batchSize(batchSize)
+                .numberOfThreads(numberOfThreads)
+                .asynchronous(true)
+                .learningRateSchedule(schedule)
+                .build();
+    }
+
+    private void initializeWeights(NeuralNetwork neuralNetwork, Random random) {
+        for (NeuralLayer layer = neuralNetwork.getInputLayer().getNextLayer(); layer != null;
+             layer = layer.getNextLayer()) {
+            double[] weights = layer.getWeights();
+            for (int i = 0; i < weights.length; i++) {
+                weights[i] = random.nextDouble() - 0.5;
+            }
+            double[] biases = layer.getBiases();
+            for (int i = 0; i < biases.length; i++) {
+                biases[i] = random.nextDouble() - 0.5;
+            }
+        }
+    }
+
+    private NeuralNetwork createNeuralNetwork(int numberOfThreads, int batchSize) {
+        return NeuralNetwork.backpropagationBuilder()
+                .numberOfInputs(9)
+                .numberOfOutputs(1)
+                .numberOfLayers(2)
+                .hiddenLayerSize(5)
+                .maxEpochs(300)
+                .learningRate(0.9)
+                .targetError(0.00001)
+                .outputLayerActivationFunction(ActivationFunction.SIGMOID)
+                .batchSize(batchSize)
+                .numberOfThreads(numberOfThreads)
+                .asynchronous(true)
+                .build();
+    }
+
+    private double calculateMeanError(double[] estimatedOutput, double[] expectedOutput) {
+        double errorSum = 0.0;
+        for (int i = 0; i < estimatedOutput.length; i++) {
+            double error = expectedOutput[i] - estimatedOutput[i];
+            errorSum += Math.pow(error, 2.0);
+        }
+        return errorSum / estimatedOutput.length;
+    }
+}
@@ -1,14 +1,19 @@
 package org.briarheart.neuralnet;
 
 import org.briarheart.neuralnet.activation.ActivationFunction;
+import org.briarheart.neuralnet.layer.NeuralLayer;
+import org.briarheart.neuralnet.neuron.Neuron;
+import org.briarheart.neuralnet.training.Backpropagation;
 import org.briarheart.neuralnet.util.*;
 import org.briarheart.neuralnet.util.resource.ClassPathResource;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
 
-import static org.junit.jupiter.api.Assertions.assertFalse;
-import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.*;
 
 /**
  * Backpropagation based tests.
@@ -174,6 +179,220 @@ class BackpropagationTest {
         }
     }
 
+    /**
+     * The same as {@link #shouldPredictBreastCancer()} but weights are adjusted once per mini-batch of samples.
+     */
+    @Test
+    void shouldPredictBreastCancerWithMiniBatches() throws IOException {
+        DataLoader dataLoader = new CsvDataLoader();
+        double[][] trainingSet = dataLoader.load(new ClassPathResource("data/breast_cancer_inputs_training.csv"));
+        double[][] expectedOutput = dataLoader.load(new ClassPathResource("data/breast_cancer_output_training.csv"));
+
+        DataNormalizer dataNormalizer = new MinMaxDataNormalizer();
+        double[][] normalizedTrainingSet = dataNormalizer.normalize(trainingSet);
+
+        NeuralNetwork neuralNetwork = NeuralNetwork.backpropagationBuilder()
+                .numberOfInputs(9)
+                .numberOfOutputs(1)
+                .numberOfLayers(2)
+                .hiddenLayerSize(5)
+                .maxEpochs(1000)
+                .learningRate(0.9)
+                .targetError(0.00001)
+                .outputLayerActivationFunction(ActivationFunction.SIGMOID)
+                .batchSize(8)
+                .build();
+        neuralNetwork.train(normalizedTrainingSet, expectedOutput);
+
+        double[][] testTrainingSet = dataLoader.load(new ClassPathResource("data/breast_cancer_inputs_test.csv"));
+        double[][] testExpectedOutput = dataLoader.load(new ClassPathResource("data/breast_cancer_output_test.csv"));
+
+        double[][] normalizedTestTrainingSet = dataNormalizer.normalize(testTrainingSet);
+        double[][] testEstimatedOutput = neuralNetwork.feedBatch(normalizedTestTrainingSet);
+
+        double errorSum = 0.0;
+        int misses = 0;
+        for (int i = 0; i < testEstimatedOutput.length; i++) {
+            errorSum += calculateMeanError(testExpectedOutput[i], testEstimatedOutput[i]);
+            if ((testEstimatedOutput[i][0] >= 0.5) != (testExpectedOutput[i][0] >= 0.5)) {
+                misses++;
+            }
+        }
+        double meanError = errorSum / testEstimatedOutput.length;
+        double expectedMeanError = 0.05;
+        assertTrue(meanError <= expectedMeanError, "Estimated mean error <" + meanError
+                + "> is greater than expected mean error <" + expectedMeanError + ">");
+        double errorPercentage = misses / (testEstimatedOutput.length / 100.0);
+        double expectedErrorPercentage = 5;
+        assertTrue(errorPercentage <= expectedErrorPercentage, "Estimated error percentage <" + errorPercentage
+                + "> is greater than expected error percentage <" + expectedErrorPercentage + ">");
+    }
+
+    /**
+     * Batch size of one must adjust weights exactly like adjusting weights of every neuron by
+     * {@link Backpropagation#adjustWeights(org.briarheart.neuralnet.neuron.Neuron, ActivationFunction)} right after
+     * every sample.
+     */
+    @Test
+    void shouldAdjustWeightsPerSampleWithBatchSizeOfOne() throws IOException {
+        DataLoader dataLoader = new CsvDataLoader();
+        double[][] trainingSet = new MinMaxDataNormalizer().normalize(
+                dataLoader.load(new ClassPathResource("data/breast_cancer_inputs_training.csv")));
+        double[][] expectedOutput = dataLoader.load(new ClassPathResource("data/breast_cancer_output_training.csv"));
+
+        NeuralNetwork neuralNetwork = createTinyNeuralNetwork(9, 5, 5, new Random(42));
+        NeuralNetwork referenceNeuralNetwork = createTinyNeuralNetwork(9, 5, 5, new Random(42));
+
+        Backpropagation backpropagation = new Backpropagation(0.9);
+        backpropagation.setBatchSize(1);
+        backpropagation.train(neuralNetwork, trainingSet, expectedOutput, null, null);
+        new PerNeuronBackpropagation(0.9).train(referenceNeuralNetwork, trainingSet, expectedOutput, null, null);
+
+        NeuralLayer layer = neuralNetwork.getInputLayer().getNextLayer();
+        NeuralLayer referenceLayer = referenceNeuralNetwork.getInputLayer().getNextLayer();
+        for (; layer != null; layer = layer.getNextLayer(), referenceLayer = referenceLayer.getNextLayer()) {
+            assertArrayEquals(referenceLayer.getWeights(), layer.getWeights());
+            assertArrayEquals(referenceLayer.getBiases(), layer.getBiases());
+        }
+    }
+
+    /**
+     * Batch size of one must keep training results of per-neuron backpropagation which summed weighted inputs and
+     * errors neuron by neuron over links. Expected weights were recorded by that implementation (JDK 17, x86-64) for
+     * 9-7-7-1 network trained on breast cancer dataset for 20 epochs, they are listed in order of input links of
+     * neurons.
+     */
+    @Test
+    void shouldKeepWeightsOfPerNeuronBackpropagation() throws IOException {
+        double[] expectedWeights = {
+                1.7790887801857431, -1.0416002493262477, -1.3074244122553804, -1.3096825290368581, -0.6249629815469042,
+                -0.11999682761043276, -1.6301196310423707, -0.5787188539952731, -0.6781936927687731,
+                -0.4197666093298396, 1.1684067986552829, -1.1551322268185227, -0.5622718039575626, -0.9114694021747184,
+                -0.8499922097583767, -0.2955901724650098, -1.3931486903784565, -0.06637927730618483,
+                -0.7009775020048951, -0.38972813811487406, -0.16973103595292918, 0.49081938841592426,
+                0.4576196115820468, 0.6155737613624956, -0.1287906354980974, 0.03126998223945299, 0.8643821360743924,
+                0.022326431370548964, 0.5922027826427431, 0.41752783921322956, -0.1424102050081062, 0.07740124367828449,
+                0.682756549421799, 0.5475305740042472, 0.31156455476121464, 0.015962099257711495, 0.2957944560199426,
+                0.011587879077690225, 0.05971994582145961, 0.11407051296591839, 0.3549527926089327, -0.520438661896926,
+                -0.9297305071350349, -0.28334077702302746, -0.4534619999414308, -0.5373191691493918, -1.140690317172211,
+                -0.5637584629574882, 0.008871633473805794, -0.33141109436863525, -0.5710848751748744,
+                0.7651551327692744, 0.6504042006955775, 0.275335931212487, 0.39338251769447125, 0.0897312360001633,
+                1.0028902356922742, 0.43638323803374357, 0.2969164425146533, 0.1427602937423809, 0.059054720786820794,
+                -0.07415337705340894, -0.47597757481440617, 0.10570743189715796, 0.008004097724932574,
+                -0.15371940532519252, -0.5702543386123099, -0.08090223921550736, 0.10722382473672644,
+                -0.42175966855164726, -0.8383623498915553, -1.2197246148344179, -1.0822901160999823, -0.450898682976595,
+                -0.3643177457731688, -0.5247660641125186, 0.0914206622584404, -0.3892465227069319, -0.9546028971563628,
+                -0.4809602348151814, -0.33544580604888324, -0.4326113210287028, -0.08435589008606945,
+                -0.9572194734049071, -0.1805656361326174, -0.6975144851758903, -0.35558079294134803,
+                -0.42889939938825533, -0.425740181146807, -0.6234141953040728, -0.6024906654200132,
+                -0.33113774895335935, -0.8307448619300251, -0.10306622849267894, -0.7767434386445555,
+                0.49839956506430416, -0.21719369967563068, -0.9926769881239277, -0.9485564873911991, 0.1326321189412994,
+                -0.8018661129158747, 0.326749767933094, -0.7356291281961239, -1.2232589383496064, -1.4490496074006443,
+                -0.11838069119189255, -0.5499879720469404, -0.32091842769427603, -0.23624735360047644,
+                -0.23308061965603166, -0.6162277573792162, -2.60094640042629, -1.7911042067644203, 0.9355093550234924,
+                0.29228072626231877, -1.3381114773724259, 1.186298895961913, -0.12701432098696225, -0.9885267685641936,
+                0.3134634159095083, -0.3089206214594125, -0.5165861424301937, -0.7351749873451028, 0.13707638114161594,
+                -0.4085795673698583, -0.23710831447300745, -0.0614255742448388, 0.5342617925144822, 0.25721107836679263,
+                0.07313626242439182, -0.528734570392692, 0.5959071358839, 1.1204208796428925, -0.18670864240141932
+        };
+
+        DataLoader dataLoader = new CsvDataLoader();
+        double[][] trainingSet = new MinMaxDataNormalizer().normalize(
+                dataLoader.load(new ClassPathResource("data/breast_cancer_inputs_training.csv")));
+        double[][] expectedOutput = dataLoader.load(new ClassPathResource("data/breast_cancer_output_training.csv"));
+        NeuralNetwork neuralNetwork = NeuralNetwork.backpropagationBuilder()
+                .numberOfInputs(9)
+                .numberOfOutputs(1)
+                .numberOfLayers(3)
+                .hiddenLayerSize(7)
+                .learningRate(0.3)
+                .maxEpochs(20)
+                .targetError(0.0)
+                .build();
+        Random random = new Random(42);
+        for (NeuralLayer layer = neuralNetwork.getInputLayer().getNextLayer(); layer != null;
+             layer = layer.getNextLayer()) {
+            for (Neuron neuron : layer.getNeurons()) {
+                neuron.getInputs().forEach(input -> input.setWeight(random.nextDouble() - 0.5));
+            }
+        }
+        neuralNetwork.train(trainingSet, expectedOutput);
+
+        int i = 0;
+        for (NeuralLayer layer = neuralNetwork.getInputLayer().getNextLayer(); layer != null;
+             layer = layer.getNextLayer()) {
+            for (Neuron neuron : layer.getNeurons()) {
+                for (NeuralLink input : neuron.getInputs()) {
+                    assertEquals(expectedWeights[i++], input.getWeight(), 0.0);
+                }
+            }
+        }
+        assertEquals(expectedWeights.length, i);
+    }
+
+    /**
+     * Overridden adjustment of weights of a neuron must not be bypassed by adjustment of whole rows of weights.
+     */
+    @Test
+    void shouldAdjustWeightsByOverriddenMethod() {
+        NeuralNetwork neuralNetwork = createTinyNeuralNetwork(1, 2, 1, new Random(42));
+        NeuralLayer outputLayer = neuralNetwork.getOutputLayer();
+        double[] weights = outputLayer.getWeights().clone();
+        double[] biases = outputLayer.getBiases().clone();
+
+        List<Neuron> adjustedNeurons = new ArrayList<>();
+        Backpropagation backpropagation = new Backpropagation(0.5) {
+            @Override
+            public void adjustWeights(Neuron neuron, ActivationFunction activationFunction) {
+                adjustedNeurons.add(neuron);
+            }
+        };
+        backpropagation.train(neuralNetwork, new double[][] {{1.0}, {2.0}}, new double[][] {{0.0}, {1.0}}, null,
+                null);
+
+        assertTrue(adjustedNeurons.containsAll(outputLayer.getNeurons()));
+        assertArrayEquals(weights, outputLayer.getWeights());
+        assertArrayEquals(biases, outputLayer.getBiases());
+    }
+
+    /**
+     * Weights must be adjusted by the mean gradient of every mini-batch including the last partial one.
+     */
+    @Test
+    void shouldAdjustWeightsByMeanGradientOfMiniBatch() {
+        double[][] trainingSet = {{1.0}, {2.0}, {3.0}};
+        double[][] expectedOutput = {{1.0}, {3.0}, {2.0}};
+        double learningRate = 0.1;
+
+        NeuralNetwork neuralNetwork = NeuralNetwork.backpropagationBuilder()
+                .numberOfInputs(1)
+                .numberOfOutputs(1)
+                .maxEpochs(1)
+                .targetError(0.0)
+                .build();
+        NeuralLayer outputLayer = neuralNetwork.getOutputLayer();
+        outputLayer.getWeights()[0] = 0.5;
+        outputLayer.getBiases()[0] = 0.25;
+
+        Backpropagation backpropagation = new Backpropagation(learningRate);
+        backpropagation.setBatchSize(2);
+        backpropagation.train(neuralNetwork, trainingSet, expectedOutput, null, null);
+
+        // Linear output neuron: gradient of weight is error * input, gradient of bias is error
+        double weight = 0.5;
+        double bias = 0.25;
+        double error0 = expectedOutput[0][0] - (weight * trainingSet[0][0] + bias);
+        double error1 = expectedOutput[1][0] - (weight * trainingSet[1][0] + bias);
+        weight += learningRate * (error0 * trainingSet[0][0] + error1 * trainingSet[1][0]) / 2.0;
+        bias += learningRate * (error0 + error1) / 2.0;
+        double error2 = expectedOutput[2][0] - (weight * trainingSet[2][0] + bias);
+        weight += learningRate * error2 * trainingSet[2][0];
+        bias += learningRate * error2;
+
+        assertEquals(weight, outputLayer.getWeights()[0], 1e-12);
+        assertEquals(bias, outputLayer.getBiases()[0], 1e-12);
+    }
+
     /**
      * In this test we have grayscale images of digits. Each image consists of 25 pixels. Each pixel is encoded by
      * number from 0 (black color) to 1 (white color). The goal of this test is to recognize the digits presented in
@@ -219,6 +438,31 @@ class BackpropagationTest {
         }
     }
 
+    private static NeuralNetwork createTinyNeuralNetwork(int numberOfInputs, int hiddenLayerSize, int maxEpochs,
+                                                         Random random) {
+        NeuralNetwork neuralNetwork = NeuralNetwork.backpropagationBuilder()
+                .numberOfInputs(numberOfInputs)
+                .numberOfOutputs(1)
+                .numberOfLayers(2)
+                .hiddenLayerSize(hiddenLayerSize)
+                .maxEpochs(maxEpochs)
+                .targetError(0.0)
+                .outputLayerActivationFunction(ActivationFunction.SIGMOID)
+                .build();
+        for (NeuralLayer layer = neuralNetwork.getInputLayer().getNextLayer(); layer != null;
+             layer = layer.getNextLayer()) {
+            double[] weights = layer.getWeights();
+            for (int i = 0; i < weights.length; i++) {
+                weights[i] = random.nextDouble() - 0.5;
+            }
+            double[] biases = layer.getBiases();
+            for (int i = 0; i < biases.length; i++) {
+                biases[i] = random.nextDouble() - 0.5;
+            }
+        }
+        return neuralNetwork;
+    }
+
     private double calculateMeanError(double[] estimatedOutput, double[] expectedOutput) {
         double errorSum = 0.0;
         for (int i = 0; i < estimatedOutput.length; i++) {
@@ -227,4 +471,27 @@ class BackpropagationTest {
         }
         return errorSum / estimatedOutput.length;
     }
+
+    /**
+     * Backpropagation which adjusts weights neuron by neuron after every sample.
+     */
+    private static class PerNeuronBackpropagation extends Backpropagation {
+        PerNeuronBackpropagation(double learningRate) {
+            super(learningRate);
+        }
+
+        @Override
+        protected double train(
+                NeuralNetwork neuralNetwork,
+                double[][] trainingSet,
+                double[][] expectedOutput,
+                int sampleIndex
+        ) {
+            NeuralLayer inputLayer = neuralNetwork.getInputLayer();
+            double[] estimatedOutput = inputLayer.feed(trainingSet[sampleIndex], expectedOutput[sampleIndex]);
+            propagateErrorBack(neuralNetwork);
+            inputLayer.adjustWeights(this);
+            return calculateMeanError(estimatedOutput, expectedOutput[sampleIndex]);
+        }
+    }
 }
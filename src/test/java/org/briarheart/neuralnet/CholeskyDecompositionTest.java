@@ -0,0 +1,39 @@
+package org.briarheart.neuralnet;
+
+import org.briarheart.neuralnet.util.math.CholeskyDecomposition;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Cholesky decomposition based tests.
+ *
+ * @author Roman Chigvintsev
+ */
+class CholeskyDecompositionTest {
+    @Test
+    void shouldSolveSymmetricPositiveDefiniteSystem() {
+        double[] a = {
+                4.0, 12.0, -16.0,
+                12.0, 37.0, -43.0,
+                -16.0, -43.0, 98.0
+        };
+        assertTrue(CholeskyDecomposition.decompose(a, 3));
+        assertArrayEquals(new double[] {2.0, 6.0, -8.0}, new double[] {a[0], a[3], a[6]}, 1e-12);
+        assertArrayEquals(new double[] {1.0, 5.0, 3.0}, new double[] {a[4], a[7], a[8]}, 1e-12);
+
+        // x = (1, -2, 3)
+        double[] b = {4.0 - 24.0 - 48.0, 12.0 - 74.0 - 129.0, -16.0 + 86.0 + 294.0};
+        CholeskyDecomposition.solve(a, 3, b);
+        assertArrayEquals(new double[] {1.0, -2.0, 3.0}, b, 1e-9);
+    }
+
+    @Test
+    void shouldRejectMatrixWhichIsNotPositiveDefinite() {
+        double[] a = {
+                1.0, 2.0,
+                2.0, 1.0
+        };
+        assertFalse(CholeskyDecomposition.decompose(a, 2));
+    }
+}
@@ -0,0 +1,94 @@
+package org.briarheart.neuralnet;
+
+import org.briarheart.neuralnet.activation.ActivationFunction;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests of compiled neural network.
+ *
+ * @author Roman Chigvintsev
+ */
+class CompiledNeuralNetworkTest {
+    private static final double[][] TRAINING_SET = {
+            {1.0, 0.73},
+            {1.0, 0.81},
+            {1.0, 0.86},
+            {1.0, 0.95},
+            {0.0, 0.45},
+            {1.0, 0.70},
+            {0.0, 0.51},
+            {1.0, 0.89},
+            {1.0, 0.79},
+            {0.0, 0.54}
+    };
+    private static final double[][] EXPECTED_OUTPUT = {
+            {1.0, 0.0},
+            {1.0, 0.0},
+            {1.0, 0.0},
+            {1.0, 0.0},
+            {1.0, 0.0},
+            {0.0, 1.0},
+            {0.0, 1.0},
+            {0.0, 1.0},
+            {0.0, 1.0},
+            {0.0, 1.0}
+    };
+
+    @Test
+    void shouldProduceSameOutputAsOriginalNetwork() {
+        NeuralNetwork neuralNetwork = NeuralNetwork.backpropagationBuilder()
+                .numberOfInputs(2)
+                .numberOfOutputs(2)
+                .numberOfLayers(3)
+                .hiddenLayerSize(3)
+                .maxEpochs(100)
+                .learningRate(0.1)
+                .defaultActivationFunction(ActivationFunction.HYPERBOLIC_TANGENT)
+                .outputLayerActivationFunction(ActivationFunction.SIGMOID)
+                .build();
+        neuralNetwork.train(TRAINING_SET, EXPECTED_OUTPUT);
+
+        CompiledNeuralNetwork compiledNeuralNetwork = neuralNetwork.compile();
+        double[] output = new double[2];
+        for (double[] sample : TRAINING_SET) {
+            assertSame(output, compiledNeuralNetwork.feed(sample, output));
+            assertArrayEquals(neuralNetwork.feed(sample), output);
+        }
+    }
+
+    @Test
+    void shouldNotBeAffectedByFurtherTraining() {
+        NeuralNetwork neuralNetwork = NeuralNetwork.backpropagationBuilder()
+                .numberOfInputs(2)
+                .numberOfOutputs(2)
+                .numberOfLayers(2)
+                .hiddenLayerSize(3)
+                .maxEpochs(10)
+                .learningRate(0.1)
+                .build();
+        CompiledNeuralNetwork compiledNeuralNetwork = neuralNetwork.compile();
+        double[][] compiledOutput = new double[TRAINING_SET.length][];
+        for (int i = 0; i < TRAINING_SET.length; i++) {
+            compiledOutput[i] = neuralNetwork.feed(TRAINING_SET[i]);
+        }
+
+        neuralNetwork.train(TRAINING_SET, EXPECTED_OUTPUT);
+
+        for (int i = 0; i < TRAINING_SET.length; i++) {
+            assertArrayEquals(compiledOutput[i], compiledNeuralNetwork.feed(TRAINING_SET[i]));
+        }
+    }
+
+    @Test
+    void shouldRejectKohonenNetwork() {
+        NeuralNetwork neuralNetwork = NeuralNetwork.kohonenBuilder()
+                .numberOfInputs(3)
+                .numberOfOutputs(2)
+                .build();
+        assertThrows(IllegalStateException.class, neuralNetwork::compile);
+    }
+}
@@ -0,0 +1,106 @@
+package org.briarheart.neuralnet;
+
+import org.briarheart.neuralnet.activation.ActivationFunction;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.*;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+/**
+ * Stress tests of feeding the same neural network from several threads at once. Output calculated concurrently must
+ * match output calculated by single thread.
+ *
+ * @author Roman Chigvintsev
+ */
+class ConcurrentFeedTest {
+    private static final int NUMBER_OF_THREADS = 8;
+    private static final int NUMBER_OF_ITERATIONS = 200;
+
+    @Test
+    void shouldFeedNeuralNetworkConcurrently() throws Exception {
+        NeuralNetwork neuralNetwork = createNeuralNetwork();
+        assertConcurrentOutputMatchesSequentialOutput(neuralNetwork::feed);
+    }
+
+    @Test
+    void shouldFeedCompiledNeuralNetworkConcurrently() throws Exception {
+        CompiledNeuralNetwork compiledNeuralNetwork = createNeuralNetwork().compile();
+        assertConcurrentOutputMatchesSequentialOutput(compiledNeuralNetwork::feed);
+    }
+
+    @Test
+    void shouldFeedKohonenNetworkConcurrently() throws Exception {
+        NeuralNetwork neuralNetwork = NeuralNetwork.kohonenBuilder()
+                .numberOfInputs(25)
+                .numberOfOutputs(10)
+                .maxEpochs(10)
+                .learningRate(0.1)
+                .build();
+        neuralNetwork.train(createSamples(50, 25, new Random(7)));
+        assertConcurrentOutputMatchesSequentialOutput(neuralNetwork::feed);
+    }
+
+    private NeuralNetwork createNeuralNetwork() {
+        return NeuralNetwork.backpropagationBuilder()
+                .numberOfInputs(25)
+                .numberOfOutputs(10)
+                .numberOfLayers(3)
+                .hiddenLayerSize(18)
+                .defaultActivationFunction(ActivationFunction.HYPERBOLIC_TANGENT)
+                .outputLayerActivationFunction(ActivationFunction.SIGMOID)
+                .build();
+    }
+
+    private void assertConcurrentOutputMatchesSequentialOutput(Function<double[], double[]> feed) throws Exception {
+        double[][] samples = createSamples(100, 25, new Random(42));
+        double[][] expectedOutput = new double[samples.length][];
+        for (int i = 0; i < samples.length; i++) {
+            expectedOutput[i] = feed.apply(samples[i]);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(NUMBER_OF_THREADS);
+        try {
+            CountDownLatch startSignal = new CountDownLatch(1);
+            List<Future<double[][]>> futures = new ArrayList<>();
+            for (int t = 0; t < NUMBER_OF_THREADS; t++) {
+                int offset = t;
+                futures.add(executor.submit(() -> {
+                    startSignal.await();
+                    double[][] output = new double[samples.length][];
+                    for (int iteration = 0; iteration < NUMBER_OF_ITERATIONS; iteration++) {
+                        for (int i = 0; i < samples.length; i++) {
+                            int sampleIndex = (i + offset) % samples.length;
+                            output[sampleIndex] = feed.apply(samples[sampleIndex]);
+                        }
+                    }
+                    return output;
+                }));
+            }
+            startSignal.countDown();
+
+            for (Future<double[][]> future : futures) {
+                double[][] output = future.get(1, TimeUnit.MINUTES);
+                for (int i = 0; i < samples.length; i++) {
+                    assertArrayEquals(expectedOutput[i], output[i]);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static double[][] createSamples(int numberOfSamples, int numberOfInputs, Random random) {
+        double[][] samples = new double[numberOfSamples][numberOfInputs];
+        for (double[] sample : samples) {
+            for (int i = 0; i < numberOfInputs; i++) {
+                sample[i] = random.nextDouble();
+            }
+        }
+        return samples;
+    }
+}
@@ -0,0 +1,96 @@
+package org.briarheart.neuralnet;
+
+import org.briarheart.neuralnet.activation.ActivationFunction;
+import org.briarheart.neuralnet.util.CsvDataLoader;
+import org.briarheart.neuralnet.util.DataLoader;
+import org.briarheart.neuralnet.util.DataNormalizer;
+import org.briarheart.neuralnet.util.MinMaxDataNormalizer;
+import org.briarheart.neuralnet.util.resource.ClassPathResource;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Early stopping based tests.
+ *
+ * @author Roman Chigvintsev
+ */
+class EarlyStoppingTest {
+    @Test
+    void shouldStopBackpropagationAndRestoreBestWeights() throws IOException {
+        DataLoader dataLoader = new CsvDataLoader();
+        double[][] trainingSet = dataLoader.load(new ClassPathResource("data/breast_cancer_inputs_training.csv"));
+        double[][] expectedOutput = dataLoader.load(new ClassPathResource("data/breast_cancer_output_training.csv"));
+        double[][] validationSet = dataLoader.load(new ClassPathResource("data/breast_cancer_inputs_test.csv"));
+        double[][] validationOutput = dataLoader.load(new ClassPathResource("data/breast_cancer_output_test.csv"));
+
+        DataNormalizer dataNormalizer = new MinMaxDataNormalizer();
+        double[][] normalizedTrainingSet = dataNormalizer.normalize(trainingSet);
+        double[][] normalizedValidationSet = dataNormalizer.normalize(validationSet);
+
+        int maxEpochs = 10000;
+        NeuralNetwork neuralNetwork = NeuralNetwork.backpropagationBuilder()
+                .numberOfInputs(9)
+                .numberOfOutputs(1)
+                .numberOfLayers(2)
+                .hiddenLayerSize(5)
+                .maxEpochs(maxEpochs)
+                .learningRate(0.9)
+                .targetError(0.0)
+                .outputLayerActivationFunction(ActivationFunction.SIGMOID)
+                .validationInterval(5)
+                .patience(10)
+                .build();
+        neuralNetwork.train(normalizedTrainingSet, expectedOutput, normalizedValidationSet, validationOutput);
+
+        Map<Integer, Double> msePerEpoch = neuralNetwork.getMsePerEpoch();
+        Map<Integer, Double> validationMsePerEpoch = neuralNetwork.getValidationMsePerEpoch();
+        assertTrue(msePerEpoch.size() < maxEpochs, "Training was not stopped early");
+        assertEquals(msePerEpoch.size() / 5, validationMsePerEpoch.size());
+        assertTrue(validationMsePerEpoch.keySet().stream().allMatch(epoch -> (epoch + 1) % 5 == 0));
+
+        double bestValidationMse = Collections.min(validationMsePerEpoch.values());
+        double[][] estimatedOutput = neuralNetwork.feedBatch(normalizedValidationSet);
+        assertEquals(bestValidationMse, calculateMse(validationOutput, estimatedOutput), 1e-12);
+    }
+
+    @Test
+    void shouldStopPerceptronWhenValidationErrorDoesNotImprove() {
+        double[][] trainingSet = {
+                {0.0, 0.0},
+                {0.0, 1.0},
+                {1.0, 0.0},
+                {1.0, 1.0}
+        };
+        double[] expectedOutput = {0.0, 0.0, 0.0, 1.0};
+
+        NeuralNetwork neuralNetwork = NeuralNetwork.perceptronBuilder()
+                .numberOfInputs(2)
+                .maxEpochs(1000)
+                .patience(50)
+                .build();
+        neuralNetwork.train(trainingSet, expectedOutput, trainingSet, expectedOutput);
+
+        assertTrue(neuralNetwork.getMsePerEpoch().size() < 1000, "Training was not stopped early");
+        for (int i = 0; i < trainingSet.length; i++) {
+            assertEquals(expectedOutput[i], neuralNetwork.feed(trainingSet[i])[0]);
+        }
+    }
+
+    private double calculateMse(double[][] expectedOutput, double[][] estimatedOutput) {
+        double errorSum = 0.0;
+        for (int i = 0; i < expectedOutput.length; i++) {
+            double sampleErrorSum = 0.0;
+            for (int j = 0; j < expectedOutput[i].length; j++) {
+                double error = expectedOutput[i][j] - estimatedOutput[i][j];
+                sampleErrorSum += error * error;
+            }
+            errorSum += sampleErrorSum / expectedOutput[i].length;
+        }
+        return errorSum / expectedOutput.length;
+    }
+}
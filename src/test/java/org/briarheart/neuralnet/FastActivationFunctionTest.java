@@ -0,0 +1,109 @@
+package org.briarheart.neuralnet;
+
+import org.briarheart.neuralnet.activation.ActivationFunction;
+import org.briarheart.neuralnet.layer.NeuralLayer;
+import org.briarheart.neuralnet.util.CsvDataLoader;
+import org.briarheart.neuralnet.util.DataLoader;
+import org.briarheart.neuralnet.util.MinMaxDataNormalizer;
+import org.briarheart.neuralnet.util.MinMaxEqualizedDataNormalizer;
+import org.briarheart.neuralnet.util.resource.ClassPathResource;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.function.DoubleUnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests of table-based approximations of activation functions.
+ *
+ * @author Roman Chigvintsev
+ */
+class FastActivationFunctionTest {
+    @Test
+    void shouldNotExceedDocumentedMaxError() {
+        assertMaxError(ActivationFunction.HYPERBOLIC_TANGENT, ActivationFunction.FAST_HYPERBOLIC_TANGENT, 6e-6);
+        assertMaxError(ActivationFunction.SIGMOID, ActivationFunction.FAST_SIGMOID, 3e-6);
+        assertMaxError(ActivationFunction.HYPERBOLIC_TANGENT.getDerivative(),
+                ActivationFunction.FAST_HYPERBOLIC_TANGENT.getDerivative(), 1.2e-5);
+        assertTrue(Double.isNaN(ActivationFunction.FAST_HYPERBOLIC_TANGENT.apply(Double.NaN)));
+        assertEquals(1.0, ActivationFunction.FAST_SIGMOID.apply(Double.POSITIVE_INFINITY));
+        assertEquals(0.0, ActivationFunction.FAST_SIGMOID.apply(Double.NEGATIVE_INFINITY));
+    }
+
+    @Test
+    void shouldSelectFastActivationFunctionsInBuilder() {
+        NeuralNetwork neuralNetwork = NeuralNetwork.backpropagationBuilder()
+                .numberOfInputs(2)
+                .numberOfOutputs(1)
+                .numberOfLayers(3)
+                .defaultActivationFunction(ActivationFunction.HYPERBOLIC_TANGENT)
+                .outputLayerActivationFunction(ActivationFunction.SIGMOID)
+                .fastActivationFunctions(true)
+                .build();
+        NeuralLayer layer = neuralNetwork.getInputLayer().getNextLayer();
+        assertSame(ActivationFunction.FAST_HYPERBOLIC_TANGENT, layer.getActivationFunction());
+        assertSame(ActivationFunction.FAST_HYPERBOLIC_TANGENT, layer.getNextLayer().getActivationFunction());
+        assertSame(ActivationFunction.FAST_SIGMOID, neuralNetwork.getOutputLayer().getActivationFunction());
+
+        neuralNetwork = NeuralNetwork.backpropagationBuilder().fastActivationFunctions(true).build();
+        assertSame(ActivationFunction.LINEAR, neuralNetwork.getOutputLayer().getActivationFunction());
+    }
+
+    @Test
+    void shouldConvergeLikeExactActivationFunctions() throws IOException {
+        DataLoader dataLoader = new CsvDataLoader();
+        assertConvergence("breast_cancer", new MinMaxDataNormalizer().normalize(
+                dataLoader.load(new ClassPathResource("data/breast_cancer_inputs_training.csv"))),
+                dataLoader.load(new ClassPathResource("data/breast_cancer_output_training.csv")));
+        assertConvergence("diabetes", new MinMaxEqualizedDataNormalizer().normalize(
+                dataLoader.load(new ClassPathResource("data/diabetes_inputs_training.csv"))),
+                dataLoader.load(new ClassPathResource("data/diabetes_output_training.csv")));
+    }
+
+    private void assertConvergence(String dataset, double[][] trainingSet, double[][] expectedOutput) {
+        NeuralNetwork exact = createNeuralNetwork(trainingSet[0].length, expectedOutput[0].length, false);
+        NeuralNetwork fast = createNeuralNetwork(trainingSet[0].length, expectedOutput[0].length, true);
+        NeuralLayer exactLayer = exact.getInputLayer().getNextLayer();
+        NeuralLayer fastLayer = fast.getInputLayer().getNextLayer();
+        for (; exactLayer != null; exactLayer = exactLayer.getNextLayer(), fastLayer = fastLayer.getNextLayer()) {
+            System.arraycopy(exactLayer.getWeights(), 0, fastLayer.getWeights(), 0, exactLayer.getWeights().length);
+            System.arraycopy(exactLayer.getBiases(), 0, fastLayer.getBiases(), 0, exactLayer.getBiases().length);
+        }
+
+        exact.train(trainingSet, expectedOutput);
+        fast.train(trainingSet, expectedOutput);
+
+        Map<Integer, Double> exactMse = exact.getMsePerEpoch();
+        Map<Integer, Double> fastMse = fast.getMsePerEpoch();
+        double lastFastMse = fastMse.get(fastMse.size() - 1);
+        double lastExactMse = exactMse.get(exactMse.size() - 1);
+        assertTrue(lastFastMse < fastMse.get(0), "Mean squared error has not decreased on " + dataset);
+        assertEquals(lastExactMse, lastFastMse, 1e-3,
+                "Fast activation functions have not converged like exact ones on " + dataset);
+    }
+
+    private NeuralNetwork createNeuralNetwork(int numberOfInputs, int numberOfOutputs,
+                                              boolean fastActivationFunctions) {
+        return NeuralNetwork.backpropagationBuilder()
+                .numberOfInputs(numberOfInputs)
+                .numberOfOutputs(numberOfOutputs)
+                .numberOfLayers(2)
+                .hiddenLayerSize(5)
+                .maxEpochs(100)
+                .learningRate(0.5)
+                .targetError(0.0)
+                .defaultActivationFunction(ActivationFunction.HYPERBOLIC_TANGENT)
+                .outputLayerActivationFunction(ActivationFunction.SIGMOID)
+                .fastActivationFunctions(fastActivationFunctions)
+                .build();
+    }
+
+    private void assertMaxError(DoubleUnaryOperator exact, DoubleUnaryOperator approximation, double maxError) {
+        for (double x = -20.0; x <= 20.0; x += 1e-4) {
+            double error = Math.abs(exact.applyAsDouble(x) - approximation.applyAsDouble(x));
+            assertTrue(error < maxError, "Error " + error + " at " + x + " exceeds " + maxError);
+        }
+    }
+}
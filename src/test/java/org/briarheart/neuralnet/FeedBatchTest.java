@@ -0,0 +1,63 @@
+package org.briarheart.neuralnet;
+
+import org.briarheart.neuralnet.activation.ActivationFunction;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+/**
+ * Tests of batched feed. Output calculated for a batch of samples must match output calculated for every sample
+ * separately.
+ *
+ * @author Roman Chigvintsev
+ */
+class FeedBatchTest {
+    @Test
+    void shouldFeedBatchToMultilayerNetwork() {
+        NeuralNetwork neuralNetwork = NeuralNetwork.backpropagationBuilder()
+                .numberOfInputs(9)
+                .numberOfOutputs(3)
+                .numberOfLayers(3)
+                .hiddenLayerSize(12)
+                .defaultActivationFunction(ActivationFunction.HYPERBOLIC_TANGENT)
+                .outputLayerActivationFunction(ActivationFunction.SIGMOID)
+                .build();
+        double[][] samples = createSamples(150, 9);
+
+        double[][] output = new double[samples.length][3];
+        neuralNetwork.feedBatch(samples, output);
+        for (int i = 0; i < samples.length; i++) {
+            assertArrayEquals(neuralNetwork.feed(samples[i]), output[i]);
+        }
+    }
+
+    @Test
+    void shouldFeedBatchToKohonenNetwork() {
+        NeuralNetwork neuralNetwork = NeuralNetwork.kohonenBuilder()
+                .numberOfInputs(4)
+                .numberOfOutputs(3)
+                .maxEpochs(10)
+                .learningRate(0.1)
+                .build();
+        double[][] samples = createSamples(150, 4);
+        neuralNetwork.train(samples);
+
+        double[][] output = neuralNetwork.feedBatch(samples);
+        for (int i = 0; i < samples.length; i++) {
+            assertArrayEquals(neuralNetwork.feed(samples[i]), output[i]);
+        }
+    }
+
+    private static double[][] createSamples(int numberOfSamples, int numberOfInputs) {
+        Random random = new Random(42);
+        double[][] samples = new double[numberOfSamples][numberOfInputs];
+        for (double[] sample : samples) {
+            for (int i = 0; i < numberOfInputs; i++) {
+                sample[i] = random.nextDouble();
+            }
+        }
+        return samples;
+    }
+}
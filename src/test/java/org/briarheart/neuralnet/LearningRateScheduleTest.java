@@ -0,0 +1,101 @@
+package org.briarheart.neuralnet;
+
+import org.briarheart.neuralnet.activation.ActivationFunction;
+import org.briarheart.neuralnet.training.schedule.*;
+import org.briarheart.neuralnet.training.schedule.LearningRateSchedule.Interval;
+import org.briarheart.neuralnet.util.CsvDataLoader;
+import org.briarheart.neuralnet.util.DataLoader;
+import org.briarheart.neuralnet.util.resource.ClassPathResource;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Learning rate schedule based tests.
+ *
+ * @author Roman Chigvintsev
+ */
+class LearningRateScheduleTest {
+    private static final double DELTA = 1e-12;
+
+    @Test
+    void shouldDecayLearningRateEveryStepSize() {
+        LearningRateSchedule schedule = new StepDecay(10, 0.5);
+        assertEquals(0.8, schedule.getLearningRate(0.8, 9, 100), DELTA);
+        assertEquals(0.4, schedule.getLearningRate(0.8, 10, 100), DELTA);
+        assertEquals(0.2, schedule.getLearningRate(0.8, 25, 100), DELTA);
+    }
+
+    @Test
+    void shouldDecayLearningRateExponentiallyDownToMinimum() {
+        LearningRateSchedule schedule = new ExponentialDecay(0.5, Interval.STEP, 0.1);
+        assertEquals(0.4, schedule.getLearningRate(0.8, 0, 1), DELTA);
+        assertEquals(0.1, schedule.getLearningRate(0.8, 0, 3), DELTA);
+        assertEquals(0.1, schedule.getLearningRate(0.8, 0, 10), DELTA);
+        assertEquals(0.05, schedule.getLearningRate(0.05, 0, 10), DELTA);
+    }
+
+    @Test
+    void shouldAnnealLearningRateAlongCosine() {
+        LearningRateSchedule schedule = new CosineAnnealing(100, 0.1, Interval.EPOCH);
+        assertEquals(0.9, schedule.getLearningRate(0.9, 0, 0), DELTA);
+        assertEquals(0.5, schedule.getLearningRate(0.9, 50, 0), DELTA);
+        assertEquals(0.1, schedule.getLearningRate(0.9, 100, 0), DELTA);
+        assertEquals(0.1, schedule.getLearningRate(0.9, 200, 0), DELTA);
+    }
+
+    @Test
+    void shouldWarmUpLearningRateLinearly() {
+        LearningRateSchedule schedule = new Warmup(4, Interval.STEP);
+        assertEquals(0.25, schedule.getLearningRate(1.0, 0, 0), DELTA);
+        assertEquals(0.75, schedule.getLearningRate(1.0, 0, 2), DELTA);
+        assertEquals(1.0, schedule.getLearningRate(1.0, 0, 3), DELTA);
+        assertEquals(1.0, schedule.getLearningRate(1.0, 0, 100), DELTA);
+    }
+
+    @Test
+    void shouldReduceLearningRateOnPlateau() {
+        LearningRateSchedule schedule = new ReduceOnPlateau(0.5, 2);
+        schedule.onEpochEnd(0, 0.3);
+        schedule.onEpochEnd(1, 0.2);
+        assertEquals(1.0, schedule.getLearningRate(1.0, 2, 0), DELTA);
+        schedule.onEpochEnd(2, 0.2);
+        schedule.onEpochEnd(3, 0.25);
+        assertEquals(0.5, schedule.getLearningRate(1.0, 4, 0), DELTA);
+        schedule.onEpochEnd(4, 0.1);
+        assertEquals(0.5, schedule.getLearningRate(1.0, 5, 0), DELTA);
+
+        schedule.initialize();
+        assertEquals(1.0, schedule.getLearningRate(1.0, 0, 0), DELTA);
+    }
+
+    @Test
+    void shouldRecognizeDigitsWithCosineAnnealing() throws IOException {
+        DataLoader dataLoader = new CsvDataLoader();
+        double[][] trainingSet = dataLoader.load(new ClassPathResource("data/ocr_traning_inputs.csv"));
+        double[][] expectedOutput = dataLoader.load(new ClassPathResource("data/ocr_traning_outputs.csv"));
+
+        double targetError = 0.001;
+        NeuralNetwork neuralNetwork = NeuralNetwork.onlineBackpropagationBuilder()
+                .numberOfInputs(25)
+                .numberOfOutputs(10)
+                .numberOfLayers(2)
+                .hiddenLayerSize(18)
+                .maxEpochs(6000)
+                .learningRate(0.7)
+                .learningRateSchedule(new CosineAnnealing(6000, 0.1, Interval.EPOCH))
+                .targetError(targetError)
+                .outputLayerActivationFunction(ActivationFunction.SIGMOID)
+                .build();
+        neuralNetwork.train(trainingSet, expectedOutput);
+
+        Map<Integer, Double> msePerEpoch = neuralNetwork.getMsePerEpoch();
+        double mse = msePerEpoch.get(msePerEpoch.size() - 1);
+        assertTrue(mse <= targetError, "Mean squared error <" + mse + "> after <" + msePerEpoch.size()
+                + "> epochs is greater than target error <" + targetError + ">");
+    }
+}
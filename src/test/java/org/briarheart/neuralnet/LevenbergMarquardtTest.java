@@ -1,7 +1,19 @@
 package org.briarheart.neuralnet;
 
+import org.briarheart.neuralnet.layer.NeuralLayer;
+import org.briarheart.neuralnet.training.LevenbergMarquardt;
+import org.briarheart.neuralnet.util.CsvDataLoader;
+import org.briarheart.neuralnet.util.DataLoader;
+import org.briarheart.neuralnet.util.MinMaxEqualizedDataNormalizer;
+import org.briarheart.neuralnet.util.resource.ClassPathResource;
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
@@ -11,6 +23,11 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
  * @author Roman Chigvintsev
  */
 public class LevenbergMarquardtTest {
+    /**
+     * Tolerance of weights which may only differ by order in which partial sums of normal equations are added.
+     */
+    private static final double SUMMATION_ORDER_DELTA = 1e-10;
+
     @Test
     void shouldPredictEnrollmentStatus() {
         /*
@@ -63,6 +80,204 @@ public class LevenbergMarquardtTest {
         }
     }
 
+    /**
+     * Streaming accumulation of normal matrix must give the same weights as multiplication of stored Jacobian matrix.
+     */
+    @Test
+    void shouldGiveSameResultsInStreamingAndDenseModes() {
+        double[][] trainingSet = {
+                {1.0, 0.73},
+                {1.0, 0.81},
+                {1.0, 0.86},
+                {1.0, 0.95},
+                {0.0, 0.45},
+                {1.0, 0.70},
+                {0.0, 0.51},
+                {1.0, 0.89},
+                {1.0, 0.79},
+                {0.0, 0.54}
+        };
+        double[][] expectedOutput = {
+                {1.0, 0.0},
+                {1.0, 0.0},
+                {1.0, 0.0},
+                {1.0, 0.0},
+                {1.0, 0.0},
+                {0.0, 1.0},
+                {0.0, 1.0},
+                {0.0, 1.0},
+                {0.0, 1.0},
+                {0.0, 1.0}
+        };
+        NeuralNetwork streaming = createNeuralNetwork(true);
+        NeuralNetwork dense = createNeuralNetwork(false);
+        copyWeights(streaming, dense);
+
+        streaming.train(trainingSet, expectedOutput);
+        dense.train(trainingSet, expectedOutput);
+
+        NeuralLayer streamingLayer = streaming.getInputLayer().getNextLayer();
+        NeuralLayer denseLayer = dense.getInputLayer().getNextLayer();
+        while (streamingLayer != null) {
+            assertArrayEquals(denseLayer.getWeights(), streamingLayer.getWeights());
+            assertArrayEquals(denseLayer.getBiases(), streamingLayer.getBiases());
+            streamingLayer = streamingLayer.getNextLayer();
+            denseLayer = denseLayer.getNextLayer();
+        }
+    }
+
+    /**
+     * Two networks with the same initial weights trained by the same number of threads must end up with the same
+     * weights.
+     */
+    @Test
+    void shouldBeDeterministicForFixedNumberOfThreads() throws IOException {
+        DataLoader dataLoader = new CsvDataLoader();
+        double[][] trainingSet = dataLoader.load(new ClassPathResource("data/diabetes_inputs_training.csv"));
+        double[][] expectedOutput = dataLoader.load(new ClassPathResource("data/diabetes_output_training.csv"));
+        trainingSet = new MinMaxEqualizedDataNormalizer().normalize(trainingSet);
+
+        NeuralNetwork first = createNeuralNetwork(8, 2, true, 3);
+        NeuralNetwork second = createNeuralNetwork(8, 2, true, 3);
+        copyWeights(first, second);
+
+        first.train(trainingSet, expectedOutput);
+        second.train(trainingSet, expectedOutput);
+
+        NeuralLayer firstLayer = first.getInputLayer().getNextLayer();
+        NeuralLayer secondLayer = second.getInputLayer().getNextLayer();
+        while (firstLayer != null) {
+            assertArrayEquals(firstLayer.getWeights(), secondLayer.getWeights());
+            assertArrayEquals(firstLayer.getBiases(), secondLayer.getBiases());
+            firstLayer = firstLayer.getNextLayer();
+            secondLayer = secondLayer.getNextLayer();
+        }
+
+        Map<Integer, Double> msePerEpoch = first.getMsePerEpoch();
+        assertTrue(msePerEpoch.get(msePerEpoch.size() - 1) < msePerEpoch.get(0),
+                "Mean squared error has not decreased during training");
+    }
+
+    /**
+     * Number of worker threads must only change order in which normal equations are summed, not the algorithm. Few
+     * epochs from seeded weights are run, so that differences in the last bits do not grow into different decisions
+     * on damping.
+     */
+    @Test
+    void shouldGiveSameResultsForAnyNumberOfThreads() throws IOException {
+        DataLoader dataLoader = new CsvDataLoader();
+        double[][] trainingSet = dataLoader.load(new ClassPathResource("data/diabetes_inputs_training.csv"));
+        double[][] expectedOutput = dataLoader.load(new ClassPathResource("data/diabetes_output_training.csv"));
+        trainingSet = new MinMaxEqualizedDataNormalizer().normalize(trainingSet);
+
+        NeuralNetwork singleThread = createNeuralNetwork(8, 2, 1, 20);
+        NeuralNetwork threeThreads = createNeuralNetwork(8, 2, 3, 20);
+        initializeWeights(singleThread, new Random(42));
+        copyWeights(singleThread, threeThreads);
+
+        singleThread.train(trainingSet, expectedOutput);
+        threeThreads.train(trainingSet, expectedOutput);
+
+        assertEquals(singleThread.getMsePerEpoch().size(), threeThreads.getMsePerEpoch().size());
+        NeuralLayer singleThreadLayer = singleThread.getInputLayer().getNextLayer();
+        NeuralLayer threeThreadsLayer = threeThreads.getInputLayer().getNextLayer();
+        while (singleThreadLayer != null) {
+            assertArrayEquals(singleThreadLayer.getWeights(), threeThreadsLayer.getWeights(), SUMMATION_ORDER_DELTA);
+            assertArrayEquals(singleThreadLayer.getBiases(), threeThreadsLayer.getBiases(), SUMMATION_ORDER_DELTA);
+            singleThreadLayer = singleThreadLayer.getNextLayer();
+            threeThreadsLayer = threeThreadsLayer.getNextLayer();
+        }
+    }
+
+    /**
+     * Block-diagonal approximations of normal matrix must still decrease error.
+     */
+    @Test
+    void shouldDecreaseErrorWithBlockDiagonalApproximation() throws IOException {
+        DataLoader dataLoader = new CsvDataLoader();
+        double[][] trainingSet = dataLoader.load(new ClassPathResource("data/diabetes_inputs_training.csv"));
+        double[][] expectedOutput = dataLoader.load(new ClassPathResource("data/diabetes_output_training.csv"));
+        trainingSet = new MinMaxEqualizedDataNormalizer().normalize(trainingSet);
+
+        for (LevenbergMarquardt.BlockStructure blockStructure : new LevenbergMarquardt.BlockStructure[] {
+                LevenbergMarquardt.BlockStructure.LAYER, LevenbergMarquardt.BlockStructure.NEURON}) {
+            NeuralNetwork neuralNetwork = NeuralNetwork.levenbergMarquardtBuilder()
+                    .numberOfInputs(8)
+                    .numberOfOutputs(2)
+                    .numberOfLayers(2)
+                    .hiddenLayerSize(3)
+                    .maxEpochs(50)
+                    .learningRate(0.1)
+                    .targetError(0.002)
+                    .blockStructure(blockStructure)
+                    .build();
+            neuralNetwork.train(trainingSet, expectedOutput);
+
+            Map<Integer, Double> msePerEpoch = neuralNetwork.getMsePerEpoch();
+            assertTrue(msePerEpoch.get(msePerEpoch.size() - 1) < msePerEpoch.get(0),
+                    "Mean squared error has not decreased during training with " + blockStructure + " blocks");
+        }
+    }
+
+    private NeuralNetwork createNeuralNetwork(boolean streaming) {
+        return createNeuralNetwork(2, 2, streaming, 0);
+    }
+
+    private NeuralNetwork createNeuralNetwork(int numberOfInputs, int numberOfOutputs, boolean streaming,
+                                              int numberOfThreads) {
+        return NeuralNetwork.levenbergMarquardtBuilder()
+                .numberOfInputs(numberOfInputs)
+                .numberOfOutputs(numberOfOutputs)
+                .numberOfLayers(2)
+                .hiddenLayerSize(3)
+                .maxEpochs(100)
+                .learningRate(0.1)
+                .targetError(0.002)
+                .streaming(streaming)
+                .numberOfThreads(numberOfThreads)
+                .build();
+    }
+
+    private NeuralNetwork createNeuralNetwork(int numberOfInputs, int numberOfOutputs, int numberOfThreads,
+                                              int maxEpochs) {
+        return NeuralNetwork.levenbergMarquardtBuilder()
+                .numberOfInputs(numberOfInputs)
+                .numberOfOutputs(numberOfOutputs)
+                .numberOfLayers(2)
+                .hiddenLayerSize(3)
+                .maxEpochs(maxEpochs)
+                .learningRate(0.1)
+                .targetError(0.0)
+                .numberOfThreads(numberOfThreads)
+                .build();
+    }
+
+    private void initializeWeights(NeuralNetwork neuralNetwork, Random random) {
+        for (NeuralLayer layer = neuralNetwork.getInputLayer().getNextLayer(); layer != null;
+             layer = layer.getNextLayer()) {
+            double[] weights = layer.getWeights();
+            for (int i = 0; i < weights.length; i++) {
+                weights[i] = random.nextDouble() - 0.5;
+            }
+            double[] biases = layer.getBiases();
+            for (int i = 0; i < biases.length; i++) {
+                biases[i] = random.nextDouble() - 0.5;
+            }
+        }
+    }
+
+    private void copyWeights(NeuralNetwork source, NeuralNetwork target) {
+        NeuralLayer sourceLayer = source.getInputLayer().getNextLayer();
+        NeuralLayer targetLayer = target.getInputLayer().getNextLayer();
+        while (sourceLayer != null) {
+            System.arraycopy(sourceLayer.getWeights(), 0, targetLayer.getWeights(), 0,
+                    sourceLayer.getWeights().length);
+            System.arraycopy(sourceLayer.getBiases(), 0, targetLayer.getBiases(), 0, sourceLayer.getBiases().length);
+            sourceLayer = sourceLayer.getNextLayer();
+            targetLayer = targetLayer.getNextLayer();
+        }
+    }
+
     private double calculateMeanError(double[] estimatedOutput, double[] expectedOutput) {
         double errorSum = 0.0;
         for (int i = 0; i < estimatedOutput.length; i++) {
@@ -0,0 +1,80 @@
+package org.briarheart.neuralnet;
+
+import org.briarheart.neuralnet.util.math.LuDecomposition;
+import org.briarheart.neuralnet.util.math.Matrix;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * LU decomposition based tests.
+ *
+ * @author Roman Chigvintsev
+ */
+class LuDecompositionTest {
+    @Test
+    void shouldDecomposeMatrixWithZeroOnDiagonal() {
+        Matrix a = createMatrix(new double[][] {
+                {0.0, 2.0, 1.0},
+                {1.0, 1.0, 0.0},
+                {3.0, 0.0, 1.0}
+        });
+        LuDecomposition lu = new LuDecomposition(a);
+        assertFalse(lu.isSingular());
+
+        // L·U = P·A
+        Matrix product = lu.getL().multiply(lu.getU());
+        int[] pivot = lu.getPivot();
+        for (int i = 0; i < 3; i++) {
+            for (int j = 0; j < 3; j++) {
+                assertEquals(a.get(pivot[i], j), product.get(i, j), 1e-12);
+            }
+        }
+        assertEquals(-5.0, lu.determinant(), 1e-12);
+        assertEquals(-5.0, a.getDeterminant(), 1e-12);
+    }
+
+    @Test
+    void shouldSolveLinearSystemAndInverseMatrix() {
+        Matrix a = createMatrix(new double[][] {
+                {1e-20, 1.0, 0.0},
+                {1.0, 1.0, 1.0},
+                {0.0, 1.0, 3.0}
+        });
+        // x = (1, 2, -1)
+        Matrix b = createMatrix(new double[][] {{2.0}, {2.0}, {-1.0}});
+
+        LuDecomposition lu = new LuDecomposition(a);
+        Matrix x = lu.solve(b);
+        assertArrayEquals(new double[] {1.0, 2.0, -1.0}, new double[] {x.get(0, 0), x.get(1, 0), x.get(2, 0)}, 1e-12);
+
+        Matrix identity = a.multiply(lu.inverse());
+        for (int i = 0; i < 3; i++) {
+            for (int j = 0; j < 3; j++) {
+                assertEquals(i == j ? 1.0 : 0.0, identity.get(i, j), 1e-12);
+            }
+        }
+    }
+
+    @Test
+    void shouldDetectSingularMatrix() {
+        Matrix a = createMatrix(new double[][] {
+                {1.0, 2.0, 3.0},
+                {2.0, 4.0, 6.0},
+                {1.0, 0.0, 1.0}
+        });
+        LuDecomposition lu = new LuDecomposition(a);
+        assertTrue(lu.isSingular());
+        assertEquals(0.0, lu.determinant());
+        assertThrows(IllegalStateException.class, lu::inverse);
+        assertThrows(IllegalArgumentException.class, a::inverse);
+    }
+
+    private Matrix createMatrix(double[][] rows) {
+        Matrix result = new Matrix(rows.length, rows[0].length);
+        for (int i = 0; i < rows.length; i++) {
+            result.copyRow(i, rows[i]);
+        }
+        return result;
+    }
+}
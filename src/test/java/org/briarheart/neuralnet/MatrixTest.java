@@ -0,0 +1,256 @@
+package org.briarheart.neuralnet;
+
+import org.briarheart.neuralnet.util.math.DiagonalMatrix;
+import org.briarheart.neuralnet.util.math.IdentityMatrix;
+import org.briarheart.neuralnet.util.math.Matrix;
+import org.briarheart.neuralnet.util.math.SymmetricMatrix;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Matrix operation based tests.
+ *
+ * @author Roman Chigvintsev
+ */
+class MatrixTest {
+    @Test
+    void shouldMultiplyMatricesLargerThanBlock() {
+        Random random = new Random(42);
+        Matrix a = createRandomMatrix(70, 130, random);
+        Matrix b = createRandomMatrix(130, 65, random);
+
+        Matrix product = a.multiply(b);
+
+        assertEquals(new Matrix.Size(70, 65), product.getSize());
+        for (int i = 0; i < 70; i++) {
+            for (int j = 0; j < 65; j++) {
+                double value = 0.0;
+                for (int k = 0; k < 130; k++) {
+                    value += a.get(i, k) * b.get(k, j);
+                }
+                assertEquals(value, product.get(i, j));
+            }
+        }
+    }
+
+    /**
+     * Parallel operations must give exactly the same results as serial ones.
+     */
+    @Test
+    void shouldGiveSameResultsInParallel() {
+        Random random = new Random(42);
+        Matrix a = createRandomMatrix(300, 300, random);
+        Matrix b = createRandomMatrix(300, 300, random);
+
+        ForkJoinPool serialPool = new ForkJoinPool(1);
+        ForkJoinPool parallelPool = new ForkJoinPool(4);
+        try {
+            assertArrayEquals(Matrix.multiply(a, b, serialPool).toArray(),
+                    Matrix.multiply(a, b, parallelPool).toArray());
+            assertArrayEquals(Matrix.add(a, b, serialPool).toArray(), Matrix.add(a, b, parallelPool).toArray());
+            assertArrayEquals(Matrix.multiplyScalar(a, 0.5, serialPool).toArray(),
+                    Matrix.multiplyScalar(a, 0.5, parallelPool).toArray());
+            assertArrayEquals(Matrix.transpose(a, serialPool).toArray(),
+                    Matrix.transpose(a, parallelPool).toArray());
+            assertArrayEquals(Matrix.inverse(a, serialPool).toArray(), Matrix.inverse(a, parallelPool).toArray());
+        } finally {
+            serialPool.shutdown();
+            parallelPool.shutdown();
+        }
+    }
+
+    @Test
+    void shouldMultiplyTransposedMatrix() {
+        Random random = new Random(42);
+        Matrix a = createRandomMatrix(90, 70, random);
+        Matrix x = createRandomMatrix(90, 2, random);
+
+        assertMatrixEquals(a.transpose().multiply(a), a.transposeMultiply(), 1e-12);
+        assertMatrixEquals(a.transpose().multiply(x), a.transposeMultiply(x), 1e-12);
+    }
+
+    @Test
+    void shouldUseStructureOfMatrices() {
+        Random random = new Random(42);
+        Matrix a = createRandomMatrix(4, 4, random);
+        DiagonalMatrix d = new DiagonalMatrix(1.0, 2.0, 3.0, 4.0);
+        SymmetricMatrix s = createRandomMatrix(5, 4, random).transposeMultiply();
+
+        Matrix denseD = new Matrix(d);
+        Matrix denseS = new Matrix(s);
+        assertMatrixEquals(denseD.multiply(a), Matrix.multiply(d, a), 0.0);
+        assertMatrixEquals(d.multiply(a), Matrix.multiply(denseD, a), 0.0);
+        assertMatrixEquals(a.multiply(d), Matrix.multiply(a, denseD), 0.0);
+        assertMatrixEquals(a.add(d), Matrix.add(a, denseD), 0.0);
+        assertMatrixEquals(new IdentityMatrix(4).multiply(a), a, 0.0);
+
+        Matrix damped = s.add(new IdentityMatrix(4).multiplyScalar(0.1));
+        assertTrue(damped instanceof SymmetricMatrix);
+        assertMatrixEquals(Matrix.add(denseS, Matrix.multiplyScalar(new IdentityMatrix(4), 0.1)), damped, 0.0);
+        assertTrue(s.add(s) instanceof SymmetricMatrix);
+        assertMatrixEquals(Matrix.add(denseS, denseS), s.add(s), 0.0);
+
+        assertEquals(24.0, d.getDeterminant());
+        assertMatrixEquals(new DiagonalMatrix(1.0, 0.5, 1.0 / 3.0, 0.25), d.inverse(), 0.0);
+    }
+
+    @Test
+    void shouldShareElementsWithViews() {
+        Matrix a = createRandomMatrix(5, 4, new Random(42));
+        Matrix submatrix = a.submatrix(1, 2, 3, 2);
+        Matrix transposed = a.transposedView();
+
+        assertEquals(new Matrix.Size(3, 2), submatrix.getSize());
+        assertEquals(a.get(2, 3), submatrix.get(1, 1));
+        assertEquals(a.get(2, 3), transposed.get(3, 2));
+
+        submatrix.set(1, 1, 42.0);
+        assertEquals(42.0, a.get(2, 3));
+        assertEquals(42.0, transposed.get(3, 2));
+        assertEquals(42.0, a.row(2).get(0, 3));
+        assertEquals(42.0, a.column(3).get(2, 0));
+
+        a.transposedView().column(1).copyRow(3, new double[] {7.0});
+        assertEquals(7.0, a.get(1, 3));
+    }
+
+    @Test
+    void shouldRejectNegativeIndices() {
+        Matrix a = createRandomMatrix(3, 3, new Random(42));
+        Matrix submatrix = a.submatrix(1, 1, 2, 2);
+        double[] elements = a.toArray()[0];
+
+        assertThrows(IllegalArgumentException.class, () -> a.get(1, -1));
+        assertThrows(IllegalArgumentException.class, () -> a.get(-1, 1));
+        assertThrows(IllegalArgumentException.class, () -> submatrix.get(0, -1));
+        assertThrows(IllegalArgumentException.class, () -> submatrix.set(-1, 0, 42.0));
+        assertThrows(IllegalArgumentException.class, () -> new SymmetricMatrix(3).get(-1, 0));
+        assertThrows(IllegalArgumentException.class, () -> new DiagonalMatrix(1.0, 2.0).get(0, -1));
+        assertArrayEquals(elements, a.toArray()[0]);
+    }
+
+    @Test
+    void shouldRejectInvalidRowOnCopy() {
+        Matrix a = createRandomMatrix(3, 3, new Random(42));
+        Matrix submatrix = a.submatrix(1, 1, 2, 2);
+        double[][] elements = a.toArray();
+
+        assertThrows(IllegalArgumentException.class, () -> submatrix.copyRow(2, new double[] {1.0, 2.0}));
+        assertThrows(IllegalArgumentException.class, () -> submatrix.copyRow(-1, new double[] {1.0, 2.0}));
+        assertThrows(IllegalArgumentException.class, () -> submatrix.copyRow(0, new double[] {1.0}));
+        assertThrows(IllegalArgumentException.class, () -> a.transposedView().copyRow(3, new double[3]));
+        assertThrows(NullPointerException.class, () -> a.copyRow(0, null));
+        assertThrows(IllegalArgumentException.class, () -> a.sumRowByRow(-1, 0, 1.0));
+        assertArrayEquals(elements, a.toArray());
+
+        submatrix.copyRow(1, new double[] {1.0, 2.0, 3.0});
+        assertEquals(1.0, a.get(2, 1));
+        assertEquals(2.0, a.get(2, 2));
+    }
+
+    /**
+     * Matrices with special structure are their own transposed views. Other views are only available after copying
+     * them to dense matrix.
+     */
+    @Test
+    void shouldRestrictViewsOfStructuredMatrices() {
+        SymmetricMatrix s = new SymmetricMatrix(3);
+        s.set(2, 0, 5.0);
+        DiagonalMatrix d = new DiagonalMatrix(1.0, 2.0, 3.0);
+        IdentityMatrix identity = new IdentityMatrix(3);
+
+        for (Matrix m : new Matrix[] {s, d, identity}) {
+            assertSame(m, m.transposedView());
+            UnsupportedOperationException e = assertThrows(UnsupportedOperationException.class,
+                    () -> m.submatrix(0, 0, 2, 2));
+            assertNotNull(e.getMessage());
+            assertThrows(UnsupportedOperationException.class, () -> m.row(0));
+            assertThrows(UnsupportedOperationException.class, () -> m.column(0));
+
+            Matrix dense = new Matrix(m);
+            assertMatrixEquals(m, dense.transposedView(), 0.0);
+            assertEquals(m.get(2, 0), dense.submatrix(1, 0, 2, 2).get(1, 0));
+            assertEquals(m.get(2, 0), dense.row(2).get(0, 0));
+        }
+        assertEquals(5.0, s.transposedView().get(0, 2));
+        assertMatrixEquals(s.multiply(d), s.transposedView().multiply(d.transposedView()), 0.0);
+    }
+
+    @Test
+    void shouldUseViewsAsOperands() {
+        Random random = new Random(42);
+        Matrix a = createRandomMatrix(80, 90, random);
+        Matrix b = createRandomMatrix(90, 80, random);
+
+        Matrix aPart = a.submatrix(3, 5, 70, 70);
+        Matrix bTransposed = b.transposedView().submatrix(2, 1, 70, 70);
+        Matrix aCopy = new Matrix(aPart);
+        Matrix bCopy = new Matrix(bTransposed);
+
+        assertMatrixEquals(aCopy.multiply(bCopy), aPart.multiply(bTransposed), 0.0);
+        assertMatrixEquals(bCopy.multiply(aCopy), bTransposed.multiply(aPart), 0.0);
+        assertMatrixEquals(aCopy.add(bCopy), aPart.add(bTransposed), 0.0);
+        assertMatrixEquals(bCopy.multiplyScalar(0.5), bTransposed.multiplyScalar(0.5), 0.0);
+        assertMatrixEquals(bCopy.transpose(), bTransposed.transpose(), 0.0);
+        assertMatrixEquals(bCopy.transposeMultiply(), bTransposed.transposeMultiply(), 0.0);
+        assertMatrixEquals(aCopy.transposeMultiply(bCopy.column(3)), aPart.transposeMultiply(bTransposed.column(3)),
+                0.0);
+        assertEquals(aCopy.getDeterminant(), aPart.getDeterminant());
+    }
+
+    @Test
+    void shouldTransposeMatrix() {
+        Matrix a = createRandomMatrix(3, 100, new Random(42));
+        Matrix transposed = a.transpose();
+        assertEquals(new Matrix.Size(100, 3), transposed.getSize());
+        for (int i = 0; i < 3; i++) {
+            for (int j = 0; j < 100; j++) {
+                assertEquals(a.get(i, j), transposed.get(j, i));
+            }
+        }
+    }
+
+    @Test
+    void shouldInverseMatrix() {
+        Matrix a = new Matrix(3, 3);
+        double[][] values = {
+                {4.0, 7.0, 2.0},
+                {3.0, 6.0, 1.0},
+                {2.0, 5.0, 3.0}
+        };
+        for (int i = 0; i < 3; i++) {
+            a.copyRow(i, values[i]);
+        }
+
+        assertEquals(9.0, a.getDeterminant(), 1e-12);
+        double[][] identity = a.multiply(a.inverse()).toArray();
+        for (int i = 0; i < 3; i++) {
+            double[] expectedRow = new double[3];
+            expectedRow[i] = 1.0;
+            assertArrayEquals(expectedRow, identity[i], 1e-12);
+        }
+    }
+
+    private void assertMatrixEquals(Matrix expected, Matrix actual, double delta) {
+        assertEquals(expected.getSize(), actual.getSize());
+        double[][] expectedRows = expected.toArray();
+        double[][] actualRows = actual.toArray();
+        for (int i = 0; i < expectedRows.length; i++) {
+            assertArrayEquals(expectedRows[i], actualRows[i], delta);
+        }
+    }
+
+    private Matrix createRandomMatrix(int numberOfRows, int numberOfColumns, Random random) {
+        Matrix result = new Matrix(numberOfRows, numberOfColumns);
+        for (int i = 0; i < numberOfRows; i++) {
+            for (int j = 0; j < numberOfColumns; j++) {
+                result.set(i, j, random.nextDouble() - 0.5);
+            }
+        }
+        return result;
+    }
+}
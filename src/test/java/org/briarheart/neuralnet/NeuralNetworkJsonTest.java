@@ -0,0 +1,50 @@
+package org.briarheart.neuralnet;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.briarheart.neuralnet.layer.NeuralLayer;
+import org.briarheart.neuralnet.neuron.Neuron;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests of JSON representation of neural network.
+ *
+ * @author Roman Chigvintsev
+ */
+class NeuralNetworkJsonTest {
+    @Test
+    void shouldSerializeWeightsWithLayersInsteadOfLinks() {
+        NeuralNetwork neuralNetwork = NeuralNetwork.backpropagationBuilder()
+                .numberOfInputs(2)
+                .numberOfOutputs(1)
+                .numberOfLayers(2)
+                .build();
+
+        JsonObject inputLayer = JsonParser.parseString(neuralNetwork.toJson(false)).getAsJsonObject()
+                .getAsJsonObject("inputLayer");
+        for (JsonElement neuron : inputLayer.getAsJsonArray("neurons")) {
+            assertFalse(neuron.getAsJsonObject().has("inputs"));
+            assertFalse(neuron.getAsJsonObject().has("outputs"));
+        }
+
+        NeuralLayer hiddenLayer = neuralNetwork.getInputLayer().getNextLayer();
+        JsonObject hiddenLayerJson = inputLayer.getAsJsonObject("nextLayer");
+        double[] weights = hiddenLayer.getWeights();
+        assertEquals(weights.length, hiddenLayerJson.getAsJsonArray("weights").size());
+        for (int i = 0; i < weights.length; i++) {
+            assertEquals(weights[i], hiddenLayerJson.getAsJsonArray("weights").get(i).getAsDouble());
+        }
+    }
+
+    @Test
+    void shouldSerializeLinkWeight() {
+        NeuralNetwork neuralNetwork = NeuralNetwork.backpropagationBuilder().build();
+        Neuron neuron = neuralNetwork.getInputLayer().getNeurons().get(0);
+        NeuralLink link = neuron.getOutputs().get(0);
+        JsonObject json = JsonParser.parseString(link.toJson(false)).getAsJsonObject();
+        assertEquals(link.getWeight(), json.get("weight").getAsDouble());
+    }
+}
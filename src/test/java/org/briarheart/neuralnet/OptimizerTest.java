@@ -0,0 +1,99 @@
+package org.briarheart.neuralnet;
+
+import org.briarheart.neuralnet.activation.ActivationFunction;
+import org.briarheart.neuralnet.training.optimizer.Adam;
+import org.briarheart.neuralnet.training.optimizer.Momentum;
+import org.briarheart.neuralnet.training.optimizer.Optimizer;
+import org.briarheart.neuralnet.training.optimizer.RmsProp;
+import org.briarheart.neuralnet.util.CsvDataLoader;
+import org.briarheart.neuralnet.util.DataLoader;
+import org.briarheart.neuralnet.util.resource.ClassPathResource;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Optimizer based tests.
+ *
+ * @author Roman Chigvintsev
+ */
+class OptimizerTest {
+    private static final int MAX_EPOCHS = 2000;
+    private static final double TARGET_ERROR = 0.001;
+
+    @Test
+    void shouldRecognizeDigitsWithMomentum() throws IOException {
+        assertTargetErrorReached(new Momentum(0.5), 0.6);
+    }
+
+    @Test
+    void shouldRecognizeDigitsWithNesterovMomentum() throws IOException {
+        assertTargetErrorReached(new Momentum(0.8, true), 0.3);
+    }
+
+    @Test
+    void shouldRecognizeDigitsWithRmsProp() throws IOException {
+        assertTargetErrorReached(new RmsProp(), 0.01);
+    }
+
+    @Test
+    void shouldRecognizeDigitsWithAdam() throws IOException {
+        assertTargetErrorReached(new Adam(), 0.01);
+    }
+
+    /**
+     * Steps started by several threads at once must not be lost, otherwise bias correction of Adam would be wrong.
+     */
+    @Test
+    void shouldCountStepsOfAdamStartedByConcurrentThreads() throws InterruptedException {
+        Adam adam = new Adam(0.9, 0.999, 1e-8);
+        adam.initialize(new int[] {1});
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++) {
+            threads[i] = new Thread(() -> {
+                for (int j = 0; j < 250; j++) {
+                    adam.nextStep();
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        adam.nextStep();
+        double[] parameters = {0.0};
+        adam.update(0, parameters, new double[] {0.5}, 0.1);
+        double mean = 0.1 * 0.5 / (1.0 - Math.pow(0.9, 1001));
+        double variance = 0.001 * 0.25 / (1.0 - Math.pow(0.999, 1001));
+        assertEquals(0.1 * mean / (Math.sqrt(variance) + 1e-8), parameters[0], 1e-12);
+    }
+
+    private void assertTargetErrorReached(Optimizer optimizer, double learningRate) throws IOException {
+        DataLoader dataLoader = new CsvDataLoader();
+        double[][] trainingSet = dataLoader.load(new ClassPathResource("data/ocr_traning_inputs.csv"));
+        double[][] expectedOutput = dataLoader.load(new ClassPathResource("data/ocr_traning_outputs.csv"));
+
+        NeuralNetwork neuralNetwork = NeuralNetwork.backpropagationBuilder()
+                .numberOfInputs(25)
+                .numberOfOutputs(10)
+                .numberOfLayers(2)
+                .hiddenLayerSize(18)
+                .maxEpochs(MAX_EPOCHS)
+                .learningRate(learningRate)
+                .targetError(TARGET_ERROR)
+                .outputLayerActivationFunction(ActivationFunction.SIGMOID)
+                .optimizer(optimizer)
+                .build();
+        neuralNetwork.train(trainingSet, expectedOutput);
+
+        Map<Integer, Double> msePerEpoch = neuralNetwork.getMsePerEpoch();
+        double mse = msePerEpoch.get(msePerEpoch.size() - 1);
+        assertTrue(mse <= TARGET_ERROR, "Mean squared error <" + mse + "> after <" + msePerEpoch.size()
+                + "> epochs is greater than target error <" + TARGET_ERROR + ">");
+    }
+}
@@ -0,0 +1,175 @@
+package org.briarheart.neuralnet;
+
+import org.briarheart.neuralnet.activation.ActivationFunction;
+import org.briarheart.neuralnet.layer.NeuralLayer;
+import org.briarheart.neuralnet.util.CsvDataLoader;
+import org.briarheart.neuralnet.util.DataLoader;
+import org.briarheart.neuralnet.util.DataNormalizer;
+import org.briarheart.neuralnet.util.MinMaxDataNormalizer;
+import org.briarheart.neuralnet.util.resource.ClassPathResource;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.function.DoubleUnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Data-parallel backpropagation based tests.
+ *
+ * @author Roman Chigvintsev
+ */
+class ParallelBackpropagationTest {
+    @Test
+    void shouldPredictBreastCancer() throws IOException {
+        DataLoader dataLoader = new CsvDataLoader();
+        double[][] trainingSet = dataLoader.load(new ClassPathResource("data/breast_cancer_inputs_training.csv"));
+        double[][] expectedOutput = dataLoader.load(new ClassPathResource("data/breast_cancer_output_training.csv"));
+
+        DataNormalizer dataNormalizer = new MinMaxDataNormalizer();
+        double[][] normalizedTrainingSet = dataNormalizer.normalize(trainingSet);
+
+        NeuralNetwork neuralNetwork = createNeuralNetwork(4);
+        neuralNetwork.train(normalizedTrainingSet, expectedOutput);
+
+        double[][] testTrainingSet = dataLoader.load(new ClassPathResource("data/breast_cancer_inputs_test.csv"));
+        double[][] testExpectedOutput = dataLoader.load(new ClassPathResource("data/breast_cancer_output_test.csv"));
+
+        double[][] normalizedTestTrainingSet = dataNormalizer.normalize(testTrainingSet);
+        double[][] testEstimatedOutput = neuralNetwork.feedBatch(normalizedTestTrainingSet);
+
+        double expectedMeanError = 1.0;
+        for (int i = 0; i < testEstimatedOutput.length; i++) {
+            double meanError = calculateMeanError(testExpectedOutput[i], testEstimatedOutput[i]);
+            assertTrue(meanError <= expectedMeanError,
+                    "Estimated mean error <" + meanError + "> is greater than expected mean error <"
+                            + expectedMeanError + ">");
+        }
+    }
+
+    /**
+     * Two networks with the same initial weights trained by the same number of threads must end up with the same
+     * weights.
+     */
+    @Test
+    void shouldBeDeterministicForFixedNumberOfThreads() throws IOException {
+        DataLoader dataLoader = new CsvDataLoader();
+        double[][] trainingSet = dataLoader.load(new ClassPathResource("data/breast_cancer_inputs_training.csv"));
+        double[][] expectedOutput = dataLoader.load(new ClassPathResource("data/breast_cancer_output_training.csv"));
+        trainingSet = new MinMaxDataNormalizer().normalize(trainingSet);
+
+        NeuralNetwork first = createNeuralNetwork(4);
+        NeuralNetwork second = createNeuralNetwork(4);
+        copyWeights(first, second);
+
+        first.train(trainingSet, expectedOutput);
+        second.train(trainingSet, expectedOutput);
+
+        NeuralLayer firstLayer = first.getInputLayer().getNextLayer();
+        NeuralLayer secondLayer = second.getInputLayer().getNextLayer();
+        while (firstLayer != null) {
+            assertArrayEquals(firstLayer.getWeights(), secondLayer.getWeights());
+            assertArrayEquals(firstLayer.getBiases(), secondLayer.getBiases());
+            firstLayer = firstLayer.getNextLayer();
+            secondLayer = secondLayer.getNextLayer();
+        }
+        assertArrayEquals(first.getMsePerEpoch().values().toArray(), second.getMsePerEpoch().values().toArray());
+    }
+
+    /**
+     * Every worker must train its own shard of every mini-batch. Workers are told apart by buffers of hidden layer
+     * output values they pass to activation function.
+     */
+    @Test
+    void shouldDistributeSamplesBetweenAllWorkers() throws IOException {
+        DataLoader dataLoader = new CsvDataLoader();
+        double[][] trainingSet = dataLoader.load(new ClassPathResource("data/breast_cancer_inputs_training.csv"));
+        double[][] expectedOutput = dataLoader.load(new ClassPathResource("data/breast_cancer_output_training.csv"));
+        trainingSet = new MinMaxDataNormalizer().normalize(trainingSet);
+
+        Set<double[]> outputBuffers = Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+        ActivationFunction activationFunction = new ActivationFunction() {
+            @Override
+            public double apply(double value) {
+                return ActivationFunction.SIGMOID.apply(value);
+            }
+
+            @Override
+            public DoubleUnaryOperator getDerivative() {
+                return ActivationFunction.SIGMOID.getDerivative();
+            }
+
+            @Override
+            public void applyWithDerivative(double[] in, double[] out, double[] derivatives, int n) {
+                outputBuffers.add(out);
+                ActivationFunction.SIGMOID.applyWithDerivative(in, out, derivatives, n);
+            }
+        };
+
+        int numberOfThreads = 4;
+        NeuralNetwork neuralNetwork = NeuralNetwork.backpropagationBuilder()
+                .numberOfInputs(9)
+                .numberOfOutputs(1)
+                .numberOfLayers(2)
+                .hiddenLayerSize(5)
+                .maxEpochs(1)
+                .defaultActivationFunction(activationFunction)
+                .outputLayerActivationFunction(ActivationFunction.SIGMOID)
+                .batchSize(numberOfThreads)
+                .numberOfThreads(numberOfThreads)
+                .build();
+        neuralNetwork.train(trainingSet, expectedOutput);
+
+        assertEquals(numberOfThreads, outputBuffers.size());
+    }
+
+    @Test
+    void shouldRejectBatchSizeLessThanNumberOfThreads() {
+        assertThrows(IllegalArgumentException.class, () -> NeuralNetwork.backpropagationBuilder()
+                .numberOfThreads(4)
+                .build());
+        assertThrows(IllegalArgumentException.class, () -> NeuralNetwork.backpropagationBuilder()
+                .batchSize(2)
+                .numberOfThreads(4)
+                .build());
+    }
+
+    private NeuralNetwork createNeuralNetwork(int numberOfThreads) {
+        return NeuralNetwork.backpropagationBuilder()
+                .numberOfInputs(9)
+                .numberOfOutputs(1)
+                .numberOfLayers(2)
+                .hiddenLayerSize(5)
+                .maxEpochs(300)
+                .learningRate(0.9)
+                .targetError(0.00001)
+                .outputLayerActivationFunction(ActivationFunction.SIGMOID)
+                .batchSize(16)
+                .numberOfThreads(numberOfThreads)
+                .build();
+    }
+
+    private void copyWeights(NeuralNetwork source, NeuralNetwork target) {
+        NeuralLayer sourceLayer = source.getInputLayer().getNextLayer();
+        NeuralLayer targetLayer = target.getInputLayer().getNextLayer();
+        while (sourceLayer != null) {
+            System.arraycopy(sourceLayer.getWeights(), 0, targetLayer.getWeights(), 0,
+                    sourceLayer.getWeights().length);
+            System.arraycopy(sourceLayer.getBiases(), 0, targetLayer.getBiases(), 0, sourceLayer.getBiases().length);
+            sourceLayer = sourceLayer.getNextLayer();
+            targetLayer = targetLayer.getNextLayer();
+        }
+    }
+
+    private double calculateMeanError(double[] estimatedOutput, double[] expectedOutput) {
+        double errorSum = 0.0;
+        for (int i = 0; i < estimatedOutput.length; i++) {
+            double error = expectedOutput[i] - estimatedOutput[i];
+            errorSum += Math.pow(error, 2.0);
+        }
+        return errorSum / estimatedOutput.length;
+    }
+}
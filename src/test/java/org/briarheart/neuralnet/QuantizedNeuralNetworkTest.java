@@ -0,0 +1,108 @@
+package org.briarheart.neuralnet;
+
+import org.briarheart.neuralnet.activation.ActivationFunction;
+import org.briarheart.neuralnet.util.CsvDataLoader;
+import org.briarheart.neuralnet.util.DataLoader;
+import org.briarheart.neuralnet.util.DataNormalizer;
+import org.briarheart.neuralnet.util.MinMaxDataNormalizer;
+import org.briarheart.neuralnet.util.resource.ClassPathResource;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests of post-training quantization of neural network to 8-bit integers.
+ *
+ * @author Roman Chigvintsev
+ */
+class QuantizedNeuralNetworkTest {
+    @Test
+    void shouldKeepAccuracyOfBreastCancerPrediction() throws IOException {
+        DataLoader dataLoader = new CsvDataLoader();
+        DataNormalizer dataNormalizer = new MinMaxDataNormalizer();
+        double[][] trainingSet = dataNormalizer.normalize(
+                dataLoader.load(new ClassPathResource("data/breast_cancer_inputs_training.csv")));
+        double[][] expectedOutput = dataLoader.load(new ClassPathResource("data/breast_cancer_output_training.csv"));
+        double[][] testSet = dataNormalizer.normalize(
+                dataLoader.load(new ClassPathResource("data/breast_cancer_inputs_test.csv")));
+        double[][] testOutput = dataLoader.load(new ClassPathResource("data/breast_cancer_output_test.csv"));
+
+        NeuralNetwork neuralNetwork = createNeuralNetwork(9, 1);
+        neuralNetwork.train(trainingSet, expectedOutput);
+
+        QuantizedNeuralNetwork quantizedNeuralNetwork = neuralNetwork.quantize(trainingSet);
+        assertEquals(Precision.INT8, quantizedNeuralNetwork.getPrecision());
+        QuantizationReport report = new QuantizationReport(neuralNetwork.compile(), quantizedNeuralNetwork, testSet,
+                testOutput);
+        assertTrue(report.getMaxAbsoluteDifference() < 0.05,
+                "Quantized output differs from reference output by " + report.getMaxAbsoluteDifference());
+        assertTrue(report.getAccuracyDelta() >= -0.05, "Accuracy has dropped by " + -report.getAccuracyDelta());
+
+        // Test set is not a multiple of block size, so the last block of batched feed-forward is partial
+        double[][] batchOutput = quantizedNeuralNetwork.feedBatch(testSet);
+        for (int i = 0; i < testSet.length; i++) {
+            assertArrayEquals(quantizedNeuralNetwork.feed(testSet[i]), batchOutput[i]);
+        }
+    }
+
+    @Test
+    void shouldFeedBatchLikeSingleSamples() {
+        NeuralNetwork neuralNetwork = NeuralNetwork.backpropagationBuilder()
+                .numberOfInputs(7)
+                .numberOfOutputs(3)
+                .numberOfLayers(3)
+                .hiddenLayerSize(11)
+                .build();
+        Random random = new Random(42);
+        double[][] samples = new double[150][7];
+        for (double[] sample : samples) {
+            for (int k = 0; k < sample.length; k++) {
+                sample[k] = 2.0 * random.nextDouble() - 1.0;
+            }
+        }
+
+        QuantizedNeuralNetwork quantizedNeuralNetwork = neuralNetwork.quantize(samples);
+        double[][] batchOutput = quantizedNeuralNetwork.feedBatch(samples);
+        for (int i = 0; i < samples.length; i++) {
+            assertArrayEquals(quantizedNeuralNetwork.feed(samples[i]), batchOutput[i]);
+        }
+        assertEquals(0, quantizedNeuralNetwork.feedBatch(new double[0][]).length);
+    }
+
+    @Test
+    void shouldClampInputsOutsideOfCalibratedRange() {
+        NeuralNetwork neuralNetwork = createNeuralNetwork(2, 2);
+        QuantizedNeuralNetwork quantizedNeuralNetwork = neuralNetwork.quantize(new double[][] {{0.5, -0.5}});
+        double[] output = quantizedNeuralNetwork.feed(new double[] {100.0, -100.0});
+        for (double value : output) {
+            assertTrue(Double.isFinite(value), "Output value is not finite");
+        }
+        assertArrayEquals(output, quantizedNeuralNetwork.feed(new double[] {0.5, -0.5}));
+    }
+
+    @Test
+    void shouldRejectCompilationAndTrainingInIntegers() {
+        NeuralNetwork neuralNetwork = createNeuralNetwork(2, 2);
+        assertThrows(IllegalArgumentException.class, () -> neuralNetwork.compile(Precision.INT8));
+        assertThrows(IllegalArgumentException.class,
+                () -> NeuralNetwork.backpropagationBuilder().precision(Precision.INT8));
+        assertThrows(IllegalArgumentException.class, () -> neuralNetwork.quantize(new double[0][]));
+    }
+
+    private NeuralNetwork createNeuralNetwork(int numberOfInputs, int numberOfOutputs) {
+        return NeuralNetwork.backpropagationBuilder()
+                .numberOfInputs(numberOfInputs)
+                .numberOfOutputs(numberOfOutputs)
+                .numberOfLayers(2)
+                .hiddenLayerSize(5)
+                .maxEpochs(200)
+                .learningRate(0.5)
+                .targetError(0.0)
+                .outputLayerActivationFunction(ActivationFunction.SIGMOID)
+                .batchSize(16)
+                .build();
+    }
+}
@@ -0,0 +1,185 @@
+package org.briarheart.neuralnet;
+
+import org.briarheart.neuralnet.activation.ActivationFunction;
+import org.briarheart.neuralnet.layer.NeuralLayer;
+import org.briarheart.neuralnet.training.optimizer.Adam;
+import org.briarheart.neuralnet.util.*;
+import org.briarheart.neuralnet.util.resource.ClassPathResource;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests of single precision training and inference.
+ *
+ * @author Roman Chigvintsev
+ */
+class SinglePrecisionTest {
+    @Test
+    void shouldDecreaseErrorWithSinglePrecisionWeights() throws IOException {
+        DataLoader dataLoader = new CsvDataLoader();
+        double[][] trainingSet = dataLoader.load(new ClassPathResource("data/diabetes_inputs_training.csv"));
+        double[][] expectedOutput = dataLoader.load(new ClassPathResource("data/diabetes_output_training.csv"));
+        trainingSet = new MinMaxEqualizedDataNormalizer().normalize(trainingSet);
+
+        for (int batchSize : new int[] {1, 16}) {
+            NeuralNetwork neuralNetwork = createNeuralNetwork(Precision.SINGLE, batchSize);
+            neuralNetwork.train(trainingSet, expectedOutput);
+
+            Map<Integer, Double> msePerEpoch = neuralNetwork.getMsePerEpoch();
+            assertTrue(msePerEpoch.get(msePerEpoch.size() - 1) < msePerEpoch.get(0),
+                    "Mean squared error has not decreased during training with batch size " + batchSize);
+            for (NeuralLayer layer = neuralNetwork.getInputLayer().getNextLayer(); layer != null;
+                 layer = layer.getNextLayer()) {
+                for (double weight : layer.getWeights()) {
+                    assertEquals(weight, (float) weight, "Weight is not representable in single precision");
+                }
+            }
+        }
+    }
+
+    @Test
+    void shouldGiveOutputCloseToDoublePrecision() throws IOException {
+        DataLoader dataLoader = new CsvDataLoader();
+        double[][] trainingSet = dataLoader.load(new ClassPathResource("data/diabetes_inputs_training.csv"));
+        double[][] expectedOutput = dataLoader.load(new ClassPathResource("data/diabetes_output_training.csv"));
+        trainingSet = new MinMaxEqualizedDataNormalizer().normalize(trainingSet);
+
+        NeuralNetwork neuralNetwork = createNeuralNetwork(Precision.DOUBLE, 1);
+        neuralNetwork.train(trainingSet, expectedOutput);
+
+        CompiledNeuralNetwork doublePrecision = neuralNetwork.compile();
+        CompiledNeuralNetwork singlePrecision = neuralNetwork.compile(Precision.SINGLE);
+        assertEquals(Precision.DOUBLE, doublePrecision.getPrecision());
+        assertEquals(Precision.SINGLE, singlePrecision.getPrecision());
+        for (double[] sample : trainingSet) {
+            assertArrayEquals(doublePrecision.feed(sample), singlePrecision.feed(sample), 1e-5);
+        }
+    }
+
+    /**
+     * Networks trained in single and double precision from the same initial weights must end up with almost the same
+     * error and accuracy on test sets of the bundled breast cancer and diabetes datasets.
+     */
+    @Test
+    void shouldTrainAsAccuratelyAsDoublePrecision() throws IOException {
+        DataLoader dataLoader = new CsvDataLoader();
+
+        DataNormalizer breastCancerNormalizer = new MinMaxDataNormalizer();
+        assertAccuracyCloseToDoublePrecision("breast_cancer",
+                breastCancerNormalizer.normalize(dataLoader.load(
+                        new ClassPathResource("data/breast_cancer_inputs_training.csv"))),
+                dataLoader.load(new ClassPathResource("data/breast_cancer_output_training.csv")),
+                breastCancerNormalizer.normalize(dataLoader.load(
+                        new ClassPathResource("data/breast_cancer_inputs_test.csv"))),
+                dataLoader.load(new ClassPathResource("data/breast_cancer_output_test.csv")));
+
+        DataNormalizer diabetesNormalizer = new MinMaxEqualizedDataNormalizer();
+        assertAccuracyCloseToDoublePrecision("diabetes",
+                diabetesNormalizer.normalize(dataLoader.load(
+                        new ClassPathResource("data/diabetes_inputs_training.csv"))),
+                dataLoader.load(new ClassPathResource("data/diabetes_output_training.csv")),
+                diabetesNormalizer.normalize(dataLoader.load(
+                        new ClassPathResource("data/diabetes_inputs_test.csv"))),
+                dataLoader.load(new ClassPathResource("data/diabetes_output_test.csv")));
+    }
+
+    @Test
+    void shouldCompileInPrecisionOfNetwork() {
+        NeuralNetwork neuralNetwork = createNeuralNetwork(Precision.SINGLE, 1);
+        assertEquals(Precision.SINGLE, neuralNetwork.getPrecision());
+        assertEquals(Precision.SINGLE, neuralNetwork.compile().getPrecision());
+    }
+
+    @Test
+    void shouldRejectUnsupportedOptimizer() {
+        assertThrows(IllegalArgumentException.class, () -> NeuralNetwork.backpropagationBuilder()
+                .precision(Precision.SINGLE)
+                .optimizer(new Adam())
+                .build());
+    }
+
+    private void assertAccuracyCloseToDoublePrecision(
+            String dataset,
+            double[][] trainingSet,
+            double[][] expectedOutput,
+            double[][] testSet,
+            double[][] testOutput
+    ) {
+        double[] mse = new double[2];
+        double[] accuracy = new double[2];
+        Precision[] precisions = {Precision.DOUBLE, Precision.SINGLE};
+        for (int p = 0; p < precisions.length; p++) {
+            NeuralNetwork neuralNetwork = NeuralNetwork.backpropagationBuilder()
+                    .numberOfInputs(trainingSet[0].length)
+                    .numberOfOutputs(expectedOutput[0].length)
+                    .numberOfLayers(2)
+                    .hiddenLayerSize(16)
+                    .maxEpochs(200)
+                    .learningRate(0.5)
+                    .targetError(0.0)
+                    .outputLayerActivationFunction(ActivationFunction.SIGMOID)
+                    .batchSize(16)
+                    .precision(precisions[p])
+                    .build();
+            initializeWeights(neuralNetwork, new Random(42));
+            neuralNetwork.train(trainingSet, expectedOutput);
+
+            CompiledNeuralNetwork compiledNeuralNetwork = neuralNetwork.compile();
+            int numberOfHits = 0;
+            for (int i = 0; i < testSet.length; i++) {
+                double[] estimatedOutput = compiledNeuralNetwork.feed(testSet[i]);
+                for (int j = 0; j < estimatedOutput.length; j++) {
+                    mse[p] += Math.pow(testOutput[i][j] - estimatedOutput[j], 2.0) / estimatedOutput.length;
+                }
+                if (classify(estimatedOutput) == classify(testOutput[i])) {
+                    numberOfHits++;
+                }
+            }
+            mse[p] /= testSet.length;
+            accuracy[p] = (double) numberOfHits / testSet.length;
+        }
+
+        assertEquals(mse[0], mse[1], 1e-5, "Test MSE of single precision differs on " + dataset);
+        assertEquals(accuracy[0], accuracy[1], 0.01, "Test accuracy of single precision differs on " + dataset);
+    }
+
+    private static void initializeWeights(NeuralNetwork neuralNetwork, Random random) {
+        for (NeuralLayer layer = neuralNetwork.getInputLayer().getNextLayer(); layer != null;
+             layer = layer.getNextLayer()) {
+            double[] weights = layer.getWeights();
+            for (int i = 0; i < weights.length; i++) {
+                weights[i] = random.nextDouble() - 0.5;
+            }
+            double[] biases = layer.getBiases();
+            for (int i = 0; i < biases.length; i++) {
+                biases[i] = random.nextDouble() - 0.5;
+            }
+        }
+    }
+
+    private static int classify(double[] output) {
+        if (output.length == 1) {
+            return output[0] >= 0.5 ? 1 : 0;
+        }
+        return Arrays.findMaximum(output);
+    }
+
+    private NeuralNetwork createNeuralNetwork(Precision precision, int batchSize) {
+        return NeuralNetwork.backpropagationBuilder()
+                .numberOfInputs(8)
+                .numberOfOutputs(2)
+                .numberOfLayers(2)
+                .hiddenLayerSize(5)
+                .maxEpochs(50)
+                .learningRate(0.1)
+                .targetError(0.0)
+                .batchSize(batchSize)
+                .precision(precision)
+                .build();
+    }
+}
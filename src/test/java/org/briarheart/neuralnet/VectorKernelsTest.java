@@ -0,0 +1,150 @@
+package org.briarheart.neuralnet;
+
+import org.briarheart.neuralnet.util.math.VectorKernels;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Vector kernel based tests.
+ *
+ * @author Roman Chigvintsev
+ */
+class VectorKernelsTest {
+    private static final double DELTA = 1e-12;
+
+    @Test
+    void shouldCalculateDotProductAndSquaredDistance() {
+        Random random = new Random(42);
+        double[] a = createRandomVector(20, random);
+        double[] b = createRandomVector(20, random);
+        for (int length = 0; length <= 17; length++) {
+            double dot = 0.0;
+            double distance = 0.0;
+            for (int i = 0; i < length; i++) {
+                dot += a[1 + i] * b[3 + i];
+                distance += (a[1 + i] - b[3 + i]) * (a[1 + i] - b[3 + i]);
+            }
+            assertEquals(dot, VectorKernels.dot(a, 1, b, 3, length), DELTA);
+            assertEquals(distance, VectorKernels.squaredDistance(a, 1, b, 3, length), DELTA);
+        }
+    }
+
+    @Test
+    void shouldCalculateDotProductSequentially() {
+        Random random = new Random(42);
+        double[] a = createRandomVector(20, random);
+        double[] b = createRandomVector(20, random);
+        for (int length = 0; length <= 17; length++) {
+            double dot = 0.25;
+            for (int i = 0; i < length; i++) {
+                dot += a[1 + i] * b[3 + i];
+            }
+            assertEquals(dot, VectorKernels.sequentialDot(0.25, a, 1, b, 3, length), 0.0);
+        }
+    }
+
+    @Test
+    void shouldCalculateDotProductLikeStreamSum() {
+        Random random = new Random(42);
+        double[] a = createRandomVector(60, random);
+        double[] b = createRandomVector(20, random);
+        for (int i = 0; i < a.length; i += 7) {
+            a[i] *= 1e9;
+        }
+        for (int length = 0; length <= 17; length++) {
+            double sum = IntStream.range(0, length).mapToDouble(i -> a[2 + 3 * i] * b[1 + i]).sum();
+            assertEquals(sum, VectorKernels.compensatedDot(a, 2, 3, b, 1, length), 0.0);
+        }
+    }
+
+    @Test
+    void shouldCalculateIntegerDotProduct() {
+        byte[] a = new byte[20];
+        byte[] b = new byte[20];
+        for (int i = 0; i < a.length; i++) {
+            a[i] = (byte) (i % 2 == 0 ? 127 : -127);
+            b[i] = (byte) (i % 3 == 0 ? -127 : 127);
+        }
+        for (int length = 0; length <= 17; length++) {
+            int dot = 0;
+            for (int i = 0; i < length; i++) {
+                dot += a[1 + i] * b[3 + i];
+            }
+            assertEquals(dot, VectorKernels.dot(a, 1, b, 3, length));
+        }
+    }
+
+    @Test
+    void shouldAddScaledIntegerVector() {
+        int[] x = new int[20];
+        int[] y = new int[20];
+        for (int i = 0; i < x.length; i++) {
+            x[i] = i % 2 == 0 ? 127 : -127;
+            y[i] = i;
+        }
+        int[] expected = y.clone();
+        for (int i = 0; i < 17; i++) {
+            expected[2 + i] += -3 * x[1 + i];
+        }
+        VectorKernels.axpy(-3, x, 1, y, 2, 17);
+        assertArrayEquals(expected, y);
+    }
+
+    @Test
+    void shouldAddFourScaledIntegerVectors() {
+        int stride = 24;
+        int[] x = new int[5 + 4 * stride];
+        int[] y = new int[19];
+        for (int i = 0; i < x.length; i++) {
+            x[i] = i % 3 == 0 ? 127 : -i % 128;
+        }
+        for (int i = 0; i < y.length; i++) {
+            y[i] = i;
+        }
+        int[] alphas = {-128, 127, 0, -5};
+        int[] expected = y.clone();
+        for (int j = 0; j < alphas.length; j++) {
+            VectorKernels.axpy(alphas[j], x, 5 + j * stride, expected, 0, 17);
+        }
+        VectorKernels.axpy4(alphas[0], alphas[1], alphas[2], alphas[3], x, 5, stride, y, 17);
+        assertArrayEquals(expected, y);
+    }
+
+    @Test
+    void shouldAddScaledVectorAndMatrixVectorProduct() {
+        Random random = new Random(42);
+        double[] x = createRandomVector(7, random);
+        double[] y = createRandomVector(10, random);
+
+        double[] expected = y.clone();
+        for (int i = 0; i < 7; i++) {
+            expected[2 + i] += 0.5 * x[i];
+        }
+        VectorKernels.axpy(0.5, x, 0, y, 2, 7);
+        assertArrayEquals(expected, y, DELTA);
+
+        double[] a = createRandomVector(3 * 7, random);
+        double[] z = createRandomVector(3, random);
+        expected = z.clone();
+        for (int i = 0; i < 3; i++) {
+            for (int j = 0; j < 7; j++) {
+                expected[i] += a[i * 7 + j] * x[j];
+            }
+        }
+        VectorKernels.gemv(a, 3, 7, x, z);
+        assertArrayEquals(expected, z, DELTA);
+    }
+
+    private double[] createRandomVector(int length, Random random) {
+        double[] result = new double[length];
+        for (int i = 0; i < length; i++) {
+            result[i] = random.nextDouble() - 0.5;
+        }
+        return result;
+    }
+}